@@ -0,0 +1,11 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Re-drives dead-lettered orders (orders.inbound.dlq) back into orders.inbound
+# through the running oms-validator. Usage: scripts/replay-dlq.sh [max-records]
+
+VALIDATOR_URL="${VALIDATOR_URL:-http://localhost:8081}"
+MAX_RECORDS="${1:-1000}"
+
+curl -fsS -X POST "$VALIDATOR_URL/api/v1/admin/dlq/replay?maxRecords=$MAX_RECORDS"
+echo
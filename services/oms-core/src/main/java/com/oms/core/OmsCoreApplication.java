@@ -0,0 +1,22 @@
+package com.oms.core;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * OMS Core - order lifecycle state
+ *
+ * Responsibilities:
+ * - Own each order's status from NEW through validation, routing and fills to a terminal state
+ * - Apply transitions on single-threaded shards and journal them to memory-mapped files
+ * - Recover from the latest snapshot plus the journal tail on restart
+ */
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class OmsCoreApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(OmsCoreApplication.class, args);
+    }
+}
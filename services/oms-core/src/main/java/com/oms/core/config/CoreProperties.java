@@ -0,0 +1,43 @@
+package com.oms.core.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for oms-core
+ */
+@Data
+@ConfigurationProperties(prefix = "oms.core")
+public class CoreProperties {
+
+    private Topics topics = new Topics();
+    private Engine engine = new Engine();
+
+    @Data
+    public static class Topics {
+        private String inbound = "orders.inbound";
+        private String validated = "orders.validated";
+        private String rejected = "orders.rejected";
+        private String routed = "orders.routed";
+        private String fills = "executions.fills";
+    }
+
+    @Data
+    public static class Engine {
+        /** Single-threaded shards (orders are hashed onto them by orderId); 0 = one per available processor */
+        private int shards = 0;
+        private String journalDir = System.getProperty("java.io.tmpdir") + "/oms-core";
+        /** Size of each memory-mapped journal segment file */
+        private int segmentBytes = 64 * 1024 * 1024;
+        /** Also force journal pages to disk at each checkpoint (survives an OS crash, not only the process) */
+        private boolean fsync = false;
+        /** How often the feed writes its Kafka positions into every shard's journal */
+        private long checkpointIntervalMs = 1000;
+        /** How often each shard writes a snapshot and drops the journal segments before it */
+        private long snapshotIntervalMs = 60000;
+        /** Terminal orders are kept this long after their last transition, then dropped at a snapshot */
+        private long terminalRetentionMs = 3_600_000;
+        private long callTimeoutMs = 1000;
+    }
+}
@@ -0,0 +1,47 @@
+package com.oms.core.config;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import com.oms.core.engine.OrderEngine;
+import com.oms.core.engine.OrderEventFeed;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * The order engine and its lifecycle topic feed.
+ */
+@Configuration
+public class OrderEngineConfiguration {
+
+    private static final String FEED_GROUP = "oms-core-engine";
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OrderEngine orderEngine(CoreProperties properties, MeterRegistry meterRegistry) {
+        CoreProperties.Engine engine = properties.getEngine();
+        return new OrderEngine(new OrderEngine.Settings(engine.getShards(), engine.getJournalDir(),
+                engine.getSegmentBytes(), engine.isFsync(), engine.getTerminalRetentionMs(),
+                engine.getCallTimeoutMs(), "oms.core.engine"), meterRegistry);
+    }
+
+    @Bean(destroyMethod = "stop")
+    public OrderEventFeed orderEventFeed(ConsumerFactory<String, byte[]> consumerFactory, OrderEngine orderEngine,
+            CoreProperties properties, ObjectMapper objectMapper) {
+        CoreProperties.Topics topics = properties.getTopics();
+        CoreProperties.Engine engine = properties.getEngine();
+        return new OrderEventFeed(consumerFactory, orderEngine,
+                new OrderEventFeed.Settings(topics.getInbound(), topics.getValidated(), topics.getRejected(),
+                        topics.getRouted(), topics.getFills(), engine.getCheckpointIntervalMs(),
+                        engine.getSnapshotIntervalMs(), FEED_GROUP),
+                objectMapper);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOrderEventFeed(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(OrderEventFeed.class).start();
+    }
+}
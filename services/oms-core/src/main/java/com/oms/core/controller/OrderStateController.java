@@ -0,0 +1,32 @@
+package com.oms.core.controller;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.core.engine.OrderEngine;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lifecycle state of an order as the engine holds it.
+ */
+@RestController
+@RequestMapping("/api/v1/orders")
+@RequiredArgsConstructor
+public class OrderStateController {
+
+    private final OrderEngine orderEngine;
+
+    @GetMapping("/{orderId}/state")
+    public CompletableFuture<ResponseEntity<OrderDTO>> getOrderState(@PathVariable UUID orderId) {
+        return orderEngine.find(orderId)
+                .thenApply(order -> order != null ? ResponseEntity.ok(order) : ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,211 @@
+package com.oms.core.engine;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.oms.common.model.OrderDTO.OrderSide;
+import com.oms.common.model.OrderDTO.OrderStatus;
+
+/**
+ * Binary layout of journal entries and snapshot records, big-endian.
+ * <pre>
+ *   transition  byte 1, source, long offset, byte type, uuid orderId, string accountId,
+ *               string symbol, byte side, long quantity, long price, long timestamp
+ *   checkpoint  byte 2, long sequence, int count, (source, long offset) x count
+ *   order       (snapshots) uuid, strings, side, quantity, price, createdAt, byte status,
+ *               filledQuantity, updatedAt
+ *   parked      (snapshots) a transition without its leading kind byte
+ * </pre>
+ * Strings are an unsigned short UTF-8 length and the bytes, 0xFFFF for null. Enums are
+ * ordinals (-1 for null): constants may only be appended.
+ */
+final class JournalCodec {
+
+    static final byte TRANSITION = 1;
+    static final byte CHECKPOINT = 2;
+
+    private static final int NULL_STRING = 0xFFFF;
+
+    private static final OrderEvent.Type[] TYPES = OrderEvent.Type.values();
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    /** A journaled transition and the Kafka record (topic-partition and offset) it came from */
+    record Transition(String source, long offset, OrderEvent event) {
+    }
+
+    /** The feed's next offset per topic-partition; every transition before it is applied */
+    record Checkpoint(long sequence, Map<String, Long> positions) {
+    }
+
+    private JournalCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static void putTransition(ByteBuffer out, String source, long offset, OrderEvent event) {
+        out.put(TRANSITION);
+        putString(out, source);
+        out.putLong(offset);
+        out.put((byte) event.type().ordinal());
+        out.putLong(event.orderId().getMostSignificantBits());
+        out.putLong(event.orderId().getLeastSignificantBits());
+        putString(out, event.accountId());
+        putString(out, event.symbol());
+        out.put(ordinal(event.side()));
+        out.putLong(event.quantity());
+        out.putLong(event.price());
+        out.putLong(event.timestamp());
+    }
+
+    static void putCheckpoint(ByteBuffer out, Checkpoint checkpoint) {
+        out.put(CHECKPOINT);
+        out.putLong(checkpoint.sequence());
+        out.putInt(checkpoint.positions().size());
+        for (Map.Entry<String, Long> position : checkpoint.positions().entrySet()) {
+            putString(out, position.getKey());
+            out.putLong(position.getValue());
+        }
+    }
+
+    /**
+     * @return a {@link Transition} or a {@link Checkpoint}
+     * @throws IllegalArgumentException for an unknown entry kind
+     */
+    static Object read(ByteBuffer in) {
+        byte kind = in.get();
+        if (kind == TRANSITION) {
+            String source = getString(in);
+            long offset = in.getLong();
+            OrderEvent.Type type = TYPES[in.get()];
+            UUID orderId = new UUID(in.getLong(), in.getLong());
+            String accountId = getString(in);
+            String symbol = getString(in);
+            byte side = in.get();
+            OrderEvent event = new OrderEvent(type, orderId, accountId, symbol, side < 0 ? null : SIDES[side],
+                    in.getLong(), in.getLong(), in.getLong());
+            return new Transition(source, offset, event);
+        }
+        if (kind == CHECKPOINT) {
+            long sequence = in.getLong();
+            int count = in.getInt();
+            Map<String, Long> positions = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                positions.put(getString(in), in.getLong());
+            }
+            return new Checkpoint(sequence, positions);
+        }
+        throw new IllegalArgumentException("Unknown journal entry kind " + kind);
+    }
+
+    static void writeParked(DataOutput out, Transition parked) throws IOException {
+        OrderEvent event = parked.event();
+        writeString(out, parked.source());
+        out.writeLong(parked.offset());
+        out.writeByte(event.type().ordinal());
+        out.writeLong(event.orderId().getMostSignificantBits());
+        out.writeLong(event.orderId().getLeastSignificantBits());
+        writeString(out, event.accountId());
+        writeString(out, event.symbol());
+        out.writeByte(ordinal(event.side()));
+        out.writeLong(event.quantity());
+        out.writeLong(event.price());
+        out.writeLong(event.timestamp());
+    }
+
+    static Transition readParked(DataInput in) throws IOException {
+        String source = readString(in);
+        long offset = in.readLong();
+        OrderEvent.Type type = TYPES[in.readByte()];
+        UUID orderId = new UUID(in.readLong(), in.readLong());
+        String accountId = readString(in);
+        String symbol = readString(in);
+        byte side = in.readByte();
+        OrderEvent event = new OrderEvent(type, orderId, accountId, symbol, side < 0 ? null : SIDES[side],
+                in.readLong(), in.readLong(), in.readLong());
+        return new Transition(source, offset, event);
+    }
+
+    static void writeOrder(DataOutput out, OrderState order) throws IOException {
+        out.writeLong(order.getOrderId().getMostSignificantBits());
+        out.writeLong(order.getOrderId().getLeastSignificantBits());
+        writeString(out, order.getAccountId());
+        writeString(out, order.getSymbol());
+        out.writeByte(ordinal(order.getSide()));
+        out.writeLong(order.getQuantity());
+        out.writeLong(order.getPrice());
+        out.writeLong(order.getCreatedAt());
+        out.writeByte(ordinal(order.getStatus()));
+        out.writeLong(order.getFilledQuantity());
+        out.writeLong(order.getUpdatedAt());
+    }
+
+    static OrderState readOrder(DataInput in) throws IOException {
+        UUID orderId = new UUID(in.readLong(), in.readLong());
+        String accountId = readString(in);
+        String symbol = readString(in);
+        byte side = in.readByte();
+        long quantity = in.readLong();
+        long price = in.readLong();
+        long createdAt = in.readLong();
+        byte status = in.readByte();
+        return new OrderState(orderId, accountId, symbol, side < 0 ? null : SIDES[side], quantity, price, createdAt,
+                status < 0 ? null : STATUSES[status], in.readLong(), in.readLong());
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(checkedLength(bytes));
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) checkedLength(bytes));
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checkedLength(byte[] bytes) {
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for the journal");
+        }
+        return bytes.length;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+}
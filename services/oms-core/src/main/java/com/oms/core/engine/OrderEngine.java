@@ -0,0 +1,518 @@
+package com.oms.core.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderStatus;
+import com.oms.core.engine.JournalCodec.Checkpoint;
+import com.oms.core.engine.JournalCodec.Transition;
+import com.oms.core.engine.OrderJournal.Position;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event-sourced order lifecycle engine: order state sharded by orderId, each shard owned by
+ * one thread that applies {@link OrderState} transitions and appends every accepted one to
+ * its own memory-mapped {@link OrderJournal} before applying it.
+ *
+ * Events come from the Kafka feed with the topic-partition and offset they were read at.
+ * The feed periodically writes a checkpoint of its positions into every shard's journal,
+ * behind the events it has already handed out, and every few checkpoints each shard
+ * writes a snapshot of its orders and drops the journal segments the snapshot covers.
+ *
+ * On start each shard loads its snapshot and replays its journal tail; the feed then
+ * resumes at the oldest checkpoint any shard holds. Records read again after that point
+ * are skipped by the shards that had already applied them (their last applied offset per
+ * topic-partition is part of the state), so nothing is applied twice or lost.
+ *
+ * A shard that fails to apply an event (typically a failed journal append) stops: it
+ * applies and checkpoints nothing more, so its last checkpoint stays behind the event.
+ * The feed sees {@link #failed()}, and resumes from {@link #resumeOffsets()}, which
+ * restarts the stopped shards; the event is read again rather than lost.
+ *
+ * The topics are read in parallel, so a routing or fill may be read before the record that
+ * creates or validates its order. Such events are journaled and parked on the shard until
+ * the order gets there (parked events are part of snapshots); those still waiting after
+ * the terminal retention are dropped at a snapshot.
+ *
+ * Not a Spring bean itself: created by the engine configuration, which calls
+ * {@link #start()} and {@link #close()}.
+ */
+@Slf4j
+public class OrderEngine implements AutoCloseable {
+
+    /**
+     * @param shards              single-threaded shards; 0 = one per CPU. Fixed once a journal exists.
+     * @param terminalRetentionMs terminal orders are dropped at the first snapshot this long after their
+     *                            last transition; also how long a parked event waits for its order
+     */
+    public record Settings(int shards, String journalDir, int segmentBytes, boolean fsync,
+            long terminalRetentionMs, long callTimeoutMs, String metricPrefix) {
+    }
+
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String LAYOUT_FILE = "shards";
+    private static final int MAX_ENTRY_BYTES = 64 * 1024;
+
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+
+    private Shard[] shards;
+    private long checkpointSequence;
+    private volatile boolean failed;
+    private Counter[] transitions;
+    private Counter ignored;
+    private Counter parked;
+    private Counter redelivered;
+
+    private enum Outcome {
+        APPLIED, PARKED, IGNORED
+    }
+
+    private static final class Shard {
+        final int index;
+        final Path dir;
+        final ExecutorService writer;
+        final Map<UUID, OrderState> orders = new HashMap<>();
+        /** Last offset applied per source topic-partition */
+        final Map<String, Long> applied = new HashMap<>();
+        /** Events read before their order could take them, in arrival order */
+        final Map<UUID, List<Transition>> parked = new HashMap<>();
+        final ByteBuffer scratch = ByteBuffer.allocate(MAX_ENTRY_BYTES);
+        OrderJournal journal;
+        Checkpoint checkpoint;
+        /** Failed to apply an event: skips everything until the feed resumes */
+        boolean stopped;
+
+        Shard(int index, Path dir) {
+            this.index = index;
+            this.dir = dir;
+            this.writer = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("order-engine-" + index).daemon().factory());
+        }
+    }
+
+    public OrderEngine(Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates the shards and recovers each from its snapshot and journal.
+     */
+    public void start() throws IOException {
+        Path dir = Path.of(settings.journalDir());
+        int count = shardCount(dir);
+        long start = System.nanoTime();
+        shards = new Shard[count];
+        int orders = 0;
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, dir.resolve("shard-" + i));
+            recover(shards[i]);
+            orders += shards[i].orders.size();
+        }
+
+        for (Shard shard : shards) {
+            if (shard.checkpoint != null) {
+                checkpointSequence = Math.max(checkpointSequence, shard.checkpoint.sequence());
+            }
+        }
+        log.info("Recovered {} orders into {} engine shards from {} in {} ms", orders, count, dir,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        transitions = new Counter[OrderEvent.Type.values().length];
+        for (OrderEvent.Type type : OrderEvent.Type.values()) {
+            transitions[type.ordinal()] = Counter.builder(settings.metricPrefix() + ".transitions")
+                    .tag("type", type.name())
+                    .register(meterRegistry);
+        }
+        ignored = Counter.builder(settings.metricPrefix() + ".ignored")
+                .description("Events that are not a legal transition for their order")
+                .register(meterRegistry);
+        parked = Counter.builder(settings.metricPrefix() + ".parked")
+                .description("Events read before their order could take them, held until it can")
+                .register(meterRegistry);
+        redelivered = Counter.builder(settings.metricPrefix() + ".redelivered")
+                .description("Records re-read after a restart that were already applied")
+                .register(meterRegistry);
+        Gauge.builder(settings.metricPrefix() + ".orders", this, engine -> engine.orderCount())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        if (shards != null) {
+            for (Shard shard : shards) {
+                shard.writer.close();
+                if (shard.journal != null) {
+                    shard.journal.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Feed offsets (topic-partition -&gt; next offset) every shard has journaled; the feed
+     * starts there, and from the beginning for partitions not in it. Restarts shards that
+     * stopped on a failure, behind everything already queued: call it with no dispatch in
+     * progress.
+     */
+    public Map<String, Long> resumeOffsets() {
+        List<CompletableFuture<Checkpoint>> checkpoints = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            checkpoints.add(CompletableFuture.supplyAsync(() -> {
+                shard.stopped = false;
+                return shard.checkpoint;
+            }, shard.writer));
+        }
+
+        Checkpoint oldest = null;
+        boolean complete = true;
+        for (CompletableFuture<Checkpoint> future : checkpoints) {
+            Checkpoint checkpoint = future.join();
+            if (checkpoint == null) {
+                complete = false;
+            } else if (oldest == null || checkpoint.sequence() < oldest.sequence()) {
+                oldest = checkpoint;
+            }
+        }
+        failed = false;
+        return complete && oldest != null ? oldest.positions() : Map.of();
+    }
+
+    /**
+     * Whether a shard has stopped on a failure since the last {@link #resumeOffsets()}.
+     */
+    public boolean failed() {
+        return failed;
+    }
+
+    /**
+     * Queues an event on its order's shard. Events of one order apply in call order.
+     *
+     * @param source topic-partition the event was read from
+     * @param offset its offset there
+     */
+    public void apply(String source, long offset, OrderEvent event) {
+        Shard shard = shardFor(event.orderId());
+        shard.writer.execute(() -> {
+            if (shard.stopped) {
+                return;
+            }
+            Long last = shard.applied.get(source);
+            if (last != null && offset <= last) {
+                redelivered.increment();
+                return;
+            }
+            try {
+                Outcome outcome = transition(shard, source, offset, event, true);
+                // Only once journaled (or ignored): a failed append must not mark the event applied
+                shard.applied.put(source, offset);
+                switch (outcome) {
+                    case APPLIED -> transitions[event.type().ordinal()].increment();
+                    case PARKED -> parked.increment();
+                    case IGNORED -> ignored.increment();
+                }
+            } catch (Exception e) {
+                log.error("Failed to apply {} of order {} on shard {} ({}@{}), stopping the shard until the feed "
+                        + "resumes: {}", event.type(), event.orderId(), shard.index, source, offset, e.getMessage());
+                shard.stopped = true;
+                failed = true;
+            }
+        });
+    }
+
+    /**
+     * Journals the feed's positions in every shard, behind everything already queued, and
+     * optionally snapshots the shards. Must be called by the feed thread between
+     * dispatches, so that the positions cover exactly the events handed out.
+     */
+    public void checkpoint(Map<String, Long> positions, boolean snapshot) {
+        Checkpoint checkpoint = new Checkpoint(++checkpointSequence, Map.copyOf(positions));
+        for (Shard shard : shards) {
+            shard.writer.execute(() -> {
+                if (shard.stopped) {
+                    // Its last checkpoint must stay behind the event it failed on
+                    return;
+                }
+                try {
+                    shard.scratch.clear();
+                    JournalCodec.putCheckpoint(shard.scratch, checkpoint);
+                    shard.journal.append(shard.scratch.flip());
+                    shard.checkpoint = checkpoint;
+                    if (settings.fsync()) {
+                        shard.journal.force();
+                    }
+                    if (snapshot) {
+                        snapshot(shard);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to checkpoint engine shard {}: {}", shard.index, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Current state of an order, read on its shard thread; completes with null for an
+     * unknown (or already dropped terminal) order.
+     */
+    public CompletableFuture<OrderDTO> find(UUID orderId) {
+        Shard shard = shardFor(orderId);
+        return CompletableFuture.supplyAsync(() -> {
+            OrderState order = shard.orders.get(orderId);
+            return order != null ? order.toDTO() : null;
+        }, shard.writer).orTimeout(settings.callTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies the event if it creates the order or is a legal transition of it, and then
+     * whatever was parked for the order and has become legal; parks it if it may become
+     * legal later. Journals it first when asked to (not while replaying the journal itself),
+     * parked or not, so that replay parks and applies exactly the same.
+     */
+    private Outcome transition(Shard shard, String source, long offset, OrderEvent event, boolean journal)
+            throws IOException {
+        OrderState order = shard.orders.get(event.orderId());
+        if (order == null) {
+            OrderState created = OrderState.create(event);
+            if (created == null) {
+                return park(shard, source, offset, event, journal);
+            }
+            if (journal) {
+                journal(shard, source, offset, event);
+            }
+            shard.orders.put(event.orderId(), created);
+            applyParked(shard, created, journal);
+            return Outcome.APPLIED;
+        }
+        OrderStatus next = order.next(event);
+        if (next == null) {
+            return order.early(event) ? park(shard, source, offset, event, journal) : Outcome.IGNORED;
+        }
+        if (journal) {
+            journal(shard, source, offset, event);
+        }
+        order.apply(event, next);
+        applyParked(shard, order, journal);
+        return Outcome.APPLIED;
+    }
+
+    private static Outcome park(Shard shard, String source, long offset, OrderEvent event, boolean journal)
+            throws IOException {
+        if (journal) {
+            journal(shard, source, offset, event);
+        }
+        shard.parked.computeIfAbsent(event.orderId(), id -> new ArrayList<>())
+                .add(new Transition(source, offset, event));
+        return Outcome.PARKED;
+    }
+
+    /**
+     * Applies the order's parked events that are now legal, in arrival order, until none
+     * is; drops those that can no longer become legal.
+     */
+    private void applyParked(Shard shard, OrderState order, boolean live) {
+        List<Transition> waiting = shard.parked.get(order.getOrderId());
+        if (waiting == null) {
+            return;
+        }
+        boolean progress = true;
+        while (progress && !waiting.isEmpty()) {
+            progress = false;
+            for (Iterator<Transition> it = waiting.iterator(); it.hasNext();) {
+                OrderEvent event = it.next().event();
+                OrderStatus next = order.next(event);
+                if (next != null) {
+                    order.apply(event, next);
+                    it.remove();
+                    progress = true;
+                    if (live) {
+                        transitions[event.type().ordinal()].increment();
+                    }
+                } else if (!order.early(event)) {
+                    it.remove();
+                    if (live) {
+                        ignored.increment();
+                    }
+                }
+            }
+        }
+        if (waiting.isEmpty()) {
+            shard.parked.remove(order.getOrderId());
+        }
+    }
+
+    private static void journal(Shard shard, String source, long offset, OrderEvent event) throws IOException {
+        shard.scratch.clear();
+        JournalCodec.putTransition(shard.scratch, source, offset, event);
+        shard.journal.append(shard.scratch.flip());
+    }
+
+    private void recover(Shard shard) throws IOException {
+        Position from = new Position(0, 0);
+        Path snapshot = shard.dir.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            from = readSnapshot(shard, snapshot);
+        }
+        shard.journal = new OrderJournal(shard.dir, settings.segmentBytes(), settings.fsync());
+        shard.journal.replay(from, entry -> {
+            Object read = JournalCodec.read(entry);
+            if (read instanceof Transition transition) {
+                try {
+                    transition(shard, transition.source(), transition.offset(), transition.event(), false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                shard.applied.merge(transition.source(), transition.offset(), Math::max);
+            } else if (read instanceof Checkpoint checkpoint) {
+                shard.checkpoint = checkpoint;
+            }
+        });
+    }
+
+    /**
+     * Writes the shard's state as of its journal's current position, then drops the
+     * segments before it. Runs on the shard thread.
+     */
+    private void snapshot(Shard shard) throws IOException {
+        long cutoff = System.currentTimeMillis() - settings.terminalRetentionMs();
+        shard.orders.values().removeIf(order -> order.isTerminal() && order.getUpdatedAt() < cutoff);
+        shard.parked.values().removeIf(waiting -> {
+            waiting.removeIf(transition -> transition.event().timestamp() < cutoff);
+            return waiting.isEmpty();
+        });
+
+        Position position = shard.journal.position();
+        Path file = shard.dir.resolve(SNAPSHOT_FILE);
+        Path temp = file.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(position.segment());
+            out.writeInt(position.offset());
+            out.writeBoolean(shard.checkpoint != null);
+            if (shard.checkpoint != null) {
+                out.writeLong(shard.checkpoint.sequence());
+                writeOffsets(out, shard.checkpoint.positions());
+            }
+            writeOffsets(out, shard.applied);
+            out.writeInt(shard.orders.size());
+            for (OrderState order : shard.orders.values()) {
+                JournalCodec.writeOrder(out, order);
+            }
+            out.writeInt(shard.parked.values().stream().mapToInt(List::size).sum());
+            for (List<Transition> waiting : shard.parked.values()) {
+                for (Transition transition : waiting) {
+                    JournalCodec.writeParked(out, transition);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        shard.journal.deleteBefore(position.segment());
+    }
+
+    /**
+     * @return the journal position the snapshot was taken at
+     */
+    private static Position readSnapshot(Shard shard, Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                // The journal before it is gone, so the snapshot cannot simply be skipped
+                throw new IllegalStateException("Engine snapshot " + file + " has version " + version
+                        + ", expected " + SNAPSHOT_VERSION);
+            }
+            Position position = new Position(in.readLong(), in.readInt());
+            if (in.readBoolean()) {
+                long sequence = in.readLong();
+                shard.checkpoint = new Checkpoint(sequence, readOffsets(in));
+            }
+            shard.applied.putAll(readOffsets(in));
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                OrderState order = JournalCodec.readOrder(in);
+                shard.orders.put(order.getOrderId(), order);
+            }
+            int waiting = in.readInt();
+            for (int i = 0; i < waiting; i++) {
+                Transition transition = JournalCodec.readParked(in);
+                shard.parked.computeIfAbsent(transition.event().orderId(), id -> new ArrayList<>()).add(transition);
+            }
+            return position;
+        }
+    }
+
+    private static void writeOffsets(DataOutputStream out, Map<String, Long> offsets) throws IOException {
+        out.writeInt(offsets.size());
+        for (Map.Entry<String, Long> offset : offsets.entrySet()) {
+            JournalCodec.writeString(out, offset.getKey());
+            out.writeLong(offset.getValue());
+        }
+    }
+
+    private static Map<String, Long> readOffsets(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, Long> offsets = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            offsets.put(JournalCodec.readString(in), in.readLong());
+        }
+        return offsets;
+    }
+
+    /**
+     * Orders are hashed onto shards, so a journal can only be recovered with the shard
+     * count it was written with; that count is kept next to it.
+     */
+    private int shardCount(Path dir) throws IOException {
+        int configured = settings.shards() > 0 ? settings.shards() : Runtime.getRuntime().availableProcessors();
+        Path layout = dir.resolve(LAYOUT_FILE);
+        if (Files.exists(layout)) {
+            int existing = Integer.parseInt(Files.readString(layout).trim());
+            if (settings.shards() > 0 && existing != configured) {
+                throw new IllegalStateException("Order journal in " + dir + " was written with " + existing
+                        + " shards, not the configured " + configured);
+            }
+            return existing;
+        }
+        Files.createDirectories(dir);
+        Files.writeString(layout, Integer.toString(configured));
+        return configured;
+    }
+
+    private Shard shardFor(UUID orderId) {
+        return shards[Math.floorMod(orderId.hashCode(), shards.length)];
+    }
+
+    private int orderCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            // Approximate: read outside the shard thread, for the gauge only
+            count += shard.orders.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,39 @@
+package com.oms.core.engine;
+
+import java.util.UUID;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderSide;
+
+/**
+ * Something that happened to an order, as the engine applies and journals it.
+ *
+ * Quantities and prices are {@link FixedPoint} longs: for ACCEPTED, VALIDATED and REJECTED
+ * the order's quantity and limit (else stop) price, so an order first seen through one of
+ * them can be created; for FILLED the fill's quantity and price. Other types carry only the
+ * orderId. timestamp is epoch milliseconds.
+ */
+public record OrderEvent(Type type, UUID orderId, String accountId, String symbol, OrderSide side,
+        long quantity, long price, long timestamp) {
+
+    public enum Type {
+        ACCEPTED, VALIDATED, REJECTED, ROUTED, FILLED, CANCELED, EXPIRED
+    }
+
+    public static OrderEvent of(Type type, OrderDTO order, long timestamp) {
+        long price = order.getLimitPrice() != null
+                ? FixedPoint.fromBigDecimal(order.getLimitPrice())
+                : FixedPoint.fromBigDecimal(order.getStopPrice());
+        return new OrderEvent(type, order.getOrderId(), order.getAccountId(), order.getSymbol(), order.getSide(),
+                FixedPoint.fromBigDecimal(order.getQuantity()), price, timestamp);
+    }
+
+    public static OrderEvent fill(UUID orderId, long quantity, long price, long timestamp) {
+        return new OrderEvent(Type.FILLED, orderId, null, null, null, quantity, price, timestamp);
+    }
+
+    public static OrderEvent of(Type type, UUID orderId, long timestamp) {
+        return new OrderEvent(type, orderId, null, null, null, FixedPoint.NULL, FixedPoint.NULL, timestamp);
+    }
+}
@@ -0,0 +1,202 @@
+package com.oms.core.engine;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import com.oms.common.kafka.OrderDeserializer;
+import com.oms.common.kafka.PartitionAssignment;
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.risk.Fill;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Feeds the {@link OrderEngine} from the order lifecycle topics: orders.inbound (NEW),
+ * orders.validated, orders.rejected, orders.routed and executions.fills.
+ *
+ * Reads every partition (assigned, no consumer group) and never commits offsets: it
+ * resumes from the engine's recovered checkpoint, or from the beginning without one, and
+ * writes new checkpoints between polls so that their positions are an exact cut. When an
+ * engine shard fails to apply an event the feed restarts there as well. Topics
+ * created and partitions added after the start are picked up by a periodic refresh.
+ * Order topics may be JSON or binary; rejections and fills are JSON.
+ */
+@Slf4j
+public class OrderEventFeed {
+
+    /**
+     * @param groupId only used as the consumer's client identity; offsets are never committed
+     */
+    public record Settings(String inboundTopic, String validatedTopic, String rejectedTopic, String routedTopic,
+            String fillsTopic, long checkpointIntervalMs, long snapshotIntervalMs, String groupId) {
+    }
+
+    /** orders.rejected payload, as the validator publishes it */
+    private record RejectedOrder(OrderDTO order, String rejectionReason) {
+    }
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final OrderEngine engine;
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+    private final OrderDeserializer orderDeserializer;
+
+    private volatile boolean running;
+    private Thread feedThread;
+
+    public OrderEventFeed(ConsumerFactory<String, byte[]> consumerFactory, OrderEngine engine, Settings settings,
+            ObjectMapper objectMapper) {
+        this.consumerFactory = consumerFactory;
+        this.engine = engine;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.orderDeserializer = new OrderDeserializer(objectMapper);
+    }
+
+    public void start() {
+        running = true;
+        feedThread = new Thread(this::run, "order-event-feed");
+        feedThread.setDaemon(true);
+        feedThread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        if (feedThread != null) {
+            feedThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void run() {
+        long backoffMs = 100;
+        while (running) {
+            try {
+                consume();
+                backoffMs = 100;
+            } catch (Exception e) {
+                log.error("Order event feed failed, restarting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void consume() {
+        long checkpointIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.checkpointIntervalMs());
+        long snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.snapshotIntervalMs());
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(settings.groupId(), null, null)) {
+            PartitionAssignment assignment = new PartitionAssignment(consumer, List.of(settings.inboundTopic(),
+                    settings.validatedTopic(), settings.rejectedTopic(), settings.routedTopic(),
+                    settings.fillsTopic()));
+            Map<String, Long> resume = engine.resumeOffsets();
+            seekToResume(consumer, assignment.assign(), resume);
+            log.info("Order event feed reading {} partitions", assignment.partitions().size());
+
+            long lastCheckpoint = System.nanoTime();
+            long lastSnapshot = lastCheckpoint;
+            while (running) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    dispatch(record);
+                }
+                if (engine.failed()) {
+                    // Restart from the engine's checkpoints, so the event a shard failed on is read again
+                    throw new IllegalStateException("An order engine shard failed to apply an event");
+                }
+
+                seekToResume(consumer, assignment.refresh(), resume);
+
+                long now = System.nanoTime();
+                if (now - lastCheckpoint >= checkpointIntervalNanos) {
+                    Map<String, Long> positions = new HashMap<>();
+                    for (TopicPartition tp : assignment.partitions()) {
+                        positions.put(tp.toString(), consumer.position(tp));
+                    }
+                    boolean snapshot = now - lastSnapshot >= snapshotIntervalNanos;
+                    engine.checkpoint(positions, snapshot);
+                    lastCheckpoint = now;
+                    if (snapshot) {
+                        lastSnapshot = now;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Positions partitions at their recovered checkpoint offset, or at the beginning when the
+     * checkpoint has none (a partition or topic that did not exist when it was written).
+     */
+    private static void seekToResume(Consumer<String, byte[]> consumer, List<TopicPartition> partitions,
+            Map<String, Long> resume) {
+        for (TopicPartition tp : partitions) {
+            Long offset = resume.get(tp.toString());
+            if (offset != null) {
+                consumer.seek(tp, offset);
+            } else {
+                consumer.seekToBeginning(List.of(tp));
+            }
+        }
+    }
+
+    private void dispatch(ConsumerRecord<String, byte[]> record) {
+        try {
+            OrderEvent event = toEvent(record);
+            if (event != null) {
+                engine.apply(record.topic() + "-" + record.partition(), record.offset(), event);
+            }
+        } catch (Exception e) {
+            log.warn("Skipping unreadable order event {}-{}@{}: {}", record.topic(), record.partition(),
+                    record.offset(), e.getMessage());
+        }
+    }
+
+    private OrderEvent toEvent(ConsumerRecord<String, byte[]> record) {
+        String topic = record.topic();
+        long timestamp = record.timestamp();
+        if (topic.equals(settings.fillsTopic())) {
+            Fill fill = objectMapper.readValue(record.value(), Fill.class);
+            if (fill.orderId() == null || fill.quantity() == null || fill.price() == null) {
+                return null;
+            }
+            return OrderEvent.fill(fill.orderId(), FixedPoint.fromBigDecimal(fill.quantity()),
+                    FixedPoint.fromBigDecimal(fill.price()), timestamp);
+        }
+        if (topic.equals(settings.rejectedTopic())) {
+            RejectedOrder rejected = objectMapper.readValue(record.value(), RejectedOrder.class);
+            return orderEvent(OrderEvent.Type.REJECTED, rejected.order(), timestamp);
+        }
+
+        OrderDTO order = orderDeserializer.deserialize(topic, record.headers(), record.value());
+        if (topic.equals(settings.inboundTopic())) {
+            return orderEvent(OrderEvent.Type.ACCEPTED, order, timestamp);
+        } else if (topic.equals(settings.validatedTopic())) {
+            return orderEvent(OrderEvent.Type.VALIDATED, order, timestamp);
+        } else if (topic.equals(settings.routedTopic())) {
+            return order != null && order.getOrderId() != null
+                    ? OrderEvent.of(OrderEvent.Type.ROUTED, order.getOrderId(), timestamp) : null;
+        }
+        return null;
+    }
+
+    private static OrderEvent orderEvent(OrderEvent.Type type, OrderDTO order, long timestamp) {
+        return order != null && order.getOrderId() != null ? OrderEvent.of(type, order, timestamp) : null;
+    }
+}
@@ -0,0 +1,219 @@
+package com.oms.core.engine;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of one engine shard in memory-mapped segment files: an append is a
+ * copy into the page cache, with no system call and no buffer in between.
+ *
+ * Entry layout: int payload length, int CRC32C of the payload, payload. Segments start
+ * zero-filled and the length is written last, so a zero length marks the end of the
+ * written part even after a crash mid-append. An entry that does not fit in the rest of a
+ * segment goes to the next one. On replay a torn or corrupt entry ends the journal: the
+ * tail after it is zeroed and any later segment removed, and the engine re-reads what was
+ * lost from Kafka.
+ *
+ * Not thread-safe: used by the engine while restoring, then only by its shard's thread.
+ */
+@Slf4j
+final class OrderJournal implements AutoCloseable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = 8;
+
+    /** A point in the journal: segment number and byte offset in it */
+    record Position(long segment, int offset) {
+    }
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final CRC32C crc = new CRC32C();
+    /** Replay copies entries here to checksum them: CRC32C cannot read a shared-arena buffer directly */
+    private byte[] check = new byte[0];
+
+    private Arena arena;
+    private MemorySegment mapped;
+    private ByteBuffer buffer;
+    private int capacity;
+    private long segment;
+    private int position;
+
+    /**
+     * @param fsync also force a segment to disk when it is left for the next one
+     */
+    OrderJournal(Path dir, int segmentBytes, boolean fsync) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Hands every entry from the given position on to the consumer, then leaves the journal
+     * open for appends after the last intact one.
+     */
+    void replay(Position from, Consumer<ByteBuffer> entries) throws IOException {
+        Iterator<Long> later = segments().stream().filter(number -> number > from.segment()).iterator();
+        map(from.segment());
+        position = from.offset();
+        while (true) {
+            if (!scan(entries)) {
+                log.warn("Journal {} ends at a damaged entry in segment {} offset {}; later entries are dropped",
+                        dir, segment, position);
+                mapped.asSlice(position).fill((byte) 0);
+                deleteRemaining(later);
+                return;
+            }
+            if (!later.hasNext()) {
+                return;
+            }
+            long next = later.next();
+            if (next != segment + 1) {
+                log.warn("Journal {} is missing segment {}; later entries are dropped", dir, segment + 1);
+                Files.delete(file(next));
+                deleteRemaining(later);
+                return;
+            }
+            map(next);
+            position = 0;
+        }
+    }
+
+    /**
+     * Appends the payload's remaining bytes as one entry.
+     */
+    void append(ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        if (HEADER + length > segmentBytes) {
+            throw new IllegalArgumentException("Journal entry of " + length + " bytes exceeds the segment size");
+        }
+        if (position + HEADER + length > capacity) {
+            if (fsync) {
+                mapped.force();
+            }
+            map(segment + 1);
+            position = 0;
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        buffer.put(position + HEADER, payload, payload.position(), length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // Length last: until it is written the entry reads as the end of the journal
+        buffer.putInt(position, length);
+        position += HEADER + length;
+    }
+
+    Position position() {
+        return new Position(segment, position);
+    }
+
+    /** Forces the current segment's written pages to disk */
+    void force() {
+        mapped.force();
+    }
+
+    /** Removes the segments before the given one, once a snapshot covers them */
+    void deleteBefore(long number) throws IOException {
+        for (long existing : segments()) {
+            if (existing < number) {
+                Files.delete(file(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (mapped != null && fsync) {
+            mapped.force();
+        }
+        unmap();
+    }
+
+    /** Replays from the current position; false when stopped by a damaged entry */
+    private boolean scan(Consumer<ByteBuffer> entries) {
+        while (position + HEADER <= capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return true;
+            }
+            if (length < 0 || position + HEADER + length > capacity
+                    || checksum(position + HEADER, length) != buffer.getInt(position + 4)) {
+                return false;
+            }
+            entries.accept(buffer.slice(position + HEADER, length));
+            position += HEADER + length;
+        }
+        return true;
+    }
+
+    private int checksum(int offset, int length) {
+        if (check.length < length) {
+            check = new byte[Math.max(length, 2 * check.length)];
+        }
+        buffer.get(offset, check, 0, length);
+        crc.reset();
+        crc.update(check, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private void map(long number) throws IOException {
+        unmap();
+        try (FileChannel channel = FileChannel.open(file(number), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // An existing segment keeps its size if the configured one has changed since
+            long size = Math.max(channel.size(), segmentBytes);
+            arena = Arena.ofShared();
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+        }
+        buffer = mapped.asByteBuffer();
+        capacity = (int) mapped.byteSize();
+        segment = number;
+    }
+
+    private void unmap() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            mapped = null;
+            buffer = null;
+        }
+    }
+
+    private void deleteRemaining(Iterator<Long> segments) throws IOException {
+        while (segments.hasNext()) {
+            Files.delete(file(segments.next()));
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> numbers.add(Long.parseLong(name, PREFIX.length(),
+                            name.length() - SUFFIX.length(), 10)));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path file(long number) {
+        return dir.resolve(PREFIX + String.format("%020d", number) + SUFFIX);
+    }
+}
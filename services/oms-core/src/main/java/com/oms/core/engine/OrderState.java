@@ -0,0 +1,133 @@
+package com.oms.core.engine;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderSide;
+import com.oms.common.model.OrderDTO.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Lifecycle state of one order and its transition rules:
+ * <pre>
+ *   NEW -&gt; VALIDATED | REJECTED
+ *   VALIDATED -&gt; ROUTED | REJECTED | PARTIALLY_FILLED | FILLED
+ *   ROUTED, PARTIALLY_FILLED -&gt; PARTIALLY_FILLED | FILLED
+ *   any non-terminal -&gt; CANCELED | EXPIRED
+ * </pre>
+ * REJECTED, FILLED, CANCELED and EXPIRED are terminal. An event that is not a legal
+ * transition from the current status is ignored, which also makes redelivered events
+ * harmless, unless it is {@link #early}: the engine then holds it until the order gets
+ * there. Owned by one engine shard thread.
+ */
+@Getter
+@AllArgsConstructor
+public final class OrderState {
+
+    private final UUID orderId;
+    private final String accountId;
+    private final String symbol;
+    private final OrderSide side;
+    /** {@link FixedPoint}; NULL when the order was first seen without one */
+    private final long quantity;
+    /** Limit (else stop) price, {@link FixedPoint}; NULL for market orders */
+    private final long price;
+    private final long createdAt;
+    private OrderStatus status;
+    private long filledQuantity;
+    private long updatedAt;
+
+    /**
+     * The order an event creates when its orderId is not known yet: the topics are not
+     * ordered among each other, so orders.validated may be read before orders.inbound.
+     * Null for events that cannot create one.
+     */
+    static OrderState create(OrderEvent event) {
+        OrderStatus status = switch (event.type()) {
+            case ACCEPTED -> OrderStatus.NEW;
+            case VALIDATED -> OrderStatus.VALIDATED;
+            case REJECTED -> OrderStatus.REJECTED;
+            default -> null;
+        };
+        if (status == null) {
+            return null;
+        }
+        return new OrderState(event.orderId(), event.accountId(), event.symbol(), event.side(), event.quantity(),
+                event.price(), event.timestamp(), status, FixedPoint.ZERO, event.timestamp());
+    }
+
+    /**
+     * Status after the event, or null when it is not a legal transition from the current one.
+     */
+    OrderStatus next(OrderEvent event) {
+        return switch (event.type()) {
+            case ACCEPTED -> null;
+            case VALIDATED -> status == OrderStatus.NEW || status == OrderStatus.PENDING_VALIDATION
+                    ? OrderStatus.VALIDATED : null;
+            case REJECTED -> status == OrderStatus.NEW || status == OrderStatus.PENDING_VALIDATION
+                    || status == OrderStatus.VALIDATED || status == OrderStatus.ROUTING
+                    ? OrderStatus.REJECTED : null;
+            case ROUTED -> status == OrderStatus.VALIDATED || status == OrderStatus.ROUTING
+                    ? OrderStatus.ROUTED : null;
+            case FILLED -> fillable() && event.quantity() > 0 ? afterFill(event.quantity()) : null;
+            case CANCELED -> isTerminal() ? null : OrderStatus.CANCELED;
+            case EXPIRED -> isTerminal() ? null : OrderStatus.EXPIRED;
+        };
+    }
+
+    /**
+     * Whether an event {@link #next} refused may still become legal once an earlier stage
+     * of the order is read: a routing or fill read before the order's validation.
+     */
+    boolean early(OrderEvent event) {
+        return (event.type() == OrderEvent.Type.ROUTED || event.type() == OrderEvent.Type.FILLED)
+                && (status == OrderStatus.NEW || status == OrderStatus.PENDING_VALIDATION);
+    }
+
+    /**
+     * Applies an event that {@link #next} accepted.
+     */
+    void apply(OrderEvent event, OrderStatus next) {
+        if (event.type() == OrderEvent.Type.FILLED) {
+            filledQuantity = FixedPoint.add(filledQuantity, event.quantity());
+        }
+        status = next;
+        updatedAt = event.timestamp();
+    }
+
+    public boolean isTerminal() {
+        return status == OrderStatus.REJECTED || status == OrderStatus.FILLED
+                || status == OrderStatus.CANCELED || status == OrderStatus.EXPIRED;
+    }
+
+    public OrderDTO toDTO() {
+        return OrderDTO.builder()
+                .orderId(orderId)
+                .accountId(accountId)
+                .symbol(symbol)
+                .side(side)
+                .quantity(FixedPoint.toBigDecimal(quantity))
+                .filledQuantity(FixedPoint.toBigDecimal(filledQuantity))
+                .status(status)
+                .createdAt(Instant.ofEpochMilli(createdAt))
+                .updatedAt(Instant.ofEpochMilli(updatedAt))
+                .build();
+    }
+
+    private boolean fillable() {
+        return status == OrderStatus.VALIDATED || status == OrderStatus.ROUTING
+                || status == OrderStatus.ROUTED || status == OrderStatus.PARTIALLY_FILLED;
+    }
+
+    private OrderStatus afterFill(long fillQuantity) {
+        if (quantity == FixedPoint.NULL) {
+            return OrderStatus.PARTIALLY_FILLED;
+        }
+        return FixedPoint.add(filledQuantity, fillQuantity) >= quantity
+                ? OrderStatus.FILLED : OrderStatus.PARTIALLY_FILLED;
+    }
+}
@@ -0,0 +1,194 @@
+package com.oms.core.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.oms.core.engine.OrderJournal.Position;
+
+class OrderJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+    /** Header plus a single-long payload */
+    private static final int ENTRY_BYTES = 8 + Long.BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveReopen() throws IOException {
+        try (OrderJournal journal = open(SEGMENT_BYTES, new ArrayList<>())) {
+            appendAll(journal, 1, 2, 3);
+        }
+
+        List<Long> replayed = new ArrayList<>();
+        try (OrderJournal journal = open(SEGMENT_BYTES, replayed)) {
+            assertEquals(List.of(1L, 2L, 3L), replayed);
+            assertEquals(new Position(0, 3 * ENTRY_BYTES), journal.position());
+            appendAll(journal, 4);
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L), replay(SEGMENT_BYTES));
+    }
+
+    @Test
+    void entriesRollOverToTheNextSegment() throws IOException {
+        // Four entries per segment, plus a few bytes no entry fits in
+        int segmentBytes = 4 * ENTRY_BYTES + 5;
+        try (OrderJournal journal = open(segmentBytes, new ArrayList<>())) {
+            appendAll(journal, LongStream.rangeClosed(1, 10).toArray());
+            assertEquals(new Position(2, 2 * ENTRY_BYTES), journal.position());
+        }
+
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().toList(), replay(segmentBytes));
+    }
+
+    @Test
+    void replayStartsAtTheGivenPosition() throws IOException {
+        int segmentBytes = 4 * ENTRY_BYTES;
+        Position checkpoint;
+        try (OrderJournal journal = open(segmentBytes, new ArrayList<>())) {
+            appendAll(journal, 1, 2, 3, 4, 5);
+            checkpoint = journal.position();
+            appendAll(journal, 6, 7, 8, 9);
+            journal.deleteBefore(checkpoint.segment());
+        }
+
+        List<Long> replayed = new ArrayList<>();
+        try (OrderJournal journal = new OrderJournal(dir, segmentBytes, false)) {
+            journal.replay(checkpoint, entry -> replayed.add(entry.getLong(0)));
+        }
+        assertEquals(List.of(6L, 7L, 8L, 9L), replayed);
+        assertFalse(Files.exists(segment(0)));
+    }
+
+    @Test
+    void tornPayloadEndsTheJournalAndIsOverwritten() throws IOException {
+        try (OrderJournal journal = open(SEGMENT_BYTES, new ArrayList<>())) {
+            appendAll(journal, 1, 2, 3);
+        }
+        // Crash mid-append: the third entry's length landed, part of its payload did not
+        corrupt(segment(0), 2 * ENTRY_BYTES + 8 + 4);
+
+        List<Long> replayed = new ArrayList<>();
+        try (OrderJournal journal = open(SEGMENT_BYTES, replayed)) {
+            assertEquals(List.of(1L, 2L), replayed);
+            assertEquals(new Position(0, 2 * ENTRY_BYTES), journal.position());
+            appendAll(journal, 4);
+        }
+        assertEquals(List.of(1L, 2L, 4L), replay(SEGMENT_BYTES));
+    }
+
+    @Test
+    void tornTailIsZeroed() throws IOException {
+        try (OrderJournal journal = open(SEGMENT_BYTES, new ArrayList<>())) {
+            appendAll(journal, 1, 2, 3);
+        }
+        corrupt(segment(0), ENTRY_BYTES + 8);
+
+        assertEquals(List.of(1L), replay(SEGMENT_BYTES));
+        byte[] bytes = Files.readAllBytes(segment(0));
+        for (int i = ENTRY_BYTES; i < bytes.length; i++) {
+            assertEquals(0, bytes[i], "byte " + i);
+        }
+    }
+
+    @Test
+    void lengthPastTheSegmentEndsTheJournal() throws IOException {
+        try (OrderJournal journal = open(SEGMENT_BYTES, new ArrayList<>())) {
+            appendAll(journal, 1, 2);
+        }
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, SEGMENT_BYTES), ENTRY_BYTES);
+        }
+
+        assertEquals(List.of(1L), replay(SEGMENT_BYTES));
+    }
+
+    @Test
+    void damageInAnEarlierSegmentDropsTheLaterOnes() throws IOException {
+        int segmentBytes = 2 * ENTRY_BYTES;
+        try (OrderJournal journal = open(segmentBytes, new ArrayList<>())) {
+            appendAll(journal, 1, 2, 3, 4, 5, 6);
+        }
+        corrupt(segment(1), ENTRY_BYTES + 8);
+
+        List<Long> replayed = new ArrayList<>();
+        try (OrderJournal journal = open(segmentBytes, replayed)) {
+            assertEquals(List.of(1L, 2L, 3L), replayed);
+            assertEquals(new Position(1, ENTRY_BYTES), journal.position());
+        }
+        assertTrue(Files.exists(segment(1)));
+        assertFalse(Files.exists(segment(2)));
+    }
+
+    @Test
+    void missingSegmentDropsTheLaterOnes() throws IOException {
+        int segmentBytes = 2 * ENTRY_BYTES;
+        try (OrderJournal journal = open(segmentBytes, new ArrayList<>())) {
+            appendAll(journal, 1, 2, 3, 4, 5, 6);
+        }
+        Files.delete(segment(1));
+
+        List<Long> replayed = new ArrayList<>();
+        try (OrderJournal journal = open(segmentBytes, replayed)) {
+            assertEquals(List.of(1L, 2L), replayed);
+            assertEquals(new Position(0, 2 * ENTRY_BYTES), journal.position());
+            appendAll(journal, 7);
+        }
+        assertFalse(Files.exists(segment(2)));
+        assertEquals(List.of(1L, 2L, 7L), replay(segmentBytes));
+    }
+
+    @Test
+    void entryLargerThanASegmentIsRejected() throws IOException {
+        try (OrderJournal journal = open(64, new ArrayList<>())) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(ByteBuffer.allocate(64 - 7)));
+            assertEquals(new Position(0, 0), journal.position());
+        }
+    }
+
+    private OrderJournal open(int segmentBytes, List<Long> replayed) throws IOException {
+        OrderJournal journal = new OrderJournal(dir, segmentBytes, false);
+        journal.replay(new Position(0, 0), entry -> replayed.add(entry.getLong(0)));
+        return journal;
+    }
+
+    private List<Long> replay(int segmentBytes) throws IOException {
+        List<Long> replayed = new ArrayList<>();
+        open(segmentBytes, replayed).close();
+        return replayed;
+    }
+
+    private static void appendAll(OrderJournal journal, long... values) throws IOException {
+        for (long value : values) {
+            journal.append(ByteBuffer.allocate(Long.BYTES).putLong(0, value));
+        }
+    }
+
+    /** Flips the byte at the offset, as a torn write would leave it */
+    private static void corrupt(Path file, int offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, offset);
+            channel.write(one.put(0, (byte) ~one.get(0)).rewind(), offset);
+        }
+    }
+
+    private Path segment(long number) {
+        return dir.resolve("journal-" + String.format("%020d", number) + ".log");
+    }
+}
@@ -0,0 +1,43 @@
+package com.oms.ingest.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+/**
+ * Consumer for {@link com.oms.ingest.service.OrderStateProjection}. Values are bytes: the
+ * projection decodes JSON or binary orders itself. Partitions are assigned and offsets
+ * never committed, hence no group and no auto-commit.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public ConsumerFactory<String, byte[]> consumerFactory(Environment environment) {
+        Map<String, Object> consumerProps = new HashMap<>();
+
+        consumerProps.put(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG,
+                environment.getProperty("spring.kafka.bootstrap-servers", "localhost:9092"));
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // The validator may publish transactionally: never project records of aborted transactions
+        consumerProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        String maxPollRecords = environment.getProperty("spring.kafka.consumer.properties.max.poll.records");
+        if (maxPollRecords != null && !maxPollRecords.isBlank()) {
+            consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.parseInt(maxPollRecords));
+        }
+
+        return new DefaultKafkaConsumerFactory<>(consumerProps);
+    }
+}
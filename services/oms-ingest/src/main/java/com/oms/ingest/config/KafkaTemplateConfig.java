@@ -4,7 +4,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -12,18 +14,27 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
+import com.oms.common.kafka.OrderSerializer;
+import com.oms.common.kafka.OrderWireFormat;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Producer for the outbox publishers. Values are bytes: JSON or binary orders, as built by
+ * {@link com.oms.ingest.service.OutboxRecordEncoder}.
+ */
 @Configuration
 public class KafkaTemplateConfig {
 
     @Bean
-    public ProducerFactory<String, String> stringProducerFactory(Environment environment) {
+    public ProducerFactory<String, byte[]> producerFactory(Environment environment) {
         Map<String, Object> producerProps = new HashMap<>();
 
         producerProps.put(
                 ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
                 environment.getProperty("spring.kafka.bootstrap-servers", "localhost:9092"));
         producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
 
         // Optional tuning; defaults match our dev-friendly settings.
         producerProps.put(ProducerConfig.ACKS_CONFIG, environment.getProperty("spring.kafka.producer.acks", "all"));
@@ -45,8 +56,17 @@ public class KafkaTemplateConfig {
         return new DefaultKafkaProducerFactory<>(producerProps);
     }
 
+    /**
+     * Encodes orders in oms.ingest.outbox-publisher.wire-format when the outbox transcodes them.
+     */
+    @Bean
+    public OrderSerializer orderSerializer(ObjectMapper objectMapper,
+            @Value("${oms.ingest.outbox-publisher.wire-format:json}") OrderWireFormat wireFormat) {
+        return new OrderSerializer(objectMapper, wireFormat);
+    }
+
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> stringProducerFactory) {
-        return new KafkaTemplate<>(stringProducerFactory);
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 }
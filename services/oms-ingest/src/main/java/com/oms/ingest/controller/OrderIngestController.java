@@ -1,6 +1,14 @@
 package com.oms.ingest.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindException;
@@ -16,12 +24,22 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.oms.common.model.OrderDTO;
 import com.oms.ingest.service.OrderIngestionService;
+import com.oms.ingest.service.OrderThrottledException;
 
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * REST API for order submission.
@@ -33,12 +51,25 @@ public class OrderIngestController {
 
     private static final Logger log = LoggerFactory.getLogger(OrderIngestController.class);
 
+    private static final byte[] NEWLINE = { '\n' };
+
     private final OrderIngestionService orderIngestionService;
     private final Tracer tracer;
-
-    public OrderIngestController(OrderIngestionService orderIngestionService, Tracer tracer) {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchChunkSize;
+    private final int batchMaxOrders;
+
+    public OrderIngestController(OrderIngestionService orderIngestionService, Tracer tracer,
+            ObjectMapper objectMapper, Validator validator,
+            @Value("${oms.ingest.batch.chunk-size:100}") int batchChunkSize,
+            @Value("${oms.ingest.batch.max-orders:10000}") int batchMaxOrders) {
         this.orderIngestionService = orderIngestionService;
         this.tracer = tracer;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxOrders = batchMaxOrders;
     }
 
     @PostMapping
@@ -85,6 +116,18 @@ public class OrderIngestController {
 
                 return ResponseEntity.status(result.created() ? HttpStatus.CREATED : HttpStatus.OK).body(response);
 
+            } catch (OrderThrottledException e) {
+                span.tag("error", "true");
+                span.tag("error.type", "throttled");
+                span.event("order.throttled");
+                log.warn("Throttled order request: accountId={}, symbol={}: {}", orderRequest.getAccountId(),
+                        orderRequest.getSymbol(), e.getMessage());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(OrderResponse.builder()
+                        .clientOrderId(orderRequest.getClientOrderId())
+                        .created(false)
+                        .message(e.getMessage())
+                        .timestamp(System.currentTimeMillis())
+                        .build());
             } catch (IllegalArgumentException e) {
                 span.tag("error", "true");
                 span.tag("error.type", "validation");
@@ -112,6 +155,142 @@ public class OrderIngestController {
         }
     }
 
+    /**
+     * Basket submission: accepts a JSON array or an NDJSON stream of orders.
+     * The body is parsed incrementally, orders are persisted in chunks (one transaction
+     * per chunk) and one NDJSON result line per order is streamed back as each chunk
+     * commits. Lines carry the order's position and the status ingestOrder would have
+     * produced (201 created, 200 duplicate, 400 invalid, 429 throttled).
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE })
+    public void placeOrderBatch(
+            @RequestHeader(value = "X-OMS-Channel", required = false) String channel,
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Span span = tracer.nextSpan().name("order.ingest.batch").start();
+        try (Tracer.SpanInScope ws = tracer.withSpan(span);
+                JsonParser parser = objectMapper.createParser(request.getInputStream())) {
+            span.tag("oms.channel", channel != null ? channel : "REST");
+            if (requestId != null) {
+                span.tag("oms.requestId", requestId);
+            }
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            OutputStream out = response.getOutputStream();
+
+            List<OrderDTO> chunk = new ArrayList<>(batchChunkSize);
+            List<Integer> positions = new ArrayList<>(batchChunkSize);
+            int index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                // Any other element is answered with its own 400 line; only the array end stops the batch
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    if (index >= batchMaxOrders) {
+                        writeLine(out, BatchOrderResponse.failed(index, null, HttpStatus.CONTENT_TOO_LARGE,
+                                "Batch exceeds " + batchMaxOrders + " orders"));
+                        break;
+                    }
+
+                    // Bind each element from its own tree so a bad order cannot desync the stream
+                    JsonNode node = objectMapper.readTree(parser);
+                    String invalid;
+                    OrderDTO order = null;
+                    if (node == null || !node.isObject()) {
+                        invalid = "Order must be a JSON object";
+                    } else {
+                        try {
+                            order = objectMapper.treeToValue(node, OrderDTO.class);
+                            invalid = firstViolation(order);
+                        } catch (JacksonException e) {
+                            invalid = "Malformed order";
+                        }
+                    }
+
+                    if (invalid != null) {
+                        writeLine(out, BatchOrderResponse.failed(index,
+                                node != null ? node.path("clientOrderId").asString(null) : null,
+                                HttpStatus.BAD_REQUEST, invalid));
+                    } else {
+                        chunk.add(order);
+                        positions.add(index);
+                        if (chunk.size() >= batchChunkSize) {
+                            flushChunk(chunk, positions, channel, requestId, out);
+                        }
+                    }
+                    index++;
+                    token = parser.nextToken();
+                }
+            } catch (JacksonException e) {
+                log.warn("Malformed batch body at order {}: {}", index, e.getOriginalMessage());
+                writeLine(out, BatchOrderResponse.failed(index, null, HttpStatus.BAD_REQUEST, "Malformed JSON"));
+            }
+
+            flushChunk(chunk, positions, channel, requestId, out);
+            span.tag("batch.orders", String.valueOf(index));
+            log.info("Processed order batch: orders={}, channel={}", index, channel != null ? channel : "REST");
+        } finally {
+            span.end();
+        }
+    }
+
+    private void flushChunk(List<OrderDTO> chunk, List<Integer> positions, String channel, String requestId,
+            OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<OrderIngestionService.BatchItemResult> results = orderIngestionService.ingestChunk(chunk, channel,
+                requestId);
+        for (int i = 0; i < results.size(); i++) {
+            int index = positions.get(i);
+            OrderIngestionService.BatchItemResult item = results.get(i);
+
+            if (item.result() != null) {
+                OrderDTO saved = item.result().order();
+                boolean created = item.result().created();
+                writeLine(out, new BatchOrderResponse(index,
+                        (created ? HttpStatus.CREATED : HttpStatus.OK).value(),
+                        saved.getOrderId(), saved.getClientOrderId(), saved.getStatus().name(), created,
+                        created ? "Order received successfully" : "Order already exists"));
+            } else if (item.error() instanceof OrderThrottledException e) {
+                writeLine(out, BatchOrderResponse.failed(index, chunk.get(i).getClientOrderId(),
+                        HttpStatus.TOO_MANY_REQUESTS, e.getMessage()));
+            } else if (item.error() instanceof IllegalArgumentException e) {
+                writeLine(out, BatchOrderResponse.failed(index, chunk.get(i).getClientOrderId(),
+                        HttpStatus.BAD_REQUEST, e.getMessage()));
+            } else {
+                log.error("Error processing batch order {}", index, item.error());
+                writeLine(out, BatchOrderResponse.failed(index, chunk.get(i).getClientOrderId(),
+                        HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error"));
+            }
+        }
+        out.flush();
+
+        chunk.clear();
+        positions.clear();
+    }
+
+    private String firstViolation(OrderDTO order) {
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(order);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<OrderDTO> first = violations.iterator().next();
+        return first.getPropertyPath() + ": " + first.getMessage();
+    }
+
+    private void writeLine(OutputStream out, BatchOrderResponse line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write(NEWLINE);
+    }
+
     @ExceptionHandler({ MethodArgumentNotValidException.class, BindException.class })
     public ResponseEntity<OrderResponse> handleValidationExceptions(Exception ex) {
         String message = "Invalid request";
@@ -151,6 +330,17 @@ public class OrderIngestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * One line of the batch response, correlated to the request by position.
+     */
+    public record BatchOrderResponse(int index, int status, java.util.UUID orderId, String clientOrderId,
+            String orderStatus, Boolean created, String message) {
+
+        static BatchOrderResponse failed(int index, String clientOrderId, HttpStatus status, String message) {
+            return new BatchOrderResponse(index, status.value(), null, clientOrderId, null, false, message);
+        }
+    }
+
     public static class OrderResponse {
         private java.util.UUID orderId;
         private String clientOrderId;
@@ -0,0 +1,87 @@
+package com.oms.ingest.grpc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.proto.order.Order;
+import com.oms.proto.order.OrderSide;
+import com.oms.proto.order.OrderStatus;
+import com.oms.proto.order.OrderType;
+import com.oms.proto.order.PlaceOrderRequest;
+import com.oms.proto.order.TimeInForce;
+
+/**
+ * Conversions between proto/order.proto messages and {@link OrderDTO}.
+ * Proto enum names match the DTO enums; the *_UNSPECIFIED values map to null.
+ */
+final class GrpcOrderMapper {
+
+    private GrpcOrderMapper() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static OrderDTO toDTO(PlaceOrderRequest request) {
+        return OrderDTO.builder()
+                .clientOrderId(emptyToNull(request.getClientOrderId()))
+                .accountId(emptyToNull(request.getAccountId()))
+                .symbol(emptyToNull(request.getSymbol()))
+                .side(request.getSide() == OrderSide.BUY ? OrderDTO.OrderSide.BUY
+                        : request.getSide() == OrderSide.SELL ? OrderDTO.OrderSide.SELL : null)
+                .orderType(switch (request.getOrderType()) {
+                    case MARKET -> OrderDTO.OrderType.MARKET;
+                    case LIMIT -> OrderDTO.OrderType.LIMIT;
+                    case STOP -> OrderDTO.OrderType.STOP;
+                    case STOP_LIMIT -> OrderDTO.OrderType.STOP_LIMIT;
+                    default -> null;
+                })
+                .quantity(BigDecimal.valueOf(request.getQuantity()))
+                .limitPrice(request.hasLimitPrice() ? BigDecimal.valueOf(request.getLimitPrice()) : null)
+                .stopPrice(request.hasStopPrice() ? BigDecimal.valueOf(request.getStopPrice()) : null)
+                .timeInForce(switch (request.getTimeInForce()) {
+                    case DAY -> OrderDTO.TimeInForce.DAY;
+                    case GTC -> OrderDTO.TimeInForce.GTC;
+                    case IOC -> OrderDTO.TimeInForce.IOC;
+                    case FOK -> OrderDTO.TimeInForce.FOK;
+                    default -> null;
+                })
+                .build();
+    }
+
+    static Order toProto(OrderDTO dto) {
+        Order.Builder builder = Order.newBuilder()
+                .setOrderId(dto.getOrderId().toString())
+                .setClientOrderId(dto.getClientOrderId())
+                .setAccountId(dto.getAccountId())
+                .setSymbol(dto.getSymbol())
+                .setSide(OrderSide.valueOf(dto.getSide().name()))
+                .setOrderType(OrderType.valueOf(dto.getOrderType().name()))
+                .setQuantity(dto.getQuantity().doubleValue())
+                .setTimeInForce(TimeInForce.valueOf(dto.getTimeInForce().name()))
+                .setStatus(toProto(dto.getStatus()))
+                .setCreatedAtMs(toEpochMilli(dto.getCreatedAt()))
+                .setUpdatedAtMs(toEpochMilli(dto.getUpdatedAt()));
+        if (dto.getFilledQuantity() != null) {
+            builder.setFilledQuantity(dto.getFilledQuantity().doubleValue());
+        }
+        if (dto.getLimitPrice() != null) {
+            builder.setLimitPrice(dto.getLimitPrice().doubleValue());
+        }
+        if (dto.getStopPrice() != null) {
+            builder.setStopPrice(dto.getStopPrice().doubleValue());
+        }
+        return builder.build();
+    }
+
+    static OrderStatus toProto(OrderDTO.OrderStatus status) {
+        return status != null ? OrderStatus.valueOf(status.name()) : OrderStatus.ORDER_STATUS_UNSPECIFIED;
+    }
+
+    private static long toEpochMilli(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : 0L;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
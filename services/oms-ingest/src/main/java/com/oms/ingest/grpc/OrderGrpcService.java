@@ -0,0 +1,210 @@
+package com.oms.ingest.grpc;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.ingest.service.OrderIngestionService;
+import com.oms.ingest.service.OrderIngestionService.IngestResult;
+import com.oms.ingest.service.OrderThrottledException;
+import com.oms.proto.order.GetOrderRequest;
+import com.oms.proto.order.Order;
+import com.oms.proto.order.OrderServiceGrpc;
+import com.oms.proto.order.OrderStatus;
+import com.oms.proto.order.PlaceOrderRequest;
+import com.oms.proto.order.PlaceOrderResponse;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * gRPC API for order submission, sharing the ingest path with the REST controller.
+ *
+ * PlaceOrders is a bidirectional stream for high-rate clients: up to max-in-flight
+ * requests are processed concurrently per stream and each gets its own response,
+ * correlated by client_order_id. Flow control is manual, so a slow database pushes
+ * back on the client through HTTP/2 instead of buffering unbounded requests here.
+ */
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+public class OrderGrpcService extends OrderServiceGrpc.OrderServiceImplBase {
+
+    private static final String CHANNEL = "GRPC";
+
+    private final OrderIngestionService orderIngestionService;
+    private final Validator validator;
+
+    @Value("${oms.ingest.grpc.max-in-flight:64}")
+    private int maxInFlight;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    @Override
+    public void placeOrder(PlaceOrderRequest request, StreamObserver<PlaceOrderResponse> responseObserver) {
+        try {
+            IngestResult result = ingest(request);
+            responseObserver.onNext(accepted(result));
+            responseObserver.onCompleted();
+        } catch (OrderThrottledException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException());
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+            log.error("gRPC PlaceOrder failed: clientOrderId={}", request.getClientOrderId(), e);
+            responseObserver.onError(Status.INTERNAL.withDescription("Internal server error").asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getOrder(GetOrderRequest request, StreamObserver<Order> responseObserver) {
+        UUID orderId;
+        try {
+            orderId = UUID.fromString(request.getOrderId());
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Invalid order_id: " + request.getOrderId()).asRuntimeException());
+            return;
+        }
+
+        try {
+            orderIngestionService.getOrder(orderId).ifPresentOrElse(
+                    order -> {
+                        responseObserver.onNext(GrpcOrderMapper.toProto(order));
+                        responseObserver.onCompleted();
+                    },
+                    () -> responseObserver.onError(Status.NOT_FOUND
+                            .withDescription("Order not found: " + orderId).asRuntimeException()));
+        } catch (Exception e) {
+            log.error("gRPC GetOrder failed: orderId={}", orderId, e);
+            responseObserver.onError(Status.INTERNAL.withDescription("Internal server error").asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<PlaceOrderRequest> placeOrders(StreamObserver<PlaceOrderResponse> responseObserver) {
+        ServerCallStreamObserver<PlaceOrderResponse> call =
+                (ServerCallStreamObserver<PlaceOrderResponse>) responseObserver;
+        call.disableAutoRequest();
+        call.request(maxInFlight);
+
+        return new StreamObserver<>() {
+
+            private final AtomicInteger inFlight = new AtomicInteger();
+            private final AtomicBoolean halfClosed = new AtomicBoolean();
+            private final AtomicBoolean completed = new AtomicBoolean();
+
+            @Override
+            public void onNext(PlaceOrderRequest request) {
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    PlaceOrderResponse response = process(request);
+                    // StreamObserver is not thread-safe; responses come from many virtual threads
+                    synchronized (call) {
+                        if (!call.isCancelled() && !completed.get()) {
+                            call.onNext(response);
+                            call.request(1);
+                        }
+                    }
+                    if (inFlight.decrementAndGet() == 0 && halfClosed.get()) {
+                        complete();
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Client cancelled or the transport failed; in-flight orders still complete, responses are dropped
+                log.debug("gRPC PlaceOrders stream closed by client: {}", t.getMessage());
+                completed.set(true);
+            }
+
+            @Override
+            public void onCompleted() {
+                halfClosed.set(true);
+                if (inFlight.get() == 0) {
+                    complete();
+                }
+            }
+
+            private void complete() {
+                if (completed.compareAndSet(false, true)) {
+                    synchronized (call) {
+                        if (!call.isCancelled()) {
+                            call.onCompleted();
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Ingests one streamed order; failures become a rejected response rather than
+     * terminating the stream, so one bad order does not fail its neighbours.
+     */
+    private PlaceOrderResponse process(PlaceOrderRequest request) {
+        try {
+            return accepted(ingest(request));
+        } catch (IllegalArgumentException | OrderThrottledException e) {
+            return rejected(request, e.getMessage());
+        } catch (Exception e) {
+            log.error("gRPC PlaceOrders item failed: clientOrderId={}", request.getClientOrderId(), e);
+            return rejected(request, "Internal server error");
+        }
+    }
+
+    private IngestResult ingest(PlaceOrderRequest request) {
+        OrderDTO dto = GrpcOrderMapper.toDTO(request);
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return orderIngestionService.ingestOrder(dto, CHANNEL, null);
+    }
+
+    private static PlaceOrderResponse accepted(IngestResult result) {
+        OrderDTO order = result.order();
+        return PlaceOrderResponse.newBuilder()
+                .setOrderId(order.getOrderId().toString())
+                .setClientOrderId(order.getClientOrderId())
+                .setStatus(GrpcOrderMapper.toProto(order.getStatus()))
+                .setMessage(result.created() ? "Order received successfully" : "Order already exists")
+                .setTimestampMs(System.currentTimeMillis())
+                .setCreated(result.created())
+                .setAccepted(true)
+                .build();
+    }
+
+    private static PlaceOrderResponse rejected(PlaceOrderRequest request, String message) {
+        return PlaceOrderResponse.newBuilder()
+                .setClientOrderId(request.getClientOrderId())
+                .setStatus(OrderStatus.REJECTED)
+                .setMessage(message != null ? message : "Rejected")
+                .setTimestampMs(System.currentTimeMillis())
+                .setAccepted(false)
+                .build();
+    }
+}
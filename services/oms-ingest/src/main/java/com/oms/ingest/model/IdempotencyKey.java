@@ -0,0 +1,12 @@
+package com.oms.ingest.model;
+
+/**
+ * Idempotency scope of an order: (account_id, source_channel, client_order_id).
+ * Mirrors the uk_orders_account_source_client_order_id constraint.
+ */
+public record IdempotencyKey(String accountId, String sourceChannel, String clientOrderId) {
+
+    public static IdempotencyKey of(Order order) {
+        return new IdempotencyKey(order.getAccountId(), order.getSourceChannel(), order.getClientOrderId());
+    }
+}
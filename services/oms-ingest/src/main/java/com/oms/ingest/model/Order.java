@@ -86,8 +86,12 @@ public class Order {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /**
+     * Applies insert-time defaults. Invoked by JPA via {@code @PrePersist} and
+     * explicitly by the JDBC write paths, which bypass the entity lifecycle.
+     */
     @PrePersist
-    protected void onCreate() {
+    public void onCreate() {
         Instant now = Instant.now();
         if (receivedAt == null) {
             receivedAt = now;
@@ -61,8 +61,12 @@ public class OutboxEvent {
     @Column(name = "published_at")
     private Instant publishedAt;
 
+    /**
+     * Applies insert-time defaults. Invoked by JPA via {@code @PrePersist} and
+     * explicitly by the JDBC write paths, which bypass the entity lifecycle.
+     */
     @PrePersist
-    protected void onCreate() {
+    public void onCreate() {
         if (createdAt == null) {
             createdAt = Instant.now();
         }
@@ -0,0 +1,337 @@
+package com.oms.ingest.repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.oms.ingest.model.IdempotencyKey;
+import com.oms.ingest.model.Order;
+import com.oms.ingest.model.OutboxEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plain JDBC access to orders and outbox_events, bypassing the JPA entity lifecycle.
+ * Used by the group-commit ingest path (multi-row writes), by the single-statement
+ * persistence path (oms.ingest.persistence=jdbc) and by the read model's status write-back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderJdbcRepository {
+
+    private static final String ORDER_COLUMNS = "order_id, client_order_id, account_id, source_channel, "
+            + "received_at, request_id, symbol, side, order_type, quantity, filled_quantity, limit_price, "
+            + "stop_price, time_in_force, status, created_at, updated_at";
+    private static final String ORDER_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String OUTBOX_COLUMNS = "aggregate_type, aggregate_id, event_type, payload, topic, "
+            + "kafka_key, published, created_at";
+    private static final String OUTBOX_PLACEHOLDERS = "(?, ?, ?, ?::jsonb, ?, ?, ?, ?)";
+
+    /**
+     * Idempotency check, order insert and outbox insert in one statement.
+     * The outbox row is only written when the order row was; its id comes from the
+     * outbox_events sequence default, so no generated-key round trip is needed.
+     * On conflict the existing order is returned instead (visible unless a concurrent
+     * transaction committed it after this statement's snapshot).
+     */
+    private static final String INSERT_ORDER_WITH_OUTBOX_SQL = """
+            WITH inserted AS (
+                INSERT INTO orders (%1$s) VALUES %2$s
+                ON CONFLICT (account_id, source_channel, client_order_id) DO NOTHING
+                RETURNING %1$s
+            ), outbox AS (
+                INSERT INTO outbox_events (%3$s)
+                SELECT ?, inserted.order_id, ?, ?::jsonb, ?, inserted.order_id, false, inserted.created_at
+                FROM inserted
+            )
+            SELECT %1$s, true AS created FROM inserted
+            UNION ALL
+            SELECT %1$s, false AS created FROM orders
+            WHERE account_id = ? AND source_channel = ? AND client_order_id = ?
+              AND NOT EXISTS (SELECT 1 FROM inserted)
+            """.formatted(ORDER_COLUMNS, ORDER_PLACEHOLDERS, OUTBOX_COLUMNS);
+
+    /**
+     * Moves orders to a later lifecycle state: a row only changes when the new status ranks
+     * above its own, or adds fills to a partially filled order, so writers that are behind
+     * (another instance, a warm-up replay) cannot move it back. updated_at is set by trigger.
+     */
+    private static final String UPDATE_ORDER_STATUS_SQL = """
+            UPDATE orders o SET status = u.status, filled_quantity = u.filled_quantity
+            FROM unnest(?::uuid[], ?::text[], ?::int[], ?::numeric[]) AS u(order_id, status, rank, filled_quantity)
+            WHERE o.order_id = u.order_id
+              AND (CASE o.status
+                       WHEN 'NEW' THEN 0 WHEN 'PENDING_VALIDATION' THEN 1 WHEN 'VALIDATED' THEN 2
+                       WHEN 'ROUTING' THEN 3 WHEN 'ROUTED' THEN 4 WHEN 'PARTIALLY_FILLED' THEN 5
+                       ELSE 6 END < u.rank
+                   OR (o.status = 'PARTIALLY_FILLED' AND u.status = 'PARTIALLY_FILLED'
+                       AND COALESCE(o.filled_quantity, 0) < u.filled_quantity))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record InsertResult(Order order, boolean created) {
+    }
+
+    /** A lifecycle state to store; rank orders statuses as in UPDATE_ORDER_STATUS_SQL */
+    public record StatusUpdate(UUID orderId, String status, int rank, BigDecimal filledQuantity) {
+    }
+
+    /**
+     * Looks up existing orders for a set of idempotency keys in one query.
+     */
+    public Map<IdempotencyKey, Order> findByIdempotencyKeys(Collection<IdempotencyKey> keys) {
+        Map<IdempotencyKey, Order> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders"
+                + " WHERE (account_id, source_channel, client_order_id) IN ("
+                + repeat("(?, ?, ?)", keys.size()) + ")";
+
+        List<Order> rows = jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            for (IdempotencyKey key : keys) {
+                ps.setString(index++, key.accountId());
+                ps.setString(index++, key.sourceChannel());
+                ps.setString(index++, key.clientOrderId());
+            }
+        }, this::mapOrder);
+
+        for (Order order : rows) {
+            found.put(IdempotencyKey.of(order), order);
+        }
+        return found;
+    }
+
+    /**
+     * Streams the idempotency keys of the most recent orders, oldest first, so that the
+     * newest keys end up most recently used. Must run inside a transaction for the
+     * fetch size to take effect (otherwise pgjdbc buffers the whole result).
+     */
+    public int streamRecentIdempotencyKeys(Instant since, int limit, BiConsumer<IdempotencyKey, UUID> consumer) {
+        String sql = "SELECT account_id, source_channel, client_order_id, order_id FROM ("
+                + "SELECT account_id, source_channel, client_order_id, order_id, created_at FROM orders"
+                + " WHERE created_at >= ? ORDER BY created_at DESC LIMIT ?) recent ORDER BY created_at";
+
+        int[] count = new int[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(10_000);
+            ps.setObject(1, toOffsetDateTime(since));
+            ps.setInt(2, limit);
+            return ps;
+        }, rs -> {
+            consumer.accept(
+                    new IdempotencyKey(rs.getString(1), rs.getString(2), rs.getString(3)),
+                    rs.getObject(4, UUID.class));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Inserts orders with a single multi-row statement.
+     * Rows that lose the idempotency race are skipped rather than failing the batch;
+     * the returned set contains the ids that were actually inserted.
+     */
+    public Set<UUID> insertOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Set.of();
+        }
+        orders.forEach(Order::onCreate);
+
+        String sql = "INSERT INTO orders (" + ORDER_COLUMNS + ") VALUES "
+                + repeat(ORDER_PLACEHOLDERS, orders.size())
+                + " ON CONFLICT (account_id, source_channel, client_order_id) DO NOTHING RETURNING order_id";
+
+        List<UUID> inserted = jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            for (Order order : orders) {
+                index = bindOrder(ps, index, order);
+            }
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+
+        return new HashSet<>(inserted);
+    }
+
+    /**
+     * Inserts an order and its outbox event in a single round trip (autocommit-safe).
+     * Returns the existing order with created=false when the idempotency key is taken.
+     */
+    public InsertResult insertOrderWithOutbox(Order order, String topic, String eventType, String payload) {
+        order.onCreate();
+
+        List<InsertResult> rows = jdbcTemplate.query(INSERT_ORDER_WITH_OUTBOX_SQL, ps -> {
+            int index = bindOrder(ps, 1, order);
+            ps.setString(index++, "Order");
+            ps.setString(index++, eventType);
+            ps.setString(index++, payload);
+            ps.setString(index++, topic);
+            ps.setString(index++, order.getAccountId());
+            ps.setString(index++, order.getSourceChannel());
+            ps.setString(index, order.getClientOrderId());
+        }, (rs, rowNum) -> new InsertResult(mapOrder(rs, rowNum), rs.getBoolean("created")));
+
+        if (!rows.isEmpty()) {
+            return rows.get(0);
+        }
+
+        // Conflicting row was committed after our snapshot; it is visible to a new statement
+        IdempotencyKey key = IdempotencyKey.of(order);
+        Order existing = findByIdempotencyKeys(List.of(key)).get(key);
+        if (existing == null) {
+            throw new IllegalStateException("Order was neither inserted nor found: " + key);
+        }
+        return new InsertResult(existing, false);
+    }
+
+    /**
+     * Inserts outbox events with a single multi-row statement.
+     */
+    public int insertOutboxEvents(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        events.forEach(OutboxEvent::onCreate);
+
+        String sql = "INSERT INTO outbox_events (" + OUTBOX_COLUMNS + ") VALUES "
+                + repeat(OUTBOX_PLACEHOLDERS, events.size());
+
+        return jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (OutboxEvent event : events) {
+                index = bindOutboxEvent(ps, index, event);
+            }
+        });
+    }
+
+    /**
+     * Marks a set of outbox events as published with one statement; the ids travel as a
+     * single array parameter, so the statement text does not vary with the batch size.
+     * createdFrom (the oldest claimed created_at) prunes the other outbox partitions.
+     */
+    public int markOutboxEventsPublished(Collection<Long> ids, Instant createdFrom, Instant publishedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE outbox_events SET published = true, published_at = ?"
+                            + " WHERE id = ANY(?) AND created_at >= ?");
+            ps.setObject(1, toOffsetDateTime(publishedAt));
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            ps.setObject(3, toOffsetDateTime(createdFrom));
+            return ps;
+        });
+    }
+
+    /**
+     * Stores the statuses with one statement; each update travels as an element of the
+     * array parameters. Returns the number of orders that moved.
+     */
+    public int updateStatuses(Collection<StatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_ORDER_STATUS_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", updates.stream().map(StatusUpdate::orderId).toArray()));
+            ps.setArray(2, con.createArrayOf("text", updates.stream().map(StatusUpdate::status).toArray()));
+            ps.setArray(3, con.createArrayOf("integer", updates.stream().map(StatusUpdate::rank).toArray()));
+            ps.setArray(4, con.createArrayOf("numeric", updates.stream().map(StatusUpdate::filledQuantity).toArray()));
+            return ps;
+        });
+    }
+
+    private int bindOrder(PreparedStatement ps, int index, Order order) throws SQLException {
+        ps.setObject(index++, order.getOrderId());
+        ps.setString(index++, order.getClientOrderId());
+        ps.setString(index++, order.getAccountId());
+        ps.setString(index++, order.getSourceChannel());
+        ps.setObject(index++, toOffsetDateTime(order.getReceivedAt()));
+        ps.setString(index++, order.getRequestId());
+        ps.setString(index++, order.getSymbol());
+        ps.setString(index++, order.getSide().name());
+        ps.setString(index++, order.getOrderType().name());
+        ps.setBigDecimal(index++, order.getQuantity());
+        ps.setBigDecimal(index++, order.getFilledQuantity());
+        ps.setBigDecimal(index++, order.getLimitPrice());
+        ps.setBigDecimal(index++, order.getStopPrice());
+        ps.setString(index++, order.getTimeInForce().name());
+        ps.setString(index++, order.getStatus().name());
+        ps.setObject(index++, toOffsetDateTime(order.getCreatedAt()));
+        ps.setObject(index++, toOffsetDateTime(order.getUpdatedAt()));
+        return index;
+    }
+
+    private int bindOutboxEvent(PreparedStatement ps, int index, OutboxEvent event) throws SQLException {
+        ps.setString(index++, event.getAggregateType());
+        ps.setObject(index++, event.getAggregateId());
+        ps.setString(index++, event.getEventType());
+        ps.setString(index++, event.getPayload());
+        ps.setString(index++, event.getTopic());
+        ps.setObject(index++, event.getKafkaKey());
+        ps.setBoolean(index++, event.getPublished());
+        ps.setObject(index++, toOffsetDateTime(event.getCreatedAt()));
+        return index;
+    }
+
+    private Order mapOrder(ResultSet rs, int rowNum) throws SQLException {
+        return Order.builder()
+                .orderId(rs.getObject("order_id", UUID.class))
+                .clientOrderId(rs.getString("client_order_id"))
+                .accountId(rs.getString("account_id"))
+                .sourceChannel(rs.getString("source_channel"))
+                .receivedAt(toInstant(rs.getObject("received_at", OffsetDateTime.class)))
+                .requestId(rs.getString("request_id"))
+                .symbol(rs.getString("symbol"))
+                .side(Order.OrderSide.valueOf(rs.getString("side")))
+                .orderType(Order.OrderType.valueOf(rs.getString("order_type")))
+                .quantity(rs.getBigDecimal("quantity"))
+                .filledQuantity(rs.getBigDecimal("filled_quantity"))
+                .limitPrice(rs.getBigDecimal("limit_price"))
+                .stopPrice(rs.getBigDecimal("stop_price"))
+                .timeInForce(Order.TimeInForce.valueOf(rs.getString("time_in_force")))
+                .status(Order.OrderStatus.valueOf(rs.getString("status")))
+                .createdAt(toInstant(rs.getObject("created_at", OffsetDateTime.class)))
+                .updatedAt(toInstant(rs.getObject("updated_at", OffsetDateTime.class)))
+                .build();
+    }
+
+    private static String repeat(String tuple, int count) {
+        StringBuilder sb = new StringBuilder(count * (tuple.length() + 2));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(tuple);
+        }
+        return sb.toString();
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant != null ? OffsetDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value != null ? value.toInstant() : null;
+    }
+}
@@ -18,8 +18,39 @@ public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
     @Query("SELECT o FROM OutboxEvent o WHERE o.published = false ORDER BY o.createdAt ASC")
     List<OutboxEvent> findUnpublishedEvents(org.springframework.data.domain.Pageable pageable);
 
-    @Query(value = "SELECT * FROM outbox_events WHERE published = false ORDER BY created_at ASC FOR UPDATE SKIP LOCKED LIMIT :limit", nativeQuery = true)
-    List<OutboxEvent> claimUnpublishedEvents(@Param("limit") int limit);
+    /**
+     * Claims unpublished events created at or after activeFrom; the bound lets the planner
+     * prune fully published outbox partitions.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE published = false AND created_at >= :activeFrom"
+            + " ORDER BY created_at ASC, id ASC FOR UPDATE SKIP LOCKED LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> claimUnpublishedEvents(@Param("activeFrom") Instant activeFrom, @Param("limit") int limit);
+
+    /**
+     * Claims unpublished events of one shard, where shard = hash(aggregate_id) mod shardCount.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE published = false AND created_at >= :activeFrom"
+            + " AND (hashtext(aggregate_id::text) & 2147483647) % :shardCount = :shard"
+            + " ORDER BY created_at ASC, id ASC FOR UPDATE SKIP LOCKED LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> claimUnpublishedEvents(@Param("activeFrom") Instant activeFrom, @Param("shard") int shard,
+            @Param("shardCount") int shardCount, @Param("limit") int limit);
+
+    /**
+     * Claims notified events by primary key. An event is skipped while an older event of
+     * its aggregate is still unpublished, so it is left to the ordered shard scan.
+     */
+    @Query(value = "SELECT * FROM outbox_events o WHERE o.id = ANY(:ids) AND o.published = false"
+            + " AND o.created_at >= :activeFrom"
+            + " AND NOT EXISTS (SELECT 1 FROM outbox_events p WHERE p.aggregate_id = o.aggregate_id"
+            + " AND p.published = false AND p.created_at >= :activeFrom AND p.id < o.id)"
+            + " ORDER BY o.created_at ASC, o.id ASC FOR UPDATE OF o SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimNotifiedEvents(@Param("activeFrom") Instant activeFrom, @Param("ids") Long[] ids);
+
+    /**
+     * Transaction-scoped advisory lock on a publisher shard; false if another claimer holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('outbox_events'), :shard)", nativeQuery = true)
+    boolean tryLockShard(@Param("shard") int shard);
 
     @Modifying
     @Transactional
@@ -0,0 +1,287 @@
+package com.oms.ingest.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oms.ingest.model.IdempotencyKey;
+import com.oms.ingest.repository.OrderJdbcRepository;
+import com.oms.ingest.service.OrderIngestionService.IngestResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory idempotency index in front of the orders unique constraint.
+ *
+ * A Bloom filter answers "definitely new" so the common path can skip the idempotency
+ * SELECT, an LRU of recent keys maps duplicates straight to their orderId, and
+ * concurrent requests for the same key are coalesced onto a single ingest.
+ *
+ * The index is advisory: it only knows keys this instance has seen or warmed from
+ * recent orders, so the unique constraint (ON CONFLICT, or the
+ * DataIntegrityViolationException fallback) stays the source of truth.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyIndex {
+
+    private static final int LRU_STRIPES = 16;
+
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${oms.ingest.idempotency-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${oms.ingest.idempotency-index.expected-keys:1000000}")
+    private long expectedKeys;
+
+    @Value("${oms.ingest.idempotency-index.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${oms.ingest.idempotency-index.recent-keys:100000}")
+    private int recentKeys;
+
+    @Value("${oms.ingest.idempotency-index.warmup-hours:24}")
+    private long warmupHours;
+
+    @Value("${oms.ingest.idempotency-index.warmup-limit:500000}")
+    private int warmupLimit;
+
+    private final ConcurrentHashMap<IdempotencyKey, CompletableFuture<IngestResult>> inFlight =
+            new ConcurrentHashMap<>();
+
+    // Two filter generations bound memory: when the current one fills up it becomes the previous
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private LinkedHashMap<IdempotencyKey, UUID>[] recent;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        current = new BloomFilter(expectedKeys, falsePositiveRate);
+        previous = new BloomFilter(1, falsePositiveRate);
+
+        int perStripe = Math.max(1, recentKeys / LRU_STRIPES);
+        recent = new LinkedHashMap[LRU_STRIPES];
+        for (int i = 0; i < LRU_STRIPES; i++) {
+            recent[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<IdempotencyKey, UUID> eldest) {
+                    return size() > perStripe;
+                }
+            };
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || warmupLimit <= 0) {
+            return;
+        }
+        Thread warmup = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                Instant since = Instant.now().minus(Duration.ofHours(warmupHours));
+                // Streaming fetch needs autocommit off, hence the (read-only) transaction
+                Integer loaded = transactionTemplate.execute(status -> orderJdbcRepository.streamRecentIdempotencyKeys(
+                        since, warmupLimit, this::record));
+                log.info("Idempotency index warmed with {} keys in {} ms", loaded,
+                        System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                log.warn("Idempotency index warm-up failed, continuing cold: {}", e.getMessage());
+            }
+        }, "idempotency-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    /**
+     * Returns the orderId of a recently seen key, or null.
+     */
+    public UUID recentOrderId(IdempotencyKey key) {
+        LinkedHashMap<IdempotencyKey, UUID> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * True when the key has certainly not been seen by this index, so the idempotency
+     * SELECT can be skipped. False means "maybe seen" and the caller must check.
+     */
+    public boolean isDefinitelyNew(IdempotencyKey key) {
+        long hash = hash(key);
+        boolean definitelyNew = !current.mightContain(hash) && !previous.mightContain(hash);
+        count(definitelyNew ? "new" : "maybe");
+        return definitelyNew;
+    }
+
+    public void record(IdempotencyKey key, UUID orderId) {
+        BloomFilter filter = current;
+        filter.put(hash(key));
+        if (filter.insertions() >= expectedKeys) {
+            rotate(filter);
+        }
+
+        LinkedHashMap<IdempotencyKey, UUID> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, orderId);
+        }
+    }
+
+    /**
+     * Single-flight: the first caller for a key runs the ingest, concurrent callers for the
+     * same key wait for it and receive its order as a duplicate (created=false).
+     */
+    public IngestResult coalesce(IdempotencyKey key, Supplier<IngestResult> ingest) {
+        CompletableFuture<IngestResult> mine = new CompletableFuture<>();
+        CompletableFuture<IngestResult> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            count("coalesced");
+            try {
+                return new IngestResult(leader.join().order(), false);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            IngestResult result = ingest.get();
+            record(key, result.order().getOrderId());
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public void countHit() {
+        count("hit");
+    }
+
+    private synchronized void rotate(BloomFilter full) {
+        if (current == full) {
+            previous = full;
+            current = new BloomFilter(expectedKeys, falsePositiveRate);
+            log.debug("Idempotency filter rotated after {} keys", full.insertions());
+        }
+    }
+
+    private LinkedHashMap<IdempotencyKey, UUID> stripe(IdempotencyKey key) {
+        return recent[(key.hashCode() & 0x7fffffff) % LRU_STRIPES];
+    }
+
+    private void count(String result) {
+        Counter.builder("oms.ingest.idempotency.index")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static long hash(IdempotencyKey key) {
+        long h = 0xcbf29ce484222325L;
+        h = hash(h, key.accountId());
+        h = hash(h, key.sourceChannel());
+        h = hash(h, key.clientOrderId());
+        return fmix64(h);
+    }
+
+    // FNV-1a over the chars, with a separator so ("ab","c") and ("a","bc") differ
+    private static long hash(long h, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+        h ^= 0x1f;
+        h *= 0x100000001b3L;
+        return h;
+    }
+
+    private static long fmix64(long z) {
+        z ^= z >>> 33;
+        z *= 0xff51afd7ed558ccdL;
+        z ^= z >>> 33;
+        z *= 0xc4ceb9fe1a85ec53L;
+        z ^= z >>> 33;
+        return z;
+    }
+
+    /**
+     * Lock-free Bloom filter over a shared bit array, using double hashing.
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomFilter(long expected, double fpp) {
+            long bits = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(1, expected) * Math.log(2)));
+        }
+
+        boolean mightContain(long hash) {
+            long h2 = fmix64(hash) | 1L;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long hash) {
+            long h2 = fmix64(hash) | 1L;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * h2, bitCount);
+                words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (a, b) -> a | b);
+            }
+            insertions.incrementAndGet();
+        }
+
+        long insertions() {
+            return insertions.get();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.oms.ingest.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oms.ingest.model.IdempotencyKey;
+import com.oms.ingest.model.Order;
+import com.oms.ingest.model.OutboxEvent;
+import com.oms.ingest.repository.OrderJdbcRepository;
+import com.oms.ingest.service.OrderIngestionService.IngestResult;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Group-commit ingest mode.
+ *
+ * Concurrent ingest calls enqueue their order and block on a future. Flusher threads
+ * drain the queue in short windows (up to max-batch-size orders or max-wait-micros),
+ * and each window is written in one transaction: one idempotency SELECT, one multi-row
+ * INSERT into orders and one into outbox_events, then a single commit. Every caller
+ * still receives its own {@link IngestResult}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderGroupCommitter {
+
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${oms.ingest.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${oms.ingest.group-commit.max-batch-size:128}")
+    private int maxBatchSize;
+
+    @Value("${oms.ingest.group-commit.max-wait-micros:1000}")
+    private long maxWaitMicros;
+
+    @Value("${oms.ingest.group-commit.flushers:4}")
+    private int flushers;
+
+    private final BlockingQueue<PendingOrder> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> flusherThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    private record PendingOrder(Order order, boolean knownNew, CompletableFuture<IngestResult> result) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < flushers; i++) {
+            Thread flusher = new Thread(this::runFlusher, "ingest-group-commit-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flusherThreads.add(flusher);
+        }
+        log.info("Group commit enabled: flushers={}, maxBatchSize={}, maxWaitMicros={}",
+                flushers, maxBatchSize, maxWaitMicros);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        flusherThreads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Enqueues a prepared order and blocks until its window has committed.
+     * The order must already be validated and carry its source channel; knownNew
+     * excludes its key from the window's idempotency SELECT.
+     */
+    public IngestResult commit(Order order, boolean knownNew) {
+        if (!running) {
+            throw new IllegalStateException("Group commit is not running");
+        }
+        PendingOrder pending = new PendingOrder(order, knownNew, new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a caller-assembled chunk as one window on the calling thread, independent of
+     * the queue and of oms.ingest.group-commit.enabled. Futures are already complete on return.
+     */
+    public List<CompletableFuture<IngestResult>> commitChunk(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        List<PendingOrder> chunk = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            chunk.add(new PendingOrder(order, false, new CompletableFuture<>()));
+        }
+        flush(chunk);
+        return chunk.stream().map(PendingOrder::result).toList();
+    }
+
+    private void runFlusher() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collectWindow(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Group commit flusher error", e);
+            } finally {
+                failPending(batch, "Group commit flush aborted");
+                batch.clear();
+            }
+        }
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        failPending(remaining, "Group commit is shutting down");
+    }
+
+    private void collectWindow(List<PendingOrder> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingOrder> batch) {
+        long start = System.nanoTime();
+        IngestResult[] results;
+        try {
+            results = transactionTemplate.execute(status -> writeBatch(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad row must not fail its neighbours: retry each order in its own window
+                log.warn("Group commit of {} orders failed, retrying individually: {}", batch.size(), e.getMessage());
+                for (PendingOrder pending : batch) {
+                    flush(List.of(pending));
+                }
+            } else {
+                batch.get(0).result().completeExceptionally(e);
+            }
+            return;
+        }
+
+        meterRegistry.timer("oms.ingest.group-commit.flush.latency")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("oms.ingest.group-commit.batch.size")
+                .description("Orders committed per group-commit window")
+                .register(meterRegistry)
+                .record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results[i]);
+        }
+    }
+
+    private IngestResult[] writeBatch(List<PendingOrder> batch) {
+        // Collapse duplicates inside the window onto their first occurrence
+        Map<IdempotencyKey, Order> leaders = new LinkedHashMap<>();
+        Set<IdempotencyKey> toCheck = new HashSet<>();
+        for (PendingOrder pending : batch) {
+            IdempotencyKey key = IdempotencyKey.of(pending.order());
+            leaders.putIfAbsent(key, pending.order());
+            if (!pending.knownNew()) {
+                toCheck.add(key);
+            }
+        }
+
+        Map<IdempotencyKey, Order> existing = orderJdbcRepository.findByIdempotencyKeys(toCheck);
+
+        List<Order> toInsert = new ArrayList<>(leaders.size());
+        leaders.forEach((key, order) -> {
+            if (!existing.containsKey(key)) {
+                toInsert.add(order);
+            }
+        });
+
+        Set<UUID> inserted = orderJdbcRepository.insertOrders(toInsert);
+
+        if (inserted.size() < toInsert.size()) {
+            // Lost the race to a concurrent window or the single-order path
+            List<IdempotencyKey> conflicted = toInsert.stream()
+                    .filter(order -> !inserted.contains(order.getOrderId()))
+                    .map(IdempotencyKey::of)
+                    .toList();
+            existing.putAll(orderJdbcRepository.findByIdempotencyKeys(conflicted));
+        }
+
+        List<OutboxEvent> events = new ArrayList<>(inserted.size());
+        for (Order order : toInsert) {
+            if (inserted.contains(order.getOrderId())) {
+                events.add(OutboxEvent.builder()
+                        .aggregateType("Order")
+                        .aggregateId(order.getOrderId())
+                        .eventType("OrderCreated")
+                        .topic("orders.inbound")
+                        .kafkaKey(order.getOrderId())
+                        .payload(objectMapper.writeValueAsString(OrderMapper.toDTO(order)))
+                        .build());
+            }
+        }
+        orderJdbcRepository.insertOutboxEvents(events);
+
+        IngestResult[] results = new IngestResult[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Order submitted = batch.get(i).order();
+            IdempotencyKey key = IdempotencyKey.of(submitted);
+            Order persisted = existing.get(key);
+            if (persisted != null) {
+                results[i] = new IngestResult(OrderMapper.toDTO(persisted), false);
+                continue;
+            }
+            Order leader = leaders.get(key);
+            if (!inserted.contains(leader.getOrderId())) {
+                throw new IllegalStateException("Order was neither inserted nor found: " + key);
+            }
+            results[i] = new IngestResult(OrderMapper.toDTO(leader), leader == submitted);
+        }
+        return results;
+    }
+
+    private static void failPending(List<PendingOrder> pending, String reason) {
+        for (PendingOrder p : pending) {
+            if (!p.result().isDone()) {
+                p.result().completeExceptionally(new IllegalStateException(reason));
+            }
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.oms.ingest.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.oms.common.model.OrderDTO;
+import com.oms.ingest.model.IdempotencyKey;
 import com.oms.ingest.model.Order;
 import com.oms.ingest.model.OutboxEvent;
+import com.oms.ingest.repository.OrderJdbcRepository;
 import com.oms.ingest.repository.OrderRepository;
 import com.oms.ingest.repository.OutboxRepository;
 
@@ -37,11 +45,32 @@ public class OrderIngestionService {
     private final ObjectMapper objectMapper;
     private final MeterRegistry meterRegistry;
     private final Tracer tracer;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderGroupCommitter groupCommitter;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final IdempotencyIndex idempotencyIndex;
+    private final OrderThrottle orderThrottle;
+    private final OrderStateCache orderStateCache;
+
+    @Value("${oms.ingest.persistence:jpa}")
+    private String persistence;
 
     public record IngestResult(OrderDTO order, boolean created) {
     }
 
-    @Transactional
+    /**
+     * Per-order outcome of a batch chunk: either a result or the error that rejected the order.
+     */
+    public record BatchItemResult(IngestResult result, RuntimeException error) {
+    }
+
+    /**
+     * Ingests a single order. Runs in its own JPA transaction by default, as a single
+     * JDBC statement when oms.ingest.persistence=jdbc, or joins a shared group-commit
+     * window when oms.ingest.group-commit.enabled is set. A valid new order over an account
+     * or symbol velocity limit fails with {@link OrderThrottledException} just before it would
+     * be persisted; a duplicate still comes back as one, throttled or not.
+     */
     public IngestResult ingestOrder(OrderDTO orderRequest, String sourceChannel, String requestId) {
         Span span = tracer.nextSpan().name("order.ingest.service").start();
         try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
@@ -49,11 +78,249 @@ public class OrderIngestionService {
             span.tag("order.accountId", orderRequest.getAccountId());
             span.tag("order.symbol", orderRequest.getSymbol());
 
-            String normalizedChannel = (sourceChannel == null || sourceChannel.isBlank()) ? "REST"
-                    : sourceChannel.trim();
+            String normalizedChannel = normalizeChannel(sourceChannel);
             span.tag("channel", normalizedChannel);
 
-            // Idempotency check
+            IngestResult result = idempotencyIndex.isEnabled()
+                    ? ingestIndexed(orderRequest, normalizedChannel, requestId, span)
+                    : ingest(orderRequest, normalizedChannel, requestId, false, span);
+
+            span.tag("order.id", result.order().getOrderId().toString());
+            if (result.created()) {
+                recordReceived(result.order());
+            } else {
+                span.tag("order.duplicate", "true");
+            }
+
+            span.event("order.ingestion-complete");
+            return result;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Ingests one chunk of a batch submission as a single transaction with multi-row inserts.
+     * Idempotency is per order, exactly as in {@link #ingestOrder}: duplicates come back with
+     * created=false. Results are positional; invalid orders carry their IllegalArgumentException
+     * and throttled ones their OrderThrottledException. Velocity limits apply after
+     * validation, and not to orders the idempotency index or the database already hold.
+     */
+    public List<BatchItemResult> ingestChunk(List<OrderDTO> orderRequests, String sourceChannel,
+            String requestId) {
+        Span span = tracer.nextSpan().name("order.ingest.chunk").start();
+        try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
+            String normalizedChannel = normalizeChannel(sourceChannel);
+            span.tag("channel", normalizedChannel);
+            span.tag("chunk.size", String.valueOf(orderRequests.size()));
+
+            BatchItemResult[] results = new BatchItemResult[orderRequests.size()];
+            List<Order> orders = new ArrayList<>(orderRequests.size());
+            List<Integer> positions = new ArrayList<>(orderRequests.size());
+            for (int i = 0; i < orderRequests.size(); i++) {
+                OrderDTO orderRequest = orderRequests.get(i);
+                try {
+                    validateOrder(orderRequest);
+                    // A recent duplicate is resolved by the insert itself and uses no velocity budget
+                    if (!idempotencyIndex.isEnabled() || idempotencyIndex.recentOrderId(
+                            new IdempotencyKey(orderRequest.getAccountId(), normalizedChannel,
+                                    orderRequest.getClientOrderId())) == null) {
+                        orderThrottle.check(orderRequest);
+                    }
+                    orders.add(newOrder(orderRequest, normalizedChannel, requestId));
+                    positions.add(i);
+                } catch (IllegalArgumentException e) {
+                    results[i] = new BatchItemResult(null, e);
+                } catch (OrderThrottledException e) {
+                    Optional<IngestResult> existing = findExisting(orderRequest, normalizedChannel);
+                    results[i] = existing.isPresent()
+                            ? new BatchItemResult(existing.get(), null)
+                            : new BatchItemResult(null, e);
+                }
+            }
+
+            List<CompletableFuture<IngestResult>> committed = groupCommitter.commitChunk(orders);
+            for (int j = 0; j < committed.size(); j++) {
+                int i = positions.get(j);
+                try {
+                    IngestResult result = committed.get(j).join();
+                    if (result.created()) {
+                        recordReceived(result.order());
+                    }
+                    if (idempotencyIndex.isEnabled()) {
+                        idempotencyIndex.record(IdempotencyKey.of(orders.get(j)), result.order().getOrderId());
+                    }
+                    results[i] = new BatchItemResult(result, null);
+                } catch (CompletionException e) {
+                    results[i] = new BatchItemResult(null, e.getCause() instanceof RuntimeException cause
+                            ? cause
+                            : e);
+                }
+            }
+
+            span.event("order.chunk-complete");
+            return Arrays.asList(results);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Consults the in-memory idempotency index: recent duplicates resolve by primary key,
+     * keys the filter has never seen skip the idempotency SELECT, and concurrent
+     * requests for the same key share one ingest.
+     */
+    private IngestResult ingestIndexed(OrderDTO orderRequest, String normalizedChannel, String requestId,
+            Span span) {
+        IdempotencyKey key = new IdempotencyKey(orderRequest.getAccountId(), normalizedChannel,
+                orderRequest.getClientOrderId());
+
+        UUID recentOrderId = idempotencyIndex.recentOrderId(key);
+        if (recentOrderId != null) {
+            Optional<Order> existing = orderRepository.findById(recentOrderId);
+            if (existing.isPresent()) {
+                idempotencyIndex.countHit();
+                span.tag("idempotency.index", "hit");
+                return new IngestResult(OrderMapper.toDTO(existing.get()), false);
+            }
+        }
+
+        boolean knownNew = idempotencyIndex.isDefinitelyNew(key);
+        span.tag("idempotency.index", knownNew ? "new" : "maybe");
+        return idempotencyIndex.coalesce(key,
+                () -> ingest(orderRequest, normalizedChannel, requestId, knownNew, span));
+    }
+
+    /**
+     * Dispatches to the configured persistence path. knownNew lets paths with a separate
+     * idempotency lookup skip it; the unique constraint still catches stale answers.
+     */
+    private IngestResult ingest(OrderDTO orderRequest, String normalizedChannel, String requestId,
+            boolean knownNew, Span span) {
+        if (groupCommitter.isEnabled()) {
+            span.tag("ingest.mode", "group-commit");
+            return ingestGroupCommit(orderRequest, normalizedChannel, requestId, knownNew);
+        }
+        if ("jdbc".equalsIgnoreCase(persistence)) {
+            span.tag("ingest.mode", "jdbc");
+            return ingestJdbc(orderRequest, normalizedChannel, requestId);
+        }
+
+        span.tag("ingest.mode", "single");
+        try {
+            return transactionTemplate.execute(
+                    status -> ingestSingle(orderRequest, normalizedChannel, requestId, knownNew));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the insert race; the transaction is rolled back, so look up the winner afresh
+            span.event("db.conflict");
+            return findExisting(orderRequest, normalizedChannel).orElseThrow(() -> e);
+        }
+    }
+
+    private IngestResult ingestGroupCommit(OrderDTO orderRequest, String normalizedChannel, String requestId,
+            boolean knownNew) {
+        Order order = prepareOrder(orderRequest, normalizedChannel, requestId);
+        IngestResult duplicate = throttle(orderRequest, normalizedChannel);
+        if (duplicate != null) {
+            return duplicate;
+        }
+
+        Span commitSpan = tracer.nextSpan().name("db.group-commit").start();
+        try (Tracer.SpanInScope ws = tracer.withSpan(commitSpan)) {
+            commitSpan.tag("db.table", "orders,outbox_events");
+            return groupCommitter.commit(order, knownNew);
+        } finally {
+            commitSpan.end();
+        }
+    }
+
+    /**
+     * Hibernate-free path: idempotency check, order insert and outbox insert
+     * as one autocommitted statement.
+     */
+    private IngestResult ingestJdbc(OrderDTO orderRequest, String normalizedChannel, String requestId) {
+        Order order = prepareOrder(orderRequest, normalizedChannel, requestId);
+        IngestResult duplicate = throttle(orderRequest, normalizedChannel);
+        if (duplicate != null) {
+            return duplicate;
+        }
+        order.onCreate();
+        String payload = objectMapper.writeValueAsString(OrderMapper.toDTO(order));
+
+        Span saveSpan = tracer.nextSpan().name("db.save-order-with-outbox").start();
+        try (Tracer.SpanInScope ws = tracer.withSpan(saveSpan)) {
+            saveSpan.tag("db.operation", "insert");
+            saveSpan.tag("db.table", "orders,outbox_events");
+
+            OrderJdbcRepository.InsertResult inserted = orderJdbcRepository.insertOrderWithOutbox(
+                    order, "orders.inbound", "OrderCreated", payload);
+            saveSpan.event(inserted.created() ? "order.persisted" : "order.duplicate-found");
+            return new IngestResult(OrderMapper.toDTO(inserted.order()), inserted.created());
+        } finally {
+            saveSpan.end();
+        }
+    }
+
+    private Order prepareOrder(OrderDTO orderRequest, String normalizedChannel, String requestId) {
+        Span validationSpan = tracer.nextSpan().name("order.validate").start();
+        try (Tracer.SpanInScope ws = tracer.withSpan(validationSpan)) {
+            validateOrder(orderRequest);
+            validationSpan.event("validation.passed");
+        } finally {
+            validationSpan.end();
+        }
+
+        return newOrder(orderRequest, normalizedChannel, requestId);
+    }
+
+    /**
+     * Applies the velocity limits to a validated order about to be inserted by a path that
+     * detects duplicates in the insert itself. Only when the order is throttled is its key
+     * looked up, so a retry of an accepted order gets that order back instead of a 429.
+     *
+     * @return the existing order when a throttled order turns out to be a duplicate, else null
+     */
+    private IngestResult throttle(OrderDTO orderRequest, String normalizedChannel) {
+        try {
+            orderThrottle.check(orderRequest);
+            return null;
+        } catch (OrderThrottledException e) {
+            return findExisting(orderRequest, normalizedChannel).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<IngestResult> findExisting(OrderDTO orderRequest, String normalizedChannel) {
+        return orderRepository.findByAccountIdAndSourceChannelAndClientOrderId(
+                orderRequest.getAccountId(),
+                normalizedChannel,
+                orderRequest.getClientOrderId())
+                .map(o -> new IngestResult(OrderMapper.toDTO(o), false));
+    }
+
+    private static Order newOrder(OrderDTO orderRequest, String normalizedChannel, String requestId) {
+        Order order = OrderMapper.toEntity(orderRequest);
+        order.setSourceChannel(normalizedChannel);
+        order.setRequestId(requestId);
+        order.setStatus(Order.OrderStatus.NEW);
+        return order;
+    }
+
+    private static String normalizeChannel(String sourceChannel) {
+        return (sourceChannel == null || sourceChannel.isBlank()) ? "REST" : sourceChannel.trim();
+    }
+
+    private void recordReceived(OrderDTO order) {
+        Counter.builder("oms.ingest.orders.received")
+                .tag("symbol", order.getSymbol())
+                .tag("side", order.getSide().name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private IngestResult ingestSingle(OrderDTO orderRequest, String normalizedChannel, String requestId,
+            boolean knownNew) {
+        // Idempotency check (skipped when the in-memory index has never seen the key)
+        if (!knownNew) {
             Span idempotencySpan = tracer.nextSpan().name("db.check-idempotency").start();
             try (Tracer.SpanInScope ws2 = tracer.withSpan(idempotencySpan)) {
                 idempotencySpan.tag("db.operation", "findByAccountIdAndSourceChannelAndClientOrderId");
@@ -66,106 +333,101 @@ public class OrderIngestionService {
 
                 if (existing.isPresent()) {
                     idempotencySpan.event("order.duplicate-found");
-                    span.tag("order.duplicate", "true");
-                    return new IngestResult(toDTO(existing.get()), false);
+                    return new IngestResult(OrderMapper.toDTO(existing.get()), false);
                 }
                 idempotencySpan.event("order.unique-verified");
             } finally {
                 idempotencySpan.end();
             }
+        }
 
-            // Validation
-            Span validationSpan = tracer.nextSpan().name("order.validate").start();
-            try (Tracer.SpanInScope ws2 = tracer.withSpan(validationSpan)) {
-                validateOrder(orderRequest);
-                validationSpan.event("validation.passed");
-            } finally {
-                validationSpan.end();
-            }
+        // Validation
+        Span validationSpan = tracer.nextSpan().name("order.validate").start();
+        try (Tracer.SpanInScope ws2 = tracer.withSpan(validationSpan)) {
+            validateOrder(orderRequest);
+            validationSpan.event("validation.passed");
+        } finally {
+            validationSpan.end();
+        }
 
-            // Convert and save
-            Order order = toEntity(orderRequest);
-            order.setSourceChannel(normalizedChannel);
-            order.setRequestId(requestId);
-            order.setStatus(Order.OrderStatus.NEW);
+        // Velocity limits: only valid orders that are not duplicates count against them
+        orderThrottle.check(orderRequest);
 
-            Span saveSpan = tracer.nextSpan().name("db.save-order").start();
-            final Order savedOrder;
-            try (Tracer.SpanInScope ws2 = tracer.withSpan(saveSpan)) {
-                saveSpan.tag("db.operation", "insert");
-                saveSpan.tag("db.table", "orders");
+        // Convert and save
+        Order order = OrderMapper.toEntity(orderRequest);
+        order.setSourceChannel(normalizedChannel);
+        order.setRequestId(requestId);
+        order.setStatus(Order.OrderStatus.NEW);
 
-                try {
-                    savedOrder = orderRepository.save(order);
-                    saveSpan.tag("order.id", savedOrder.getOrderId().toString());
-                    saveSpan.event("order.persisted");
-                    log.debug("Saved order: orderId={}", savedOrder.getOrderId());
-                } catch (DataIntegrityViolationException e) {
-                    saveSpan.tag("error", "true");
-                    saveSpan.tag("error.type", "race-condition");
-                    saveSpan.event("db.conflict");
-                    // Race condition: another request won the insert
-                    return orderRepository.findByAccountIdAndSourceChannelAndClientOrderId(
-                            orderRequest.getAccountId(),
-                            normalizedChannel,
-                            orderRequest.getClientOrderId())
-                            .map(o -> new IngestResult(toDTO(o), false))
-                            .orElseThrow(() -> e);
-                }
-            } finally {
-                saveSpan.end();
-            }
+        Span saveSpan = tracer.nextSpan().name("db.save-order").start();
+        final Order savedOrder;
+        try (Tracer.SpanInScope ws2 = tracer.withSpan(saveSpan)) {
+            saveSpan.tag("db.operation", "insert");
+            saveSpan.tag("db.table", "orders");
 
-            span.tag("order.id", savedOrder.getOrderId().toString());
-
-            // Create outbox event
-            Span outboxSpan = tracer.nextSpan().name("db.save-outbox").start();
-            try (Tracer.SpanInScope ws2 = tracer.withSpan(outboxSpan)) {
-                outboxSpan.tag("db.operation", "insert");
-                outboxSpan.tag("db.table", "outbox_events");
-                outboxSpan.tag("event.type", "OrderCreated");
-                outboxSpan.tag("kafka.topic", "orders.inbound");
-
-                String payload = objectMapper.writeValueAsString(toDTO(savedOrder));
-                OutboxEvent outboxEvent = OutboxEvent.builder()
-                        .aggregateType("Order")
-                        .aggregateId(savedOrder.getOrderId())
-                        .eventType("OrderCreated")
-                        .topic("orders.inbound")
-                        .kafkaKey(savedOrder.getOrderId())
-                        .payload(payload)
-                        .build();
-
-                outboxRepository.save(outboxEvent);
-                outboxSpan.tag("outbox.eventId", String.valueOf(outboxEvent.getId()));
-                outboxSpan.event("outbox.event-created");
-                log.debug("Created outbox event: eventId={}", outboxEvent.getId());
-
-            } catch (JacksonException e) {
-                outboxSpan.tag("error", "true");
-                outboxSpan.tag("error.type", "serialization");
-                log.error("Failed to serialize order to JSON", e);
-                throw new RuntimeException("Failed to create outbox event", e);
-            } finally {
-                outboxSpan.end();
+            try {
+                savedOrder = orderRepository.save(order);
+                saveSpan.tag("order.id", savedOrder.getOrderId().toString());
+                saveSpan.event("order.persisted");
+                log.debug("Saved order: orderId={}", savedOrder.getOrderId());
+            } catch (DataIntegrityViolationException e) {
+                saveSpan.tag("error", "true");
+                saveSpan.tag("error.type", "race-condition");
+                saveSpan.event("db.conflict");
+                // Race condition: another request won the insert. Postgres has aborted this
+                // transaction, so the winner is looked up by ingest() after rollback.
+                throw e;
             }
+        } finally {
+            saveSpan.end();
+        }
 
-            // Metrics
-            Counter.builder("oms.ingest.orders.received")
-                    .tag("symbol", savedOrder.getSymbol())
-                    .tag("side", savedOrder.getSide().name())
-                    .register(meterRegistry)
-                    .increment();
+        // Create outbox event
+        Span outboxSpan = tracer.nextSpan().name("db.save-outbox").start();
+        try (Tracer.SpanInScope ws2 = tracer.withSpan(outboxSpan)) {
+            outboxSpan.tag("db.operation", "insert");
+            outboxSpan.tag("db.table", "outbox_events");
+            outboxSpan.tag("event.type", "OrderCreated");
+            outboxSpan.tag("kafka.topic", "orders.inbound");
 
-            span.event("order.ingestion-complete");
-            return new IngestResult(toDTO(savedOrder), true);
+            String payload = objectMapper.writeValueAsString(OrderMapper.toDTO(savedOrder));
+            OutboxEvent outboxEvent = OutboxEvent.builder()
+                    .aggregateType("Order")
+                    .aggregateId(savedOrder.getOrderId())
+                    .eventType("OrderCreated")
+                    .topic("orders.inbound")
+                    .kafkaKey(savedOrder.getOrderId())
+                    .payload(payload)
+                    .build();
+
+            outboxRepository.save(outboxEvent);
+            outboxSpan.tag("outbox.eventId", String.valueOf(outboxEvent.getId()));
+            outboxSpan.event("outbox.event-created");
+            log.debug("Created outbox event: eventId={}", outboxEvent.getId());
+
+        } catch (JacksonException e) {
+            outboxSpan.tag("error", "true");
+            outboxSpan.tag("error.type", "serialization");
+            log.error("Failed to serialize order to JSON", e);
+            throw new RuntimeException("Failed to create outbox event", e);
         } finally {
-            span.end();
+            outboxSpan.end();
         }
+
+        return new IngestResult(OrderMapper.toDTO(savedOrder), true);
     }
 
+    /**
+     * Current state from the read model, falling back to the stored order for orders the
+     * read model does not hold. The read model writes status changes back to the orders
+     * table, so the stored status is current too, though it may trail the read model.
+     */
     public Optional<OrderDTO> getOrder(UUID orderId) {
-        return orderRepository.findById(orderId).map(this::toDTO);
+        Optional<OrderDTO> cached = orderStateCache.get(orderId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return orderRepository.findById(orderId).map(OrderMapper::toDTO);
     }
 
     private void validateOrder(OrderDTO order) {
@@ -181,37 +443,4 @@ public class OrderIngestionService {
             throw new IllegalArgumentException("Stop price required for STOP order");
         }
     }
-
-    private Order toEntity(OrderDTO dto) {
-        return Order.builder()
-                .clientOrderId(dto.getClientOrderId())
-                .accountId(dto.getAccountId())
-                .symbol(dto.getSymbol())
-                .side(Order.OrderSide.valueOf(dto.getSide().name()))
-                .orderType(Order.OrderType.valueOf(dto.getOrderType().name()))
-                .quantity(dto.getQuantity())
-                .limitPrice(dto.getLimitPrice())
-                .stopPrice(dto.getStopPrice())
-                .timeInForce(Order.TimeInForce.valueOf(dto.getTimeInForce().name()))
-                .build();
-    }
-
-    private OrderDTO toDTO(Order entity) {
-        return OrderDTO.builder()
-                .orderId(entity.getOrderId())
-                .clientOrderId(entity.getClientOrderId())
-                .accountId(entity.getAccountId())
-                .symbol(entity.getSymbol())
-                .side(OrderDTO.OrderSide.valueOf(entity.getSide().name()))
-                .orderType(OrderDTO.OrderType.valueOf(entity.getOrderType().name()))
-                .quantity(entity.getQuantity())
-                .filledQuantity(entity.getFilledQuantity())
-                .limitPrice(entity.getLimitPrice())
-                .stopPrice(entity.getStopPrice())
-                .timeInForce(OrderDTO.TimeInForce.valueOf(entity.getTimeInForce().name()))
-                .status(OrderDTO.OrderStatus.valueOf(entity.getStatus().name()))
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .build();
-    }
 }
@@ -0,0 +1,48 @@
+package com.oms.ingest.service;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.ingest.model.Order;
+
+/**
+ * Conversions between the {@link OrderDTO} wire model and the {@link Order} entity.
+ * Shared by the single-order and group-commit ingest paths.
+ */
+public final class OrderMapper {
+
+    private OrderMapper() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static Order toEntity(OrderDTO dto) {
+        return Order.builder()
+                .clientOrderId(dto.getClientOrderId())
+                .accountId(dto.getAccountId())
+                .symbol(dto.getSymbol())
+                .side(Order.OrderSide.valueOf(dto.getSide().name()))
+                .orderType(Order.OrderType.valueOf(dto.getOrderType().name()))
+                .quantity(dto.getQuantity())
+                .limitPrice(dto.getLimitPrice())
+                .stopPrice(dto.getStopPrice())
+                .timeInForce(Order.TimeInForce.valueOf(dto.getTimeInForce().name()))
+                .build();
+    }
+
+    public static OrderDTO toDTO(Order entity) {
+        return OrderDTO.builder()
+                .orderId(entity.getOrderId())
+                .clientOrderId(entity.getClientOrderId())
+                .accountId(entity.getAccountId())
+                .symbol(entity.getSymbol())
+                .side(OrderDTO.OrderSide.valueOf(entity.getSide().name()))
+                .orderType(OrderDTO.OrderType.valueOf(entity.getOrderType().name()))
+                .quantity(entity.getQuantity())
+                .filledQuantity(entity.getFilledQuantity())
+                .limitPrice(entity.getLimitPrice())
+                .stopPrice(entity.getStopPrice())
+                .timeInForce(OrderDTO.TimeInForce.valueOf(entity.getTimeInForce().name()))
+                .status(OrderDTO.OrderStatus.valueOf(entity.getStatus().name()))
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+}
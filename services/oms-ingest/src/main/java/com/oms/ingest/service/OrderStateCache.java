@@ -0,0 +1,279 @@
+package com.oms.ingest.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read model behind GET /api/v1/orders/{orderId}: the current lifecycle state of recent
+ * orders, kept up to date by {@link OrderStateProjection} from the order topics.
+ *
+ * Bounded by an LRU per stripe. Terminal orders (filled, rejected, canceled, expired) stay
+ * like any other until the LRU drops them, or at the latest once they have been terminal
+ * for the retention (a day by default), so a client polling a finished order keeps
+ * seeing its final status. Entries are
+ * never modified in place: every update replaces the order with a new copy, so readers
+ * can serialize what they got without holding the stripe lock.
+ *
+ * Topics are read in parallel, so a fill may be read before the order it belongs to: fills
+ * of unknown orders are held, bounded per stripe and in time, and applied when the order
+ * arrives rather than lost.
+ *
+ * A miss means "not known here", not "no such order": callers fall back to the database,
+ * whose status {@link OrderStateProjection} keeps up to date from the same changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStateCache {
+
+    private static final int STRIPES = 16;
+
+    private static final Set<OrderStatus> TERMINAL = EnumSet.of(OrderStatus.FILLED, OrderStatus.REJECTED,
+            OrderStatus.CANCELED, OrderStatus.EXPIRED);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${oms.ingest.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${oms.ingest.read-model.max-orders:200000}")
+    private int maxOrders;
+
+    @Value("${oms.ingest.read-model.terminal-retention-ms:86400000}")
+    private long terminalRetentionMs;
+
+    @Value("${oms.ingest.read-model.pending-fill-ms:60000}")
+    private long pendingFillMs;
+
+    /**
+     * Fills read before their order, summed; guarded by the stripe of the same index.
+     * at is the latest fill's event time, heldAt when the first was read (epoch millis).
+     */
+    private record PendingFill(BigDecimal quantity, Instant at, long heldAt) {
+    }
+
+    private LinkedHashMap<UUID, OrderDTO>[] stripes;
+    private LinkedHashMap<UUID, PendingFill>[] pendingFills;
+    private Counter hits;
+    private Counter misses;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        int perStripe = Math.max(1, maxOrders / STRIPES);
+        stripes = new LinkedHashMap[STRIPES];
+        pendingFills = new LinkedHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, OrderDTO> eldest) {
+                    return size() > perStripe;
+                }
+            };
+            pendingFills[i] = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, PendingFill> eldest) {
+                    return size() > perStripe;
+                }
+            };
+        }
+        hits = Counter.builder("oms.ingest.read_model.lookups").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("oms.ingest.read_model.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("oms.ingest.read_model.orders", this, cache -> cache.size()).register(meterRegistry);
+    }
+
+    public Optional<OrderDTO> get(UUID orderId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        OrderDTO order;
+        LinkedHashMap<UUID, OrderDTO> stripe = stripe(orderId);
+        synchronized (stripe) {
+            order = stripe.get(orderId);
+        }
+        (order != null ? hits : misses).increment();
+        return Optional.ofNullable(order);
+    }
+
+    /**
+     * Records the order as published with the given status; an order already known keeps
+     * its fills and only moves forward. A new order takes the fills held for it.
+     *
+     * @return the order's new state, or null when it did not change
+     */
+    public OrderDTO update(OrderDTO order, OrderStatus status, Instant at) {
+        LinkedHashMap<UUID, OrderDTO> stripe = stripe(order.getOrderId());
+        synchronized (stripe) {
+            OrderDTO current = stripe.get(order.getOrderId());
+            if (current == null) {
+                OrderDTO created = copy(order);
+                created.setStatus(status);
+                created.setUpdatedAt(at);
+                PendingFill pending = pendingFills[index(order.getOrderId())].remove(order.getOrderId());
+                if (pending != null && !TERMINAL.contains(status)) {
+                    created = withFill(created, pending.quantity(), pending.at().isAfter(at) ? pending.at() : at);
+                }
+                stripe.put(order.getOrderId(), created);
+                return created;
+            } else if (advances(current.getStatus(), status)) {
+                OrderDTO next = copy(current);
+                next.setStatus(status);
+                next.setUpdatedAt(at);
+                stripe.put(order.getOrderId(), next);
+                return next;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Adds an execution to a known order. A fill of an order not in the cache is held for
+     * pending-fill-ms in case the order is read next.
+     *
+     * @return the order's new state, or null when it did not change
+     */
+    public OrderDTO fill(UUID orderId, BigDecimal quantity, Instant at) {
+        LinkedHashMap<UUID, OrderDTO> stripe = stripe(orderId);
+        synchronized (stripe) {
+            OrderDTO current = stripe.get(orderId);
+            if (current == null) {
+                pendingFills[index(orderId)].merge(orderId, new PendingFill(quantity, at, System.currentTimeMillis()),
+                        (held, next) -> new PendingFill(held.quantity().add(next.quantity()),
+                                next.at().isAfter(held.at()) ? next.at() : held.at(), held.heldAt()));
+                return null;
+            }
+            if (TERMINAL.contains(current.getStatus())) {
+                return null;
+            }
+            OrderDTO next = withFill(current, quantity, at);
+            stripe.put(orderId, next);
+            return next;
+        }
+    }
+
+    private static OrderDTO withFill(OrderDTO current, BigDecimal quantity, Instant at) {
+        OrderDTO next = copy(current);
+        BigDecimal filled = (current.getFilledQuantity() != null ? current.getFilledQuantity() : BigDecimal.ZERO)
+                .add(quantity);
+        next.setFilledQuantity(filled);
+        next.setStatus(current.getQuantity() != null && filled.compareTo(current.getQuantity()) >= 0
+                ? OrderStatus.FILLED
+                : OrderStatus.PARTIALLY_FILLED);
+        next.setUpdatedAt(at);
+        return next;
+    }
+
+    /**
+     * Drops orders that have been terminal for longer than the retention, and held fills
+     * whose order has not arrived within pending-fill-ms.
+     */
+    public void evictTerminal() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant cutoff = now.minusMillis(terminalRetentionMs);
+        long pendingCutoff = now.toEpochMilli() - pendingFillMs;
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (stripes[i]) {
+                stripes[i].values().removeIf(order -> TERMINAL.contains(order.getStatus())
+                        && order.getUpdatedAt() != null && order.getUpdatedAt().isBefore(cutoff));
+                pendingFills[i].values().removeIf(pending -> pending.heldAt() < pendingCutoff);
+            }
+        }
+    }
+
+    /**
+     * Topics are consumed independently, so a later stage may arrive first: a status only
+     * replaces one of a lower {@link #rank}, and nothing replaces a terminal one.
+     */
+    private static boolean advances(OrderStatus current, OrderStatus next) {
+        if (current == null) {
+            return true;
+        }
+        if (TERMINAL.contains(current)) {
+            return false;
+        }
+        return rank(next) > rank(current);
+    }
+
+    /**
+     * Position of a status in the lifecycle, independent of the enum's declaration order:
+     * <pre>
+     *   NEW &lt; PENDING_VALIDATION &lt; VALIDATED &lt; ROUTING &lt; ROUTED &lt; PARTIALLY_FILLED
+     *     &lt; FILLED, REJECTED, CANCELED, EXPIRED (terminal)
+     * </pre>
+     */
+    static int rank(OrderStatus status) {
+        return switch (status) {
+            case NEW -> 0;
+            case PENDING_VALIDATION -> 1;
+            case VALIDATED -> 2;
+            case ROUTING -> 3;
+            case ROUTED -> 4;
+            case PARTIALLY_FILLED -> 5;
+            case FILLED, REJECTED, CANCELED, EXPIRED -> 6;
+        };
+    }
+
+    private static OrderDTO copy(OrderDTO order) {
+        return OrderDTO.builder()
+                .orderId(order.getOrderId())
+                .clientOrderId(order.getClientOrderId())
+                .accountId(order.getAccountId())
+                .symbol(order.getSymbol())
+                .side(order.getSide())
+                .orderType(order.getOrderType())
+                .quantity(order.getQuantity())
+                .filledQuantity(order.getFilledQuantity())
+                .limitPrice(order.getLimitPrice())
+                .stopPrice(order.getStopPrice())
+                .timeInForce(order.getTimeInForce())
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+
+    private int size() {
+        int size = 0;
+        for (LinkedHashMap<UUID, OrderDTO> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private LinkedHashMap<UUID, OrderDTO> stripe(UUID orderId) {
+        return stripes[index(orderId)];
+    }
+
+    private static int index(UUID orderId) {
+        return Math.floorMod(orderId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,281 @@
+package com.oms.ingest.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.kafka.OrderDeserializer;
+import com.oms.common.kafka.PartitionAssignment;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderStatus;
+import com.oms.ingest.repository.OrderJdbcRepository;
+import com.oms.ingest.repository.OrderJdbcRepository.StatusUpdate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the {@link OrderStateCache} current from orders.inbound (NEW), orders.validated,
+ * orders.rejected and executions.fills.
+ *
+ * Every instance serves reads, so each one reads every partition itself (assigned, no
+ * consumer group, no committed offsets). It starts a warm-up window back in time rather
+ * than at the beginning: older orders are answered from the database. After a failure it
+ * resumes where it stopped, since fills are additive and must be applied once; topics
+ * and partitions created later are picked up by a periodic refresh.
+ *
+ * Status changes are also written back to the orders table after each poll (one
+ * statement per poll, never moving an order back), so lookups the read model cannot
+ * answer get a current status from the database. Changes that fail to store are kept
+ * and written with the next poll.
+ */
+@Service
+@Slf4j
+public class OrderStateProjection {
+
+    private static final String CLIENT_ID = "oms-ingest-read-model";
+
+    /** orders.rejected payload, as the validator publishes it */
+    private record RejectedOrder(OrderDTO order, String rejectionReason) {
+    }
+
+    /** The part of an executions.fills report the read model needs */
+    private record FillReport(UUID orderId, BigDecimal quantity) {
+    }
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final OrderStateCache cache;
+    private final ObjectMapper objectMapper;
+    private final OrderDeserializer orderDeserializer;
+
+    @Value("${oms.ingest.read-model.topics.inbound:orders.inbound}")
+    private String inboundTopic;
+
+    @Value("${oms.ingest.read-model.topics.validated:orders.validated}")
+    private String validatedTopic;
+
+    @Value("${oms.ingest.read-model.topics.rejected:orders.rejected}")
+    private String rejectedTopic;
+
+    @Value("${oms.ingest.read-model.topics.fills:executions.fills}")
+    private String fillsTopic;
+
+    @Value("${oms.ingest.read-model.warmup-ms:300000}")
+    private long warmupMs;
+
+    @Value("${oms.ingest.read-model.eviction-interval-ms:1000}")
+    private long evictionIntervalMs;
+
+    @Value("${oms.ingest.read-model.write-back:true}")
+    private boolean writeBack;
+
+    private final OrderJdbcRepository orderJdbcRepository;
+
+    /** Latest state per order changed since the last successful write-back */
+    private final Map<UUID, OrderDTO> unwritten = new LinkedHashMap<>();
+
+    /** Next offset to project per partition, kept across restarts of the feed */
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread feedThread;
+
+    public OrderStateProjection(ConsumerFactory<String, byte[]> consumerFactory, OrderStateCache cache,
+            OrderJdbcRepository orderJdbcRepository, ObjectMapper objectMapper) {
+        this.consumerFactory = consumerFactory;
+        this.cache = cache;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.orderDeserializer = new OrderDeserializer(objectMapper);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!cache.isEnabled()) {
+            return;
+        }
+        running = true;
+        feedThread = new Thread(this::run, "order-state-projection");
+        feedThread.setDaemon(true);
+        feedThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (feedThread != null) {
+            feedThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void run() {
+        long backoffMs = 100;
+        while (running) {
+            try {
+                consume();
+                backoffMs = 100;
+            } catch (Exception e) {
+                log.error("Order state projection failed, restarting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void consume() {
+        long evictionIntervalNanos = TimeUnit.MILLISECONDS.toNanos(evictionIntervalMs);
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(null, CLIENT_ID, null)) {
+            PartitionAssignment assignment = new PartitionAssignment(consumer,
+                    List.of(inboundTopic, validatedTopic, rejectedTopic, fillsTopic));
+            seek(consumer, assignment.assign(), true);
+            log.info("Order state projection reading {} partitions from {} ms back", assignment.partitions().size(),
+                    warmupMs);
+
+            long lastEviction = System.nanoTime();
+            while (running) {
+                seek(consumer, assignment.refresh(), false);
+
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                for (TopicPartition tp : records.partitions()) {
+                    for (ConsumerRecord<String, byte[]> record : records.records(tp)) {
+                        project(record);
+                        positions.put(tp, record.offset() + 1);
+                    }
+                }
+                writeBack();
+
+                long now = System.nanoTime();
+                if (now - lastEviction >= evictionIntervalNanos) {
+                    cache.evictTerminal();
+                    lastEviction = now;
+                }
+            }
+        }
+    }
+
+    /**
+     * Positions newly assigned partitions: where an earlier run of the feed left off, so a
+     * restart applies no event twice; otherwise at the warm-up window for the first
+     * assignment, or at the beginning for partitions created since.
+     */
+    private void seek(Consumer<String, byte[]> consumer, List<TopicPartition> partitions, boolean warmup) {
+        List<TopicPartition> unread = new ArrayList<>();
+        for (TopicPartition tp : partitions) {
+            Long position = positions.get(tp);
+            if (position != null) {
+                consumer.seek(tp, position);
+            } else {
+                unread.add(tp);
+            }
+        }
+        if (unread.isEmpty()) {
+            return;
+        }
+        if (warmup) {
+            seekToWarmup(consumer, unread);
+        } else {
+            consumer.seekToBeginning(unread);
+        }
+    }
+
+    /**
+     * Positions every partition at its first record of the warm-up window, or at its end
+     * when it has none.
+     */
+    private void seekToWarmup(Consumer<String, byte[]> consumer, List<TopicPartition> partitions) {
+        long since = System.currentTimeMillis() - warmupMs;
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        partitions.forEach(tp -> timestamps.put(tp, since));
+        Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(timestamps);
+
+        List<TopicPartition> atEnd = new ArrayList<>();
+        for (TopicPartition tp : partitions) {
+            OffsetAndTimestamp offset = offsets.get(tp);
+            if (offset != null) {
+                consumer.seek(tp, offset.offset());
+            } else {
+                atEnd.add(tp);
+            }
+        }
+        consumer.seekToEnd(atEnd);
+    }
+
+    private void project(ConsumerRecord<String, byte[]> record) {
+        try {
+            String topic = record.topic();
+            Instant at = Instant.ofEpochMilli(record.timestamp());
+            if (topic.equals(fillsTopic)) {
+                FillReport fill = objectMapper.readValue(record.value(), FillReport.class);
+                if (fill.orderId() != null && fill.quantity() != null) {
+                    changed(cache.fill(fill.orderId(), fill.quantity(), at));
+                }
+            } else if (topic.equals(rejectedTopic)) {
+                RejectedOrder rejected = objectMapper.readValue(record.value(), RejectedOrder.class);
+                update(rejected.order(), OrderStatus.REJECTED, at);
+            } else {
+                OrderDTO order = orderDeserializer.deserialize(topic, record.headers(), record.value());
+                update(order, topic.equals(inboundTopic) ? OrderStatus.NEW : OrderStatus.VALIDATED, at);
+            }
+        } catch (Exception e) {
+            log.warn("Skipping unreadable order event {}-{}@{}: {}", record.topic(), record.partition(),
+                    record.offset(), e.getMessage());
+        }
+    }
+
+    private void update(OrderDTO order, OrderStatus status, Instant at) {
+        if (order != null && order.getOrderId() != null) {
+            changed(cache.update(order, status, at));
+        }
+    }
+
+    private void changed(OrderDTO order) {
+        // NEW is the status the order was stored with
+        if (writeBack && order != null && order.getStatus() != OrderStatus.NEW) {
+            unwritten.put(order.getOrderId(), order);
+        }
+    }
+
+    private void writeBack() {
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        List<StatusUpdate> updates = new ArrayList<>(unwritten.size());
+        for (OrderDTO order : unwritten.values()) {
+            updates.add(new StatusUpdate(order.getOrderId(), order.getStatus().name(),
+                    OrderStateCache.rank(order.getStatus()),
+                    order.getFilledQuantity() != null ? order.getFilledQuantity() : BigDecimal.ZERO));
+        }
+        try {
+            orderJdbcRepository.updateStatuses(updates);
+            unwritten.clear();
+        } catch (Exception e) {
+            log.warn("Failed to store {} order statuses, retrying after the next poll: {}", updates.size(),
+                    e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.oms.ingest.service;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.common.throttle.OrderRateLimiter;
+import com.oms.common.throttle.OrderRateLimiter.Breach;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-account and per-symbol order-rate and notional velocity limits at the ingest edge,
+ * applied before an order is persisted so a runaway client cannot flood orders.inbound.
+ * Notional uses the limit or stop price; market orders only count towards order rates.
+ * Counting is lock-free and allocation-free; only a rejection builds its message.
+ */
+@Service
+public class OrderThrottle {
+
+    private final OrderRateLimiter limiter;
+    private final Counter[] throttled;
+
+    public OrderThrottle(MeterRegistry meterRegistry,
+            @Value("${oms.ingest.throttle.account-orders:0}") long accountOrders,
+            @Value("${oms.ingest.throttle.account-notional:0}") long accountNotional,
+            @Value("${oms.ingest.throttle.symbol-orders:0}") long symbolOrders,
+            @Value("${oms.ingest.throttle.symbol-notional:0}") long symbolNotional,
+            @Value("${oms.ingest.throttle.window-ms:1000}") long windowMs,
+            @Value("${oms.ingest.throttle.buckets:10}") int buckets,
+            @Value("${oms.ingest.throttle.stripes:4096}") int stripes) {
+        this.limiter = new OrderRateLimiter(new OrderRateLimiter.Limits(accountOrders, accountNotional,
+                symbolOrders, symbolNotional, windowMs, buckets, stripes));
+        this.throttled = new Counter[Breach.values().length];
+        for (Breach breach : Breach.values()) {
+            throttled[breach.ordinal()] = Counter.builder("oms.ingest.orders.throttled")
+                    .tag("limit", breach.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Counts the order against its limits.
+     *
+     * @throws OrderThrottledException when a limit is exceeded
+     */
+    public void check(OrderDTO order) {
+        if (!limiter.isEnabled()) {
+            return;
+        }
+        Breach breach = limiter.acquire(order.getAccountId(), order.getSymbol(), notional(order));
+        if (breach != Breach.NONE) {
+            throttled[breach.ordinal()].increment();
+            throw new OrderThrottledException(breach, breach.description() + " ("
+                    + limiter.limit(breach) + (breach.isNotional() ? " notional" : " orders") + " per window)");
+        }
+    }
+
+    private static double notional(OrderDTO order) {
+        BigDecimal price = order.getLimitPrice() != null ? order.getLimitPrice() : order.getStopPrice();
+        if (price == null || order.getQuantity() == null) {
+            return 0;
+        }
+        return order.getQuantity().doubleValue() * price.doubleValue();
+    }
+}
@@ -0,0 +1,20 @@
+package com.oms.ingest.service;
+
+import com.oms.common.throttle.OrderRateLimiter.Breach;
+
+/**
+ * An order rejected by an account or symbol velocity limit; the client may retry later.
+ */
+public class OrderThrottledException extends RuntimeException {
+
+    private final transient Breach breach;
+
+    public OrderThrottledException(Breach breach, String message) {
+        super(message, null, false, false);
+        this.breach = breach;
+    }
+
+    public Breach getBreach() {
+        return breach;
+    }
+}
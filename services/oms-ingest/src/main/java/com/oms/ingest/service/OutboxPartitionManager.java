@@ -0,0 +1,207 @@
+package com.oms.ingest.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the daily range partitions of outbox_events (migration V8).
+ *
+ * Creates partitions days-ahead of time, detaches and drops partitions past the retention
+ * window once they hold no unpublished rows, and tracks the start of the oldest active
+ * day so that claim queries can prune every fully published partition. Each step, and
+ * each partition, fails on its own: one that cannot be created does not stop the rest.
+ *
+ * When maintenance has been down for longer than days-ahead, rows of a day without a
+ * partition land in outbox_events_default, and that day's partition can no longer simply
+ * be created. Its rows are then moved out in one transaction: detach the default
+ * partition, create the day's, move the rows, re-attach the default. The move is an insert,
+ * so in replication mode those rows are streamed, and published, again (at-least-once).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPartitionManager {
+
+    private static final String PARTITION_PREFIX = "outbox_events_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String DEFAULT_PARTITION = "outbox_events_default";
+    private static final String COLUMNS = "id, aggregate_type, aggregate_id, event_type, payload, topic, kafka_key, "
+            + "published, created_at, published_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${oms.ingest.outbox-partitions.days-ahead:3}")
+    private int daysAhead;
+
+    @Value("${oms.ingest.outbox-partitions.retention-days:2}")
+    private int retentionDays;
+
+    @Value("${oms.ingest.outbox-publisher.mode:notify}")
+    private String publisherMode;
+
+    // Claims never look before this; starts open until the first maintenance run
+    private volatile Instant activeFrom = Instant.EPOCH;
+
+    /**
+     * Lower bound on created_at for claim queries: the start of the oldest day that may
+     * still hold unpublished rows, and never later than the start of yesterday (UTC),
+     * so a transaction committing just after midnight is never missed.
+     */
+    public Instant activeFrom() {
+        return activeFrom;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${oms.ingest.outbox-partitions.maintenance-interval-ms:600000}")
+    public void maintain() {
+        createAhead();
+        try {
+            dropExpired();
+        } catch (Exception e) {
+            log.error("Outbox partition retention failed", e);
+        }
+        try {
+            refreshActiveFrom();
+        } catch (Exception e) {
+            log.error("Failed to refresh the active outbox partitions", e);
+        }
+    }
+
+    private void createAhead() {
+        List<String> existing;
+        try {
+            existing = listPartitions();
+        } catch (Exception e) {
+            log.error("Failed to list outbox partitions", e);
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            if (existing.contains(partitionName(day))) {
+                continue;
+            }
+            try {
+                createPartition(day);
+            } catch (Exception e) {
+                log.error("Failed to create outbox partition {}", partitionName(day), e);
+            }
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        String partition = partitionName(day);
+        String from = day + " 00:00:00+00";
+        String to = day.plusDays(1) + " 00:00:00+00";
+        String create = "CREATE TABLE IF NOT EXISTS " + partition
+                + " PARTITION OF outbox_events FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        String inRange = " WHERE created_at >= '" + from + "' AND created_at < '" + to + "'";
+
+        Boolean stray = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + inRange + ")", Boolean.class);
+        if (!Boolean.TRUE.equals(stray)) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+
+        // The new partition's range would overlap rows already in the default partition
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("ALTER TABLE outbox_events DETACH PARTITION " + DEFAULT_PARTITION);
+            jdbcTemplate.execute(create);
+            int rows = jdbcTemplate.update("INSERT INTO " + partition + " (" + COLUMNS + ") SELECT " + COLUMNS
+                    + " FROM " + DEFAULT_PARTITION + inRange);
+            jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + inRange);
+            jdbcTemplate.execute("ALTER TABLE outbox_events ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            return rows;
+        });
+        log.warn("Created outbox partition {} and moved {} rows into it from {}", partition, moved,
+                DEFAULT_PARTITION);
+    }
+
+    /**
+     * Partitions older than the retention window are removed whole: DETACH then DROP,
+     * which avoids DELETE bloat. In notify mode a partition is only dropped once every row
+     * is published; in replication mode the published flag is never set, so the window
+     * itself must exceed the replication lag.
+     */
+    private void dropExpired() {
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+        boolean checkPublished = !"replication".equalsIgnoreCase(publisherMode);
+
+        for (String partition : listPartitions()) {
+            LocalDate day = partitionDay(partition);
+            if (day == null || !day.isBefore(cutoff)) {
+                continue;
+            }
+            if (checkPublished && hasUnpublished(partition)) {
+                log.warn("Outbox partition {} is past retention but still has unpublished events", partition);
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE outbox_events DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            Counter.builder("oms.ingest.outbox.partitions.dropped")
+                    .register(meterRegistry)
+                    .increment();
+            log.info("Dropped outbox partition {}", partition);
+        }
+    }
+
+    private void refreshActiveFrom() {
+        LocalDate oldest = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        for (String partition : listPartitions()) {
+            LocalDate day = partitionDay(partition);
+            if (day != null && day.isBefore(oldest) && hasUnpublished(partition)) {
+                oldest = day;
+            }
+        }
+        if (hasUnpublished(DEFAULT_PARTITION)) {
+            // Stray rows outside the daily ranges: fall back to scanning everything
+            activeFrom = Instant.EPOCH;
+            return;
+        }
+        activeFrom = oldest.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'outbox_events' AND c.relname LIKE 'outbox\\_events\\_p%'
+                ORDER BY c.relname
+                """, String.class);
+    }
+
+    private boolean hasUnpublished(String partition) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE published = false)", Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    private static LocalDate partitionDay(String partition) {
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
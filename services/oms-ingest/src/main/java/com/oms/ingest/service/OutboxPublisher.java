@@ -3,11 +3,22 @@ package com.oms.ingest.service;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
 
 import javax.sql.DataSource;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.postgresql.PGConnection;
 import org.postgresql.PGNotification;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,20 +26,28 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.oms.ingest.model.OutboxEvent;
+import com.oms.ingest.repository.OrderJdbcRepository;
 import com.oms.ingest.repository.OutboxRepository;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Outbox Publisher - publishes unpublished events to Kafka.
  * Uses PostgreSQL LISTEN/NOTIFY for low-latency event detection.
+ * In pipelined mode a claimed batch costs one broker round trip and one UPDATE
+ * instead of one of each per event.
+ * Events are sharded by hash(aggregate_id) over oms.ingest.outbox-publisher.shards
+ * workers: one aggregate always maps to one worker, so its events stay in order while
+ * different shards publish concurrently.
  */
 @Service
 @RequiredArgsConstructor
@@ -36,9 +55,13 @@ import lombok.extern.slf4j.Slf4j;
 public class OutboxPublisher {
 
     private final OutboxRepository outboxRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final OutboxRecordEncoder outboxRecordEncoder;
     private final DataSource dataSource;
     private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final OutboxPartitionManager outboxPartitionManager;
 
     @Value("${oms.ingest.outbox-publisher.enabled:true}")
     private boolean enabled;
@@ -46,111 +69,379 @@ public class OutboxPublisher {
     @Value("${oms.ingest.outbox-publisher.batch-size:100}")
     private int batchSize;
 
+    @Value("${oms.ingest.outbox-publisher.pipelined:false}")
+    private boolean pipelined;
+
+    @Value("${oms.ingest.outbox-publisher.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${oms.ingest.outbox-publisher.mode:notify}")
+    private String mode;
+
+    @Value("${oms.ingest.outbox-publisher.shards:1}")
+    private int shards;
+
+    @Value("${oms.ingest.outbox-publisher.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    @Value("${oms.ingest.outbox-publisher.coalesce-micros:200}")
+    private long coalesceMicros;
+
+    // Queued in a worker's notified-id queue to request a full shard scan
+    private static final long SCAN = -1L;
+
+    private final List<BlockingQueue<Long>> notifiedIds = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private AtomicLongArray shardLagMs;
+    private Thread listenerThread;
+
     @EventListener(ApplicationReadyEvent.class)
     public void startListening() {
         if (!enabled) {
             log.info("Outbox publisher is disabled");
             return;
         }
+        if ("replication".equalsIgnoreCase(mode)) {
+            log.info("Outbox publisher in replication mode; LISTEN/NOTIFY claim workers not started");
+            return;
+        }
+
+        shardLagMs = new AtomicLongArray(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            int s = shard;
+            Gauge.builder("oms.ingest.outbox.shard.lag", shardLagMs, lags -> lags.get(s))
+                    .description("Age in ms of the oldest event in the last claim of this shard")
+                    .baseUnit("milliseconds")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
 
-        // Start PostgreSQL LISTEN thread
-        Thread listenerThread = new Thread(this::listenForNotifications, "outbox-listener");
+            BlockingQueue<Long> ids = new LinkedBlockingQueue<>();
+            notifiedIds.add(ids);
+            Thread worker = new Thread(() -> runWorker(s, ids), "outbox-publisher-" + shard);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Outbox publisher started with {} shard worker(s), poll interval {} ms", shards, pollIntervalMs);
+
+        listenerThread = new Thread(this::listenForNotifications, "outbox-listener");
         listenerThread.setDaemon(true);
         listenerThread.start();
 
         // Initial poll for any missed events
-        publishPendingEvents();
+        requestScan();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        workers.forEach(Thread::interrupt);
     }
 
+    /**
+     * Routes notified outbox ids to their shard worker. Payloads are "id,hash" where hash is
+     * the aggregate's shard hash (V9); a bare id, or anything unparsable, requests a scan.
+     * Reconnects with exponential backoff, rescanning after each reconnect because
+     * notifications sent while disconnected are lost.
+     */
     private void listenForNotifications() {
-        try (Connection conn = dataSource.getConnection()) {
-            PGConnection pgConn = conn.unwrap(PGConnection.class);
+        long backoffMs = 100;
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection conn = dataSource.getConnection()) {
+                PGConnection pgConn = conn.unwrap(PGConnection.class);
 
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute("LISTEN outbox_channel");
-                log.info("Listening for outbox notifications on channel: outbox_channel");
-            }
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN outbox_channel");
+                    log.info("Listening for outbox notifications on channel: outbox_channel");
+                }
+                backoffMs = 100;
+                requestScan();
 
-            while (!Thread.interrupted()) {
-                // Check for notifications (500ms timeout)
-                PGNotification[] notifications = pgConn.getNotifications(500);
+                while (!Thread.currentThread().isInterrupted()) {
+                    // Check for notifications (500ms timeout)
+                    PGNotification[] notifications = pgConn.getNotifications(500);
 
-                if (notifications != null && notifications.length > 0) {
-                    log.debug("Received {} outbox notifications", notifications.length);
-                    publishPendingEvents();
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("Received {} outbox notifications", notifications.length);
+                        for (PGNotification notification : notifications) {
+                            route(notification.getParameter());
+                        }
+                    }
                 }
+
+            } catch (Exception e) {
+                log.error("Error in LISTEN thread, reconnecting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
             }
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error in LISTEN thread", e);
-            // Re-start listening after delay
+    private void route(String payload) {
+        int comma = payload != null ? payload.indexOf(',') : -1;
+        try {
+            if (comma > 0) {
+                long id = Long.parseLong(payload, 0, comma, 10);
+                int hash = Integer.parseInt(payload, comma + 1, payload.length(), 10);
+                notifiedIds.get(hash % shards).offer(id);
+                return;
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Unrecognised outbox notification payload: {}", payload);
+        }
+        requestScan();
+    }
+
+    private void requestScan() {
+        notifiedIds.forEach(ids -> ids.offer(SCAN));
+    }
+
+    /**
+     * Waits for notified ids, coalesces a burst for up to coalesce-micros (or a full batch),
+     * then claims exactly those rows. Every poll-interval-ms, whether or not notifications
+     * keep arriving, it also runs a safety scan of the shard, which picks up rows the direct
+     * claim left behind (behind an older event of their aggregate) and failed sends.
+     */
+    private void runWorker(int shard, BlockingQueue<Long> ids) {
+        List<Long> batch = new ArrayList<>(batchSize);
+        long scanIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs);
+        long lastScan = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
             try {
-                Thread.sleep(5000);
-                startListening();
-            } catch (InterruptedException ie) {
+                long untilScan = lastScan + scanIntervalNanos - System.nanoTime();
+                Long first = untilScan > 0 ? ids.poll(untilScan, TimeUnit.NANOSECONDS) : null;
+                if (first == null) {
+                    drainShard(shard, false);
+                    lastScan = System.nanoTime();
+                    continue;
+                }
+
+                boolean scan = first == SCAN;
+                if (!scan) {
+                    batch.add(first);
+                }
+                long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(coalesceMicros);
+                while (batch.size() < batchSize) {
+                    Long next = ids.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0 || (next = ids.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                            break;
+                        }
+                    }
+                    if (next == SCAN) {
+                        scan = true;
+                    } else {
+                        batch.add(next);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    List<Long> claimIds = List.copyOf(batch);
+                    publishClaimed(shard, activeFrom -> outboxRepository.claimNotifiedEvents(activeFrom,
+                            claimIds.toArray(Long[]::new)));
+                }
+                if (scan) {
+                    drainShard(shard, true);
+                    lastScan = System.nanoTime();
+                } else if (System.nanoTime() - lastScan >= scanIntervalNanos) {
+                    drainShard(shard, false);
+                    lastScan = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Outbox publisher worker {} failed", shard, e);
+            } finally {
+                batch.clear();
             }
         }
     }
 
-    @Transactional
-    public void publishPendingEvents() {
-        Timer claimTimer = meterRegistry.timer("oms.ingest.outbox.claim.latency");
-        Timer publishTimer = meterRegistry.timer("oms.ingest.outbox.publish.latency");
-
-        long claimStart = System.nanoTime();
-        List<OutboxEvent> events = outboxRepository.claimUnpublishedEvents(batchSize);
-        long claimDuration = System.nanoTime() - claimStart;
-        claimTimer.record(claimDuration, TimeUnit.NANOSECONDS);
+    private void drainShard(int shard, boolean countContention) {
+        // Keep claiming while full batches come back and publish cleanly; a batch with failed
+        // sends ends the drain, so failing events are retried at the next scan, not in a loop
+        ClaimedBatch batch;
+        do {
+            batch = claimPending(shard, countContention);
+        } while (batch.claimed() >= batchSize && batch.published() == batch.claimed());
+    }
 
-        if (events.isEmpty()) {
-            long remaining = outboxRepository.countUnpublished();
-            if (remaining > 0) {
+    private ClaimedBatch claimPending(int shard, boolean countContention) {
+        return publishClaimed(shard, activeFrom -> {
+            List<OutboxEvent> events = shards > 1
+                    ? outboxRepository.claimUnpublishedEvents(activeFrom, shard, shards, batchSize)
+                    : outboxRepository.claimUnpublishedEvents(activeFrom, batchSize);
+            if (events.isEmpty() && countContention && outboxRepository.countUnpublished() > 0) {
                 Counter.builder("oms.ingest.outbox.lock_contention")
                         .description("Number of times claiming was skipped due to lock contention")
                         .register(meterRegistry)
                         .increment();
             }
-            return;
+            return events;
+        });
+    }
+
+    /** Events claimed by one transaction, and how many of them were published */
+    private record ClaimedBatch(int claimed, int published) {
+        static final ClaimedBatch EMPTY = new ClaimedBatch(0, 0);
+    }
+
+    /**
+     * Runs a claim and publishes what it returns, in one transaction.
+     * A transaction-scoped advisory lock makes each shard single-writer across ingest
+     * instances, so events of one aggregate are never published by two claimers at once.
+     */
+    private ClaimedBatch publishClaimed(int shard, Function<Instant, List<OutboxEvent>> claim) {
+        // Claimed rows stay locked (FOR UPDATE SKIP LOCKED) until this transaction ends
+        ClaimedBatch batch = transactionTemplate.execute(status -> {
+            if (!outboxRepository.tryLockShard(shard)) {
+                return ClaimedBatch.EMPTY;
+            }
+
+            Timer claimTimer = meterRegistry.timer("oms.ingest.outbox.claim.latency");
+
+            long claimStart = System.nanoTime();
+            List<OutboxEvent> events = claim.apply(outboxPartitionManager.activeFrom());
+            long claimDuration = System.nanoTime() - claimStart;
+            claimTimer.record(claimDuration, TimeUnit.NANOSECONDS);
+
+            if (events.isEmpty()) {
+                shardLagMs.set(shard, 0);
+                return ClaimedBatch.EMPTY;
+            }
+
+            shardLagMs.set(shard, Math.max(0,
+                    System.currentTimeMillis() - events.get(0).getCreatedAt().toEpochMilli()));
+            log.debug("Claimed and publishing {} outbox events from shard {}", events.size(), shard);
+
+            int published = pipelined ? publishPipelined(events) : publishSequential(events);
+            return new ClaimedBatch(events.size(), published);
+        });
+        return batch != null ? batch : ClaimedBatch.EMPTY;
+    }
+
+    /**
+     * Sends every claimed event without waiting, awaits the acks together, then marks the
+     * successful ids published in one UPDATE. Sends are issued in claim order, so the
+     * idempotent producer keeps events with the same key in order on their partition.
+     * Once an event fails, later events with the same key are left unpublished as well:
+     * they are re-sent after it on retry, so the latest event per key is always last.
+     *
+     * @return the number of events marked published
+     */
+    private int publishPipelined(List<OutboxEvent> events) {
+        Timer publishTimer = meterRegistry.timer("oms.ingest.outbox.publish.latency");
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        long start = System.nanoTime();
+        for (OutboxEvent event : events) {
+            CompletableFuture<?> send;
+            try {
+                send = kafkaTemplate.send(toRecord(event))
+                        .whenComplete((result, ex) -> publishTimer.record(System.nanoTime() - start,
+                                TimeUnit.NANOSECONDS));
+            } catch (Exception e) {
+                send = CompletableFuture.failedFuture(e);
+            }
+            sends.add(send);
         }
 
-        log.debug("Claimed and publishing {} outbox events", events.size());
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Individual outcomes are inspected below; timed-out sends count as failed
+        }
+
+        List<Long> publishedIds = new ArrayList<>(events.size());
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            CompletableFuture<?> send = sends.get(i);
+            String key = kafkaKey(event);
+            boolean sent = send.isDone() && !send.isCompletedExceptionally();
+
+            if (sent && (key == null || !failedKeys.contains(key))) {
+                publishedIds.add(event.getId());
+                countPublished(event);
+                continue;
+            }
+            if (key != null) {
+                failedKeys.add(key);
+            }
+            if (!sent) {
+                log.error("Failed to publish event {}: {}", event.getId(), failureMessage(send));
+                countFailed(event);
+            }
+        }
+
+        orderJdbcRepository.markOutboxEventsPublished(publishedIds, events.get(0).getCreatedAt(), Instant.now());
+        log.debug("Published {} of {} outbox events", publishedIds.size(), events.size());
+        return publishedIds.size();
+    }
+
+    private int publishSequential(List<OutboxEvent> events) {
+        Timer publishTimer = meterRegistry.timer("oms.ingest.outbox.publish.latency");
+        int published = 0;
 
         for (OutboxEvent event : events) {
             try {
                 long start = System.nanoTime();
-                kafkaTemplate.send(
-                        event.getTopic(),
-                        event.getKafkaKey() != null ? event.getKafkaKey().toString() : null,
-                        event.getPayload()).get();
+                kafkaTemplate.send(toRecord(event)).get();
                 long duration = System.nanoTime() - start;
                 publishTimer.record(duration, TimeUnit.NANOSECONDS);
 
                 outboxRepository.markAsPublished(event.getId(), Instant.now());
                 log.debug("Published event {} to topic {}", event.getId(), event.getTopic());
-
-                Counter.builder("oms.ingest.outbox.published")
-                        .tag("topic", event.getTopic())
-                        .register(meterRegistry)
-                        .increment();
-
-                if (events.size() < batchSize && outboxRepository.countUnpublished() > 0) {
-                    Counter.builder("oms.ingest.outbox.lock_contention")
-                            .description("Partial batch due to locked rows")
-                            .register(meterRegistry)
-                            .increment();
-                }
+                countPublished(event);
+                published++;
 
             } catch (Exception e) {
                 log.error("Failed to publish event {}: {}", event.getId(), e.getMessage());
-
-                Counter.builder("oms.ingest.outbox.failed")
-                        .tag("topic", event.getTopic())
-                        .register(meterRegistry)
-                        .increment();
+                countFailed(event);
 
                 // continue; the row remains unpublished and will be retried later
             }
         }
+        return published;
+    }
+
+    private void countPublished(OutboxEvent event) {
+        Counter.builder("oms.ingest.outbox.published")
+                .tag("topic", event.getTopic())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void countFailed(OutboxEvent event) {
+        Counter.builder("oms.ingest.outbox.failed")
+                .tag("topic", event.getTopic())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        return outboxRecordEncoder.toRecord(event.getTopic(), kafkaKey(event), event.getPayload());
+    }
+
+    private static String kafkaKey(OutboxEvent event) {
+        return event.getKafkaKey() != null ? event.getKafkaKey().toString() : null;
+    }
+
+    private static String failureMessage(CompletableFuture<?> send) {
+        if (!send.isDone()) {
+            return "send timed out";
+        }
+        Throwable failure = send.exceptionNow();
+        return failure.getCause() != null ? failure.getCause().getMessage() : failure.getMessage();
     }
 }
@@ -0,0 +1,63 @@
+package com.oms.ingest.service;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.stereotype.Component;
+
+import com.oms.common.kafka.KafkaTopics;
+import com.oms.common.kafka.OrderBinaryCodec;
+import com.oms.common.kafka.OrderSerializer;
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.common.model.OrderDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Turns an outbox row into the Kafka record the publishers send.
+ *
+ * The outbox keeps its jsonb payload; with oms.ingest.outbox-publisher.wire-format=binary
+ * orders.inbound payloads are transcoded to {@link OrderBinaryCodec} on the way out by the
+ * shared {@link OrderSerializer}. Every record carries the content-type header. A payload
+ * that cannot be transcoded is sent as JSON rather than blocking the outbox; consumers
+ * accept both.
+ */
+@Component
+@Slf4j
+public class OutboxRecordEncoder {
+
+    private final ObjectMapper objectMapper;
+    private final OrderSerializer orderSerializer;
+    private final Counter transcodeFailures;
+
+    public OutboxRecordEncoder(ObjectMapper objectMapper, OrderSerializer orderSerializer,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.orderSerializer = orderSerializer;
+        this.transcodeFailures = Counter.builder("oms.ingest.outbox.transcode_failed").register(meterRegistry);
+    }
+
+    public ProducerRecord<String, byte[]> toRecord(String topic, String key, String payload) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] value = null;
+        if (orderSerializer.format() == OrderWireFormat.BINARY && KafkaTopics.ORDERS_INBOUND.equals(topic)
+                && payload != null) {
+            try {
+                value = orderSerializer.serialize(topic, headers, objectMapper.readValue(payload, OrderDTO.class));
+            } catch (Exception e) {
+                transcodeFailures.increment();
+                log.warn("Publishing {} record {} as JSON, binary encoding failed: {}", topic, key, e.getMessage());
+            }
+        }
+        if (value == null) {
+            // The jsonb payload is already the JSON encoding
+            OrderWireFormat.JSON.mark(headers);
+            value = payload != null ? payload.getBytes(StandardCharsets.UTF_8) : null;
+        }
+        return new ProducerRecord<>(topic, null, key, value, headers);
+    }
+}
@@ -0,0 +1,338 @@
+package com.oms.ingest.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Change-data-capture outbox publisher (oms.ingest.outbox-publisher.mode=replication).
+ *
+ * Streams outbox_events inserts from a logical replication slot (pgoutput) and publishes
+ * them to Kafka in commit order. A transaction's LSN is confirmed to the slot only after
+ * Kafka has acked all of its events and those of every earlier transaction, so after a
+ * restart or reconnect the slot replays from the last fully published commit
+ * (at-least-once). Nothing is claimed, polled or updated: the outbox becomes insert-only
+ * and the published flag is left untouched.
+ *
+ * Requires wal_level=logical and a role with REPLICATION; the publication is created by
+ * migration V7 and the slot is created on first start. In this mode the service's own
+ * inserts skip the NOTIFY trigger (V10), since nothing listens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxReplicationPublisher {
+
+    private static final String OUTBOX_TABLE = "outbox_events";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final OutboxRecordEncoder outboxRecordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${oms.ingest.outbox-publisher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${oms.ingest.outbox-publisher.mode:notify}")
+    private String mode;
+
+    @Value("${oms.ingest.outbox-publisher.replication.slot-name:oms_outbox}")
+    private String slotName;
+
+    @Value("${oms.ingest.outbox-publisher.replication.publication:oms_outbox}")
+    private String publication;
+
+    @Value("${oms.ingest.outbox-publisher.replication.status-interval-ms:1000}")
+    private long statusIntervalMs;
+
+    @Value("${oms.ingest.outbox-publisher.replication.idle-wait-micros:500}")
+    private long idleWaitMicros;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    // Commits sent to Kafka but not yet confirmed to the slot, in commit order (stream thread only)
+    private final ArrayDeque<PendingCommit> pending = new ArrayDeque<>();
+    private final Map<Integer, Relation> relations = new HashMap<>();
+    private List<OutboxRow> transaction = new ArrayList<>();
+    private volatile boolean running;
+    private StreamFailure streamFailure;
+    private Thread streamThread;
+
+    /**
+     * First send failure of one stream; each stream has its own, so late callbacks of an
+     * earlier stream's sends cannot fail the current one.
+     */
+    private static final class StreamFailure {
+        volatile Throwable cause;
+    }
+
+    private record Relation(String name, String[] columns) {
+    }
+
+    private record OutboxRow(String topic, String kafkaKey, String payload) {
+    }
+
+    private record PendingCommit(LogSequenceNumber lsn, CompletableFuture<Void> acks) {
+    }
+
+    public boolean isActive() {
+        return enabled && "replication".equalsIgnoreCase(mode);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isActive()) {
+            return;
+        }
+        running = true;
+        streamThread = new Thread(this::run, "outbox-replication");
+        streamThread.setDaemon(true);
+        streamThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (streamThread != null) {
+            streamThread.interrupt();
+        }
+    }
+
+    private void run() {
+        long backoffMs = 100;
+        while (running) {
+            try {
+                ensureSlot();
+                stream();
+                backoffMs = 100;
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Outbox replication stream failed, reconnecting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void ensureSlot() throws SQLException {
+        Integer slots = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_replication_slots WHERE slot_name = ?", Integer.class, slotName);
+        if (slots != null && slots > 0) {
+            return;
+        }
+        try (Connection conn = openReplicationConnection()) {
+            conn.unwrap(PGConnection.class).getReplicationAPI()
+                    .createReplicationSlot()
+                    .logical()
+                    .withSlotName(slotName)
+                    .withOutputPlugin("pgoutput")
+                    .make();
+            log.info("Created logical replication slot {}", slotName);
+        }
+    }
+
+    private void stream() throws Exception {
+        pending.clear();
+        relations.clear();
+        transaction = new ArrayList<>();
+        StreamFailure failure = new StreamFailure();
+        streamFailure = failure;
+
+        try (Connection conn = openReplicationConnection();
+                PGReplicationStream stream = conn.unwrap(PGConnection.class).getReplicationAPI()
+                        .replicationStream()
+                        .logical()
+                        .withSlotName(slotName)
+                        .withSlotOption("proto_version", "1")
+                        .withSlotOption("publication_names", publication)
+                        .withStatusInterval((int) statusIntervalMs, TimeUnit.MILLISECONDS)
+                        .start()) {
+            log.info("Streaming outbox inserts from slot {} (publication {})", slotName, publication);
+
+            while (running) {
+                if (failure.cause != null) {
+                    // Unconfirmed commits are replayed from the slot after reconnecting
+                    throw new IllegalStateException("Kafka send failed", failure.cause);
+                }
+                confirmAcked(stream);
+
+                ByteBuffer message = stream.readPending();
+                if (message == null) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleWaitMicros));
+                    continue;
+                }
+                handle(message);
+            }
+        }
+    }
+
+    private Connection openReplicationConnection() throws SQLException {
+        Properties props = new Properties();
+        PGProperty.USER.set(props, username);
+        PGProperty.PASSWORD.set(props, password);
+        PGProperty.REPLICATION.set(props, "database");
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(props, "10");
+        PGProperty.PREFER_QUERY_MODE.set(props, "simple");
+        return DriverManager.getConnection(url, props);
+    }
+
+    private void handle(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case 'B' -> transaction = new ArrayList<>();
+            case 'R' -> readRelation(buffer);
+            case 'I' -> readInsert(buffer);
+            case 'C' -> {
+                buffer.get(); // flags
+                buffer.getLong(); // commit LSN
+                commit(LogSequenceNumber.valueOf(buffer.getLong()));
+            }
+            default -> {
+                // U/D/T (outbox is insert-only), Y (types), O (origin) carry nothing to publish
+            }
+        }
+    }
+
+    private void readRelation(ByteBuffer buffer) {
+        int relationId = buffer.getInt();
+        readString(buffer); // namespace
+        String name = readString(buffer);
+        buffer.get(); // replica identity
+        String[] columns = new String[buffer.getShort()];
+        for (int i = 0; i < columns.length; i++) {
+            buffer.get(); // flags
+            columns[i] = readString(buffer);
+            buffer.getInt(); // type oid
+            buffer.getInt(); // type modifier
+        }
+        relations.put(relationId, new Relation(name, columns));
+    }
+
+    private void readInsert(ByteBuffer buffer) {
+        Relation relation = relations.get(buffer.getInt());
+        buffer.get(); // 'N' (new tuple)
+        int columnCount = buffer.getShort();
+        Map<String, String> values = new HashMap<>(columnCount * 2);
+        for (int i = 0; i < columnCount; i++) {
+            byte kind = buffer.get();
+            if (kind == 't') {
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                values.put(relation.columns()[i], new String(value, StandardCharsets.UTF_8));
+            }
+        }
+        if (relation.name().startsWith(OUTBOX_TABLE)) {
+            transaction.add(new OutboxRow(values.get("topic"), values.get("kafka_key"), values.get("payload")));
+        }
+    }
+
+    /**
+     * Sends a committed transaction's events in order; the commit's end LSN becomes
+     * confirmable once they (and everything before them) are acked.
+     */
+    private void commit(LogSequenceNumber endLsn) {
+        List<OutboxRow> rows = transaction;
+        transaction = new ArrayList<>();
+        StreamFailure failure = streamFailure;
+
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[rows.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < rows.size(); i++) {
+            OutboxRow row = rows.get(i);
+            sends[i] = kafkaTemplate.send(outboxRecordEncoder.toRecord(row.topic(), row.kafkaKey(), row.payload()))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            failure.cause = ex;
+                            Counter.builder("oms.ingest.outbox.failed")
+                                    .tag("topic", row.topic())
+                                    .register(meterRegistry)
+                                    .increment();
+                        } else {
+                            Counter.builder("oms.ingest.outbox.published")
+                                    .tag("topic", row.topic())
+                                    .register(meterRegistry)
+                                    .increment();
+                        }
+                    });
+        }
+
+        CompletableFuture<Void> acks = CompletableFuture.allOf(sends);
+        if (!rows.isEmpty()) {
+            Timer publishTimer = meterRegistry.timer("oms.ingest.outbox.publish.latency");
+            acks.whenComplete((v, ex) -> publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+        pending.addLast(new PendingCommit(endLsn, acks));
+    }
+
+    /**
+     * Advances the slot to the newest commit whose events, and all earlier ones, are acked.
+     */
+    private void confirmAcked(PGReplicationStream stream) {
+        LogSequenceNumber confirmed = null;
+        while (!pending.isEmpty()) {
+            PendingCommit head = pending.peekFirst();
+            if (!head.acks().isDone() || head.acks().isCompletedExceptionally()) {
+                break;
+            }
+            confirmed = pending.pollFirst().lsn();
+        }
+        if (confirmed != null) {
+            stream.setAppliedLSN(confirmed);
+            stream.setFlushedLSN(confirmed);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // scan to the terminating NUL
+        }
+        int length = buffer.position() - start - 1;
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,12 @@
+-- In replication publisher mode nothing LISTENs, so the per-insert NOTIFY is pure cost.
+-- The service tags its connections with its publisher mode (oms.outbox_mode, set by
+-- spring.datasource.hikari.connection-init-sql); the trigger only fires when it is not
+-- 'replication'. Sessions without the setting (tools, other writers) still notify.
+
+DROP TRIGGER IF EXISTS outbox_notify_trigger ON outbox_events;
+
+CREATE TRIGGER outbox_notify_trigger
+AFTER INSERT ON outbox_events
+FOR EACH ROW
+WHEN (current_setting('oms.outbox_mode', true) IS DISTINCT FROM 'replication')
+EXECUTE FUNCTION notify_outbox_insert();
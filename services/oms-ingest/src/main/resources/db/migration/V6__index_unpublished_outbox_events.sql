@@ -0,0 +1,6 @@
+-- Partial index for outbox claims: publisher workers only ever scan unpublished rows,
+-- in claim order, and filter them by shard. Published rows drop out of the index.
+
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished
+    ON outbox_events (created_at, id)
+    WHERE published = false;
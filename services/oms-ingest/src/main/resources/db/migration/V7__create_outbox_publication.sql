@@ -0,0 +1,11 @@
+-- Publication for the logical-replication outbox publisher
+-- (oms.ingest.outbox-publisher.mode=replication). Only inserts are streamed;
+-- the replication slot itself is created by the service on first start.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = 'oms_outbox') THEN
+        CREATE PUBLICATION oms_outbox FOR TABLE outbox_events WITH (publish = 'insert');
+    END IF;
+END
+$$;
@@ -0,0 +1,74 @@
+-- Range-partition outbox_events by created_at (one partition per UTC day).
+-- Published history is removed by detaching and dropping whole partitions
+-- (OutboxPartitionManager) instead of DELETE, and claims prune to the active days.
+-- Partitions from the oldest existing row to three days ahead are created here;
+-- the service keeps creating them ahead of time from then on.
+
+ALTER TABLE outbox_events RENAME TO outbox_events_legacy;
+ALTER INDEX IF EXISTS outbox_events_pkey RENAME TO outbox_events_legacy_pkey;
+DROP INDEX IF EXISTS idx_outbox_published;
+DROP INDEX IF EXISTS idx_outbox_aggregate;
+DROP INDEX IF EXISTS idx_outbox_unpublished;
+DROP TRIGGER IF EXISTS outbox_notify_trigger ON outbox_events_legacy;
+
+-- Keep the id sequence alive independently of the legacy table
+ALTER SEQUENCE outbox_events_id_seq OWNED BY NONE;
+
+CREATE TABLE outbox_events (
+    id BIGINT NOT NULL DEFAULT nextval('outbox_events_id_seq'),
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id uuid NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    kafka_key uuid,
+    published BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE outbox_events_id_seq OWNED BY outbox_events.id;
+
+DO $$
+DECLARE
+    day DATE := LEAST(
+        (SELECT (min(created_at) AT TIME ZONE 'UTC')::date FROM outbox_events_legacy),
+        (now() AT TIME ZONE 'UTC')::date);
+    last_day DATE := (now() AT TIME ZONE 'UTC')::date + 3;
+BEGIN
+    WHILE day <= last_day LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+            'outbox_events_p' || to_char(day, 'YYYYMMDD'),
+            day::text || ' 00:00:00+00',
+            (day + 1)::text || ' 00:00:00+00');
+        day := day + 1;
+    END LOOP;
+END
+$$;
+
+-- Catches rows outside the pre-created range; expected to stay empty
+CREATE TABLE IF NOT EXISTS outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, topic, kafka_key,
+                           published, created_at, published_at)
+SELECT id, aggregate_type, aggregate_id, event_type, payload, topic, kafka_key,
+       published, created_at, published_at
+FROM outbox_events_legacy;
+
+DROP TABLE outbox_events_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished
+    ON outbox_events (created_at, id)
+    WHERE published = false;
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate ON outbox_events(aggregate_type, aggregate_id);
+
+CREATE TRIGGER outbox_notify_trigger
+AFTER INSERT ON outbox_events
+FOR EACH ROW
+EXECUTE FUNCTION notify_outbox_insert();
+
+-- Stream partition inserts under the parent's name (replication publisher mode)
+ALTER PUBLICATION oms_outbox SET TABLE outbox_events;
+ALTER PUBLICATION oms_outbox SET (publish_via_partition_root = true);
@@ -0,0 +1,12 @@
+-- Outbox notifications carry "id,hash": the row id plus the aggregate's shard hash,
+-- so the listener can hand each id straight to the publisher worker that owns it
+-- (shard = hash % oms.ingest.outbox-publisher.shards) and claim it by primary key.
+
+CREATE OR REPLACE FUNCTION notify_outbox_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('outbox_channel',
+        NEW.id::text || ',' || (hashtext(NEW.aggregate_id::text) & 2147483647)::text);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
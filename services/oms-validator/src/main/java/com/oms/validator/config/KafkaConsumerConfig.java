@@ -4,17 +4,39 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.oms.common.kafka.OrderDeserializer;
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.validator.service.RetryTopicRouter;
+
+import tools.jackson.databind.ObjectMapper;
 
 /**
- * Kafka consumer configuration for listening to order.ingest topic
+ * Kafka consumer configuration for listening to order.ingest topic.
+ *
+ * Values are consumed as raw bytes: each order record says how it is encoded in its
+ * content-type header ({@link OrderWireFormat}), so JSON and binary producers can share a topic,
+ * and listeners decode them with the shared {@link OrderDeserializer}.
+ *
+ * Failed records are never retried in place: the error handler hands them to
+ * {@link RetryTopicRouter} right away (no blocking back-off) and commits past them, so
+ * one bad record never stalls its partition.
  */
 @Configuration
 public class KafkaConsumerConfig {
@@ -25,26 +47,115 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory(ValidatorProperties properties) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, properties.getConsumer().getBatchSize());
+        // Never consume records of aborted or still-open producer transactions
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
+    /**
+     * Decodes the byte[] values in the listeners, which keep the raw payload for the retry
+     * topics and rejections.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = 
+    public OrderDeserializer orderDeserializer(ObjectMapper objectMapper) {
+        return new OrderDeserializer(objectMapper);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory, RetryTopicRouter retryTopicRouter) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = 
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3);
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryTopicRouter, new FixedBackOff(0L, 0L)));
         return factory;
     }
+
+    /**
+     * Same as kafkaListenerContainerFactory, but hands each poll to the listener as one batch.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory, RetryTopicRouter retryTopicRouter) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // A failed batch has no failing index, so every record of it goes to the first retry tier
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryTopicRouter, new FixedBackOff(0L, 0L)));
+        return factory;
+    }
+
+    /**
+     * Batch factory for the transactional consumer mode: the container begins a Kafka
+     * transaction per poll and commits the consumed offsets inside it
+     * (sendOffsetsToTransaction), together with everything the listener produced.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "transactional")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> transactionalKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            KafkaTransactionManager<String, byte[]> kafkaTransactionManager,
+            KafkaTemplate<String, byte[]> kafkaTemplate, RetryTopicRouter retryTopicRouter) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setKafkaAwareTransactionManager(kafkaTransactionManager);
+        factory.setAfterRollbackProcessor(afterRollbackProcessor(kafkaTemplate, retryTopicRouter));
+        return factory;
+    }
+
+    /**
+     * Record factory for the retry topic consumers (one container per tier, so a long
+     * delay never holds back a shorter one). In transactional mode the retried record's
+     * output and offset are committed in one Kafka transaction as well.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory, ValidatorProperties properties,
+            KafkaTemplate<String, byte[]> kafkaTemplate, RetryTopicRouter retryTopicRouter,
+            ObjectProvider<KafkaTransactionManager<String, byte[]>> kafkaTransactionManager) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(properties.getRetry().getConcurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        KafkaTransactionManager<String, byte[]> transactionManager = kafkaTransactionManager.getIfAvailable();
+        if (transactionManager != null) {
+            factory.getContainerProperties().setKafkaAwareTransactionManager(transactionManager);
+            factory.setAfterRollbackProcessor(afterRollbackProcessor(kafkaTemplate, retryTopicRouter));
+        } else {
+            factory.setCommonErrorHandler(new DefaultErrorHandler(retryTopicRouter, new FixedBackOff(0L, 0L)));
+        }
+        return factory;
+    }
+
+    /**
+     * Forwards the rolled-back records to the retry topics and commits their offsets in a
+     * new Kafka transaction.
+     */
+    private static DefaultAfterRollbackProcessor<String, byte[]> afterRollbackProcessor(
+            KafkaTemplate<String, byte[]> kafkaTemplate, RetryTopicRouter retryTopicRouter) {
+        return new DefaultAfterRollbackProcessor<>(retryTopicRouter, new FixedBackOff(0L, 0L), kafkaTemplate, true);
+    }
 }
@@ -4,13 +4,23 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.oms.common.kafka.OrderSerializer;
+
+import jakarta.persistence.EntityManagerFactory;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * Kafka producer configuration for publishing validated/rejected orders
@@ -21,20 +31,55 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    /**
+     * In transactional consumer mode the factory is transactional, so every send joins the
+     * Kafka transaction that the listener container opens around each batch.
+     */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory(ValidatorProperties properties) {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.RETRIES_CONFIG, 3);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        return new DefaultKafkaProducerFactory<>(config);
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(config);
+        if ("transactional".equals(properties.getConsumer().getMode())) {
+            factory.setTransactionIdPrefix(properties.getConsumer().getTransactional().getTransactionIdPrefix());
+        }
+        return factory;
+    }
+
+    /**
+     * Encodes validated orders in oms.validator.wire-format. Values stay byte[] on the
+     * template, which also forwards retried and dead-lettered payloads verbatim.
+     */
+    @Bean
+    public OrderSerializer orderSerializer(ObjectMapper objectMapper, ValidatorProperties properties) {
+        return new OrderSerializer(objectMapper, properties.getWireFormat());
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "transactional")
+    public KafkaTransactionManager<String, byte[]> kafkaTransactionManager(
+            ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTransactionManager<>(producerFactory);
     }
 
+    /**
+     * Declaring a KafkaTransactionManager switches off Boot's JPA transaction manager, which
+     * the repositories still rely on; keep it as the primary one.
+     */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    @Primary
+    @ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "transactional")
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
     }
 }
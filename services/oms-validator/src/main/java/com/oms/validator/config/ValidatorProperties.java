@@ -1,7 +1,15 @@
 package com.oms.validator.config;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import com.oms.common.kafka.OrderWireFormat;
+
 import lombok.Data;
 
 /**
@@ -14,19 +22,157 @@ public class ValidatorProperties {
     private Topics topics = new Topics();
     private Risk risk = new Risk();
     private Validation validation = new Validation();
+    private Consumer consumer = new Consumer();
+    private Retry retry = new Retry();
+    private Rules rules = new Rules();
+    private Symbols symbols = new Symbols();
+    private MarketData marketData = new MarketData();
+    private Throttle throttle = new Throttle();
+    /** Encoding of the orders published to orders.validated; both are accepted on orders.inbound */
+    private OrderWireFormat wireFormat = OrderWireFormat.JSON;
 
     @Data
     public static class Topics {
         private String ingest = "order.ingest";
         private String validated = "order.validated";
         private String rejected = "order.rejected";
+        private String fills = "executions.fills";
+        private String quotes = "marketdata.quotes";
     }
 
     @Data
     public static class Risk {
+        /** local: in-process ledger; remote: risk-service over gRPC (grpc.client.risk-service) */
+        private String mode = "local";
         private long maxOrderValue = 1000000;
         private long maxPositionSize = 100000;
         private boolean checkBuyingPower = true;
+        private Ledger ledger = new Ledger();
+        private Remote remote = new Remote();
+    }
+
+    @Data
+    public static class Remote {
+        /** How long an order waits for its risk-service response */
+        private long timeoutMs = 1000;
+    }
+
+    @Data
+    public static class Ledger {
+        /** Check buying power and positions against the in-memory ledger instead of the order alone */
+        private boolean enabled = true;
+        /** Single-writer shards (accounts are hashed onto them); 0 = one per available processor */
+        private int shards = 0;
+        /** Cash of an account the ledger has not seen funded yet */
+        private long defaultBuyingPower = 10_000_000;
+        private long callTimeoutMs = 1000;
+        private String snapshotDir = System.getProperty("java.io.tmpdir") + "/oms-validator-risk";
+        private long snapshotIntervalMs = 10000;
+        /** Open orders release their reservation this long after validation unless filled or rejected; 0 = never */
+        private long openOrderTtlMs = 86_400_000;
+        /** Reservations are refused for an account with this many open orders; 0 = no limit */
+        private int maxOpenOrders = 10_000;
+    }
+
+    @Data
+    public static class Consumer {
+        /**
+         * record: one message per call; batch: the whole poll per call; parallel: key-ordered
+         * on virtual threads; transactional: exactly-once batches in Kafka transactions
+         */
+        private String mode = "record";
+        /** max.poll.records, i.e. the largest batch handed to the batch listener */
+        private int batchSize = 10;
+        /** How long a batch or record waits for its publishes before it counts as failed */
+        private long publishTimeoutMs = 10000;
+        private Parallel parallel = new Parallel();
+        private Transactional transactional = new Transactional();
+    }
+
+    @Data
+    public static class Transactional {
+        /** Prefix of the producer transactional.id (one id per consumer thread is derived from it) */
+        private String transactionIdPrefix = "oms-validator-tx-";
+        /** Write validated_orders asynchronously after each committed transaction */
+        private boolean projectionEnabled = true;
+    }
+
+    @Data
+    public static class Parallel {
+        /** Outstanding records per instance before the assignment is paused */
+        private int maxInFlight = 1000;
+        private long pollTimeoutMs = 100;
+        private long commitIntervalMs = 100;
+        /** How long a rebalance waits for in-flight records of revoked partitions */
+        private long revokeTimeoutMs = 10000;
+    }
+
+    @Data
+    public static class Retry {
+        /**
+         * One retry topic per delay (ingest topic + ".retry-" + delay, e.g. orders.inbound.retry-1s);
+         * a record that fails the last tier goes to the ingest topic + ".dlq"
+         */
+        private List<Duration> delays = List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofMinutes(1));
+        /** Consumer threads per retry topic */
+        private int concurrency = 1;
+    }
+
+    @Data
+    public static class Rules {
+        /** fail-fast: reject on the first failing rule; collect-all: report every failing rule */
+        private String mode = "fail-fast";
+        /** Optional YAML file with an oms.validator.rules section; re-read when it changes */
+        private String file;
+        private long reloadIntervalMs = 5000;
+        /** Per-rule settings keyed by rule name; rules not listed run with their defaults */
+        private Map<String, RuleDefinition> definitions = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class RuleDefinition {
+        private boolean enabled = true;
+        /** Overrides the rule's own cost/selectivity estimate used for ordering */
+        private Double cost;
+        private Double selectivity;
+        /** Threshold of the limit rules (symbol-valid, order-value, position-size) */
+        private BigDecimal limit;
+    }
+
+    @Data
+    public static class Symbols {
+        /** Security master CSV (symbol,tick_size,lot_size,tradable,halted); unset keeps the length-only stub */
+        private String file;
+        /** Where the compiled, memory-mapped index is written */
+        private String indexDir = System.getProperty("java.io.tmpdir");
+        private long reloadIntervalMs = 30000;
+    }
+
+    @Data
+    public static class MarketData {
+        /** Consume quotes to value market orders and check price bands */
+        private boolean enabled = true;
+        /** Capacity of the quote cache; quotes for further symbols are ignored */
+        private int maxSymbols = 65536;
+        /** Quotes older than this are not used (0 = no limit) */
+        private long maxQuoteAgeMs = 5000;
+    }
+
+    @Data
+    public static class Throttle {
+        /** Orders per window per account (0 = off) */
+        private long accountOrders = 0;
+        /** Notional (quantity x price) per window per account (0 = off) */
+        private long accountNotional = 0;
+        private long symbolOrders = 0;
+        private long symbolNotional = 0;
+        private long windowMs = 1000;
+        /** The window slides in windowMs / buckets steps */
+        private int buckets = 10;
+        /** Counter stripes per limit; keys sharing a stripe share its budget */
+        private int stripes = 4096;
+        /** Memo slots (power of two, rounded down) of orders already counted, so a re-polled one is not counted twice */
+        private int recentOrders = 131_072;
     }
 
     @Data
@@ -0,0 +1,29 @@
+package com.oms.validator.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oms.validator.service.DlqReplayService;
+import com.oms.validator.service.DlqReplayService.ReplayResult;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Operator endpoint that re-drives the dead letter topic into orders.inbound
+ * (see scripts/replay-dlq.sh).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/dlq")
+@RequiredArgsConstructor
+public class DlqReplayController {
+
+    private final DlqReplayService dlqReplayService;
+
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayResult> replay(@RequestParam(defaultValue = "1000") int maxRecords) {
+        return ResponseEntity.ok(dlqReplayService.replay(maxRecords));
+    }
+}
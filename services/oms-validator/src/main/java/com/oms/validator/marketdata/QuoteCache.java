@@ -0,0 +1,166 @@
+package com.oms.validator.marketdata;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.OrderDTO.OrderSide;
+import com.oms.proto.marketdata.Quote;
+import com.oms.validator.config.ValidatorProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latest NBBO quote per symbol, written by the {@link QuoteFeed} thread and read by the
+ * validation threads without locks or allocation.
+ *
+ * All quotes live in one long[] with a fixed stride per symbol:
+ * [sequence, bid, bid size, ask, ask size, last, last size, timestamp ms] (doubles as raw bits).
+ * Each slot is a seqlock: the single writer makes the sequence odd, writes the fields and
+ * makes it even again; a reader retries until it sees the same even sequence before and
+ * after reading, so it never mixes two quotes.
+ */
+@Service
+@Slf4j
+public class QuoteCache {
+
+    private static final int STRIDE = 8;
+    private static final int SEQ = 0;
+    private static final int BID = 1;
+    private static final int BID_SIZE = 2;
+    private static final int ASK = 3;
+    private static final int ASK_SIZE = 4;
+    private static final int LAST = 5;
+    private static final int LAST_SIZE = 6;
+    private static final int TIMESTAMP = 7;
+
+    private static final int MODE_BID = 0;
+    private static final int MODE_ASK = 1;
+    private static final int MODE_LAST = 2;
+    private static final int MODE_BUY = 3;
+    private static final int MODE_SELL = 4;
+    private static final int MODE_REFERENCE = 5;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<>();
+    private final long[] slots;
+    private final int capacity;
+    private boolean fullLogged;
+
+    public QuoteCache(ValidatorProperties properties, MeterRegistry meterRegistry) {
+        this.capacity = properties.getMarketData().getMaxSymbols();
+        this.slots = new long[capacity * STRIDE];
+        Gauge.builder("oms.validator.quotes.symbols", indexes, ConcurrentHashMap::size)
+                .description("Symbols with a cached quote")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Slot of the symbol for the read methods, or -1 when no quote was ever seen.
+     */
+    public int index(String symbol) {
+        Integer index = symbol == null ? null : indexes.get(symbol);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Stores a quote. Only the feed thread may call this.
+     */
+    public void update(Quote quote) {
+        Integer index = indexes.get(quote.getSymbol());
+        if (index == null) {
+            if (indexes.size() >= capacity) {
+                if (!fullLogged) {
+                    log.warn("Quote cache full ({} symbols), ignoring new symbols", capacity);
+                    fullLogged = true;
+                }
+                return;
+            }
+            index = indexes.size();
+            indexes.put(quote.getSymbol(), index);
+        }
+
+        int base = index * STRIDE;
+        long seq = (long) SLOTS.getOpaque(slots, base + SEQ);
+        SLOTS.setOpaque(slots, base + SEQ, seq + 1);
+        VarHandle.storeStoreFence();
+        SLOTS.setOpaque(slots, base + BID, Double.doubleToRawLongBits(quote.getBidPrice()));
+        SLOTS.setOpaque(slots, base + BID_SIZE, Double.doubleToRawLongBits(quote.getBidSize()));
+        SLOTS.setOpaque(slots, base + ASK, Double.doubleToRawLongBits(quote.getAskPrice()));
+        SLOTS.setOpaque(slots, base + ASK_SIZE, Double.doubleToRawLongBits(quote.getAskSize()));
+        SLOTS.setOpaque(slots, base + LAST, Double.doubleToRawLongBits(quote.getLastPrice()));
+        SLOTS.setOpaque(slots, base + LAST_SIZE, Double.doubleToRawLongBits(quote.getLastSize()));
+        SLOTS.setOpaque(slots, base + TIMESTAMP, quote.getTimestampMs());
+        SLOTS.setRelease(slots, base + SEQ, seq + 2);
+    }
+
+    public double bid(int index, long maxAgeMs) {
+        return read(index, maxAgeMs, MODE_BID);
+    }
+
+    public double ask(int index, long maxAgeMs) {
+        return read(index, maxAgeMs, MODE_ASK);
+    }
+
+    public double last(int index, long maxAgeMs) {
+        return read(index, maxAgeMs, MODE_LAST);
+    }
+
+    /**
+     * Price a market order would trade at: ask for BUY, bid for SELL, else the last trade.
+     */
+    public double marketPrice(int index, OrderSide side, long maxAgeMs) {
+        return read(index, maxAgeMs, side == OrderSide.BUY ? MODE_BUY : MODE_SELL);
+    }
+
+    /**
+     * Fair value for price bands: bid/ask midpoint, else the last trade.
+     */
+    public double referencePrice(int index, long maxAgeMs) {
+        return read(index, maxAgeMs, MODE_REFERENCE);
+    }
+
+    /**
+     * One consistent read of a slot. Returns NaN when there is no usable price or the
+     * quote is older than maxAgeMs (0 = no age limit).
+     */
+    private double read(int index, long maxAgeMs, int mode) {
+        if (index < 0) {
+            return Double.NaN;
+        }
+        int base = index * STRIDE;
+        while (true) {
+            long seq = (long) SLOTS.getAcquire(slots, base + SEQ);
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            double bid = Double.longBitsToDouble((long) SLOTS.getOpaque(slots, base + BID));
+            double ask = Double.longBitsToDouble((long) SLOTS.getOpaque(slots, base + ASK));
+            double last = Double.longBitsToDouble((long) SLOTS.getOpaque(slots, base + LAST));
+            long timestamp = (long) SLOTS.getOpaque(slots, base + TIMESTAMP);
+            VarHandle.loadLoadFence();
+            if ((long) SLOTS.getOpaque(slots, base + SEQ) != seq) {
+                continue;
+            }
+
+            if (seq == 0 || (maxAgeMs > 0 && System.currentTimeMillis() - timestamp > maxAgeMs)) {
+                return Double.NaN;
+            }
+            double price = switch (mode) {
+                case MODE_BID -> bid;
+                case MODE_ASK -> ask;
+                case MODE_LAST -> last;
+                case MODE_BUY -> ask > 0 ? ask : last;
+                case MODE_SELL -> bid > 0 ? bid : last;
+                default -> bid > 0 && ask > 0 ? (bid + ask) / 2 : last;
+            };
+            return price > 0 ? price : Double.NaN;
+        }
+    }
+}
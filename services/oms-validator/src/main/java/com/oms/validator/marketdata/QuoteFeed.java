@@ -0,0 +1,115 @@
+package com.oms.validator.marketdata;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.kafka.PartitionAssignment;
+import com.oms.proto.marketdata.Quote;
+import com.oms.validator.config.ValidatorProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds the {@link QuoteCache} from marketdata.quotes (protobuf {@link Quote} values).
+ *
+ * The single writer of the cache: every instance reads every partition (assigned, no
+ * consumer group) from the latest offset, since only current quotes matter; partitions
+ * created later are picked up by a periodic refresh. Until a symbol's first quote
+ * arrives, its market orders are valued as before (not at all).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteFeed {
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final QuoteCache quoteCache;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private Thread feedThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.getMarketData().isEnabled()) {
+            return;
+        }
+        running = true;
+        feedThread = new Thread(this::run, "quote-feed");
+        feedThread.setDaemon(true);
+        feedThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (feedThread != null) {
+            feedThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void run() {
+        long backoffMs = 100;
+        while (running) {
+            try {
+                consume();
+                backoffMs = 100;
+            } catch (Exception e) {
+                log.error("Quote feed failed, restarting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void consume() {
+        String topic = properties.getTopics().getQuotes();
+        Counter received = Counter.builder("oms.validator.quotes.received").register(meterRegistry);
+        Counter invalid = Counter.builder("oms.validator.quotes.invalid").register(meterRegistry);
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            PartitionAssignment assignment = new PartitionAssignment(consumer, List.of(topic));
+            consumer.seekToEnd(assignment.assign());
+            log.info("Quote feed reading {} partitions of {}", assignment.partitions().size(), topic);
+
+            while (running) {
+                // Partitions that appear later hold only quotes published since, so read them whole
+                List<TopicPartition> added = assignment.refresh();
+                if (!added.isEmpty()) {
+                    consumer.seekToBeginning(added);
+                }
+
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    try {
+                        quoteCache.update(Quote.parseFrom(record.value()));
+                        received.increment();
+                    } catch (Exception e) {
+                        invalid.increment();
+                        log.debug("Skipping unreadable quote at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                    }
+                }
+            }
+        }
+    }
+}
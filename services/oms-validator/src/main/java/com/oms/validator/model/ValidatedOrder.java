@@ -4,14 +4,19 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
+import org.springframework.data.domain.Persistable;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +25,8 @@ import lombok.NoArgsConstructor;
 /**
  * Entity for storing validation results.
  * This is the validator's own table - not shared with oms-ingest.
+ * Implements Persistable so that saving a new row (assigned orderId) is a plain
+ * INSERT, batchable by saveAll, instead of a merge with a SELECT per row.
  */
 @Entity
 @Table(name = "validated_orders")
@@ -27,7 +34,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ValidatedOrder {
+public class ValidatedOrder implements Persistable<UUID> {
 
     @Id
     @Column(name = "order_id", columnDefinition = "uuid", updatable = false, nullable = false)
@@ -79,6 +86,26 @@ public class ValidatedOrder {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public UUID getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        persisted = true;
+    }
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -0,0 +1,124 @@
+package com.oms.validator.refdata;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.validator.config.ValidatorProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Security master for the symbol, tick-size and lot-size rules.
+ *
+ * Loads oms.validator.symbols.file (CSV: symbol,tick_size,lot_size,tradable,halted),
+ * compiles it into a perfect-hashed index file and memory-maps it ({@link SymbolTable}).
+ * The source is re-read when it changes; the new table is swapped in atomically, and
+ * readers holding the previous one keep a valid mapping. A source that fails to load
+ * leaves the current table in place.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SymbolMaster {
+
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private volatile SymbolTable table;
+    private long sourceModified = -1;
+    private Path indexFile;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("oms.validator.symbols.loaded", this, master -> {
+                    SymbolTable current = master.table;
+                    return current == null ? 0 : current.size();
+                })
+                .description("Instruments in the mapped security master")
+                .register(meterRegistry);
+        reloadIfChanged();
+    }
+
+    /**
+     * The current table, or null when no security master is configured. Callers should
+     * read it once per order so that every lookup sees the same snapshot.
+     */
+    public SymbolTable table() {
+        return table;
+    }
+
+    @Scheduled(fixedDelayString = "${oms.validator.symbols.reload-interval-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        String file = properties.getSymbols().getFile();
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        Path source = Path.of(file);
+        try {
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            if (modified == sourceModified) {
+                return;
+            }
+            List<SymbolTable.Entry> entries = parse(source);
+            Path next = Path.of(properties.getSymbols().getIndexDir()).resolve("symbols-" + modified + ".idx");
+            SymbolTable.write(entries, next);
+            table = SymbolTable.map(next);
+
+            // Existing mappings of the old file stay valid after it is unlinked
+            Path previous = indexFile;
+            indexFile = next;
+            sourceModified = modified;
+            if (previous != null && !previous.equals(next)) {
+                Files.deleteIfExists(previous);
+            }
+            log.info("Loaded {} instruments from {}", entries.size(), source);
+        } catch (Exception e) {
+            log.error("Failed to load security master from {}, keeping the current table: {}",
+                    source, e.getMessage());
+        }
+    }
+
+    private static List<SymbolTable.Entry> parse(Path source) throws IOException {
+        // Keyed by symbol so a repeated symbol keeps its last line
+        Map<String, SymbolTable.Entry> entries = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(source);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#") || (i == 0 && line.toLowerCase(Locale.ROOT).startsWith("symbol"))) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length < 5) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": expected 5 fields, got " + fields.length);
+            }
+            String symbol = fields[0].trim().toUpperCase(Locale.ROOT);
+            if (symbol.isEmpty() || symbol.length() > SymbolTable.MAX_SYMBOL_LENGTH
+                    || !symbol.chars().allMatch(c -> c > 0 && c < 128)) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": invalid symbol " + fields[0]);
+            }
+            int flags = (Boolean.parseBoolean(fields[3].trim()) ? SymbolTable.FLAG_TRADABLE : 0)
+                    | (Boolean.parseBoolean(fields[4].trim()) ? SymbolTable.FLAG_HALTED : 0);
+            entries.put(symbol, new SymbolTable.Entry(symbol, fixedPoint(fields[1]), fixedPoint(fields[2]), flags));
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private static long fixedPoint(String value) {
+        return FixedPoint.fromBigDecimalExact(new BigDecimal(value.trim()));
+    }
+}
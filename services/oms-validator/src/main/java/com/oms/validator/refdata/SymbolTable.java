@@ -0,0 +1,247 @@
+package com.oms.validator.refdata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.oms.common.model.FixedPoint;
+
+/**
+ * Read-only, memory-mapped security master index with a minimal-collision perfect hash
+ * (hash-and-displace): one probe per lookup, no allocation, no locks.
+ *
+ * File layout (big-endian):
+ * header [magic, version, count, buckets, slots, recordBytes] (6 ints),
+ * seeds int[buckets], then slots fixed-size records:
+ * symbol (16 ASCII bytes, NUL padded), tick size and lot size (longs, micro units), flags (int).
+ *
+ * A symbol's bucket is hash(symbol, 0) % buckets; that bucket's seed picks its slot,
+ * hash(symbol, seed) % slots. The stored symbol is compared on lookup, so unknown
+ * symbols are rejected.
+ *
+ * Symbols are stored trimmed and upper-cased ({@link SymbolMaster} normalizes the CSV);
+ * lookups apply the same normalization on the fly, without allocating.
+ */
+public final class SymbolTable {
+
+    public static final int MAX_SYMBOL_LENGTH = 16;
+    /** Tick and lot sizes are stored as {@link FixedPoint} longs with this many decimals */
+    public static final int SCALE = FixedPoint.SCALE;
+    public static final int FLAG_TRADABLE = 1;
+    public static final int FLAG_HALTED = 2;
+
+    private static final int MAGIC = 0x4F4D5353; // "OMSS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+    private static final int RECORD_BYTES = 40;
+    private static final int OFFSET_TICK = 16;
+    private static final int OFFSET_LOT = 24;
+    private static final int OFFSET_FLAGS = 32;
+    private static final int MAX_SEED = 1 << 20;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int buckets;
+    private final int slots;
+    private final int slotsOffset;
+
+    public record Entry(String symbol, long tickSize, long lotSize, int flags) {
+    }
+
+    private SymbolTable(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(20) != RECORD_BYTES) {
+            throw new IllegalArgumentException("Not a symbol index (version " + VERSION + ")");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.buckets = buffer.getInt(12);
+        this.slots = buffer.getInt(16);
+        this.slotsOffset = HEADER_BYTES + buckets * Integer.BYTES;
+    }
+
+    /**
+     * Maps an index file written by {@link #write}. The mapping outlives the channel and
+     * is released once the table is unreachable, so the file may be deleted while mapped.
+     */
+    public static SymbolTable map(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SymbolTable(mapped);
+        }
+    }
+
+    /**
+     * Slot of the symbol, or -1 when it is not in the table. Surrounding whitespace and
+     * ASCII case are ignored.
+     */
+    public int find(CharSequence symbol) {
+        if (symbol == null) {
+            return -1;
+        }
+        int from = 0;
+        int to = symbol.length();
+        while (from < to && Character.isWhitespace(symbol.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(symbol.charAt(to - 1))) {
+            to--;
+        }
+        int length = to - from;
+        if (length == 0 || length > MAX_SYMBOL_LENGTH) {
+            return -1;
+        }
+        int seed = buffer.getInt(HEADER_BYTES + Math.floorMod(hash(symbol, from, to, 0), buckets) * Integer.BYTES);
+        int slot = Math.floorMod(hash(symbol, from, to, seed), slots);
+        int base = slotsOffset + slot * RECORD_BYTES;
+        for (int i = 0; i < MAX_SYMBOL_LENGTH; i++) {
+            int expected = i < length ? upper(symbol.charAt(from + i)) : 0;
+            if ((buffer.get(base + i) & 0xFF) != expected) {
+                return -1;
+            }
+        }
+        return slot;
+    }
+
+    public long tickSize(int slot) {
+        return buffer.getLong(slotsOffset + slot * RECORD_BYTES + OFFSET_TICK);
+    }
+
+    public long lotSize(int slot) {
+        return buffer.getLong(slotsOffset + slot * RECORD_BYTES + OFFSET_LOT);
+    }
+
+    public boolean isTradable(int slot) {
+        return (flags(slot) & FLAG_TRADABLE) != 0;
+    }
+
+    public boolean isHalted(int slot) {
+        return (flags(slot) & FLAG_HALTED) != 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int flags(int slot) {
+        return buffer.getInt(slotsOffset + slot * RECORD_BYTES + OFFSET_FLAGS);
+    }
+
+    /**
+     * Builds the perfect hash for the entries (unique, ASCII symbols of at most 16 chars)
+     * and writes the index atomically (temporary file, then rename).
+     */
+    public static void write(List<Entry> entries, Path indexFile) throws IOException {
+        int n = entries.size();
+        int buckets = Math.max(1, (n + 3) / 4);
+        int slots = Math.max(1, (int) Math.ceil(n * 1.25));
+
+        List<List<Entry>> byBucket = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            byBucket.add(new ArrayList<>(4));
+        }
+        for (Entry entry : entries) {
+            byBucket.get(Math.floorMod(hash(entry.symbol(), 0), buckets)).add(entry);
+        }
+
+        // Place the largest buckets first, while the table is emptiest
+        Integer[] order = new Integer[buckets];
+        for (int i = 0; i < buckets; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer b) -> byBucket.get(b).size()).reversed());
+
+        int[] seeds = new int[buckets];
+        Entry[] table = new Entry[slots];
+        for (int bucket : order) {
+            List<Entry> members = byBucket.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+            seeds[bucket] = placeBucket(members, table);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + buckets * Integer.BYTES + slots * RECORD_BYTES);
+        out.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(buckets).putInt(slots).putInt(RECORD_BYTES);
+        for (int seed : seeds) {
+            out.putInt(seed);
+        }
+        for (Entry entry : table) {
+            int base = out.position();
+            if (entry != null) {
+                for (int i = 0; i < entry.symbol().length(); i++) {
+                    out.put(base + i, (byte) entry.symbol().charAt(i));
+                }
+                out.putLong(base + OFFSET_TICK, entry.tickSize());
+                out.putLong(base + OFFSET_LOT, entry.lotSize());
+                out.putInt(base + OFFSET_FLAGS, entry.flags());
+            }
+            out.position(base + RECORD_BYTES);
+        }
+        out.flip();
+
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Finds a seed that sends every member of the bucket to a distinct free slot */
+    private static int placeBucket(List<Entry> members, Entry[] table) {
+        int[] positions = new int[members.size()];
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            boolean fits = true;
+            for (int i = 0; i < members.size() && fits; i++) {
+                int slot = Math.floorMod(hash(members.get(i).symbol(), seed), table.length);
+                fits = table[slot] == null;
+                for (int j = 0; j < i && fits; j++) {
+                    fits = positions[j] != slot;
+                }
+                positions[i] = slot;
+            }
+            if (fits) {
+                for (int i = 0; i < members.size(); i++) {
+                    table[positions[i]] = members.get(i);
+                }
+                return seed;
+            }
+        }
+        throw new IllegalStateException("No perfect hash seed found for bucket of " + members.get(0).symbol());
+    }
+
+    private static long hash(CharSequence symbol, int seed) {
+        return hash(symbol, 0, symbol.length(), seed);
+    }
+
+    /** Seeded FNV-1a over the upper-cased chars, finished with the murmur3 64-bit mixer */
+    private static long hash(CharSequence symbol, int from, int to, int seed) {
+        long h = 0xcbf29ce484222325L ^ (seed * 0x9E3779B97F4A7C15L);
+        for (int i = from; i < to; i++) {
+            h ^= upper(symbol.charAt(i));
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static char upper(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+}
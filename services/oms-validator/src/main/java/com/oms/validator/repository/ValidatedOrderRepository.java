@@ -1,9 +1,12 @@
 package com.oms.validator.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.oms.validator.model.ValidatedOrder;
@@ -18,4 +21,10 @@ public interface ValidatedOrderRepository extends JpaRepository<ValidatedOrder,
     Optional<ValidatedOrder> findByClientOrderId(String clientOrderId);
 
     boolean existsByOrderId(UUID orderId);
+
+    /**
+     * Bulk idempotency check: which of the given orders have already been processed.
+     */
+    @Query(value = "SELECT order_id FROM validated_orders WHERE order_id = ANY(:orderIds)", nativeQuery = true)
+    List<UUID> findExistingOrderIds(@Param("orderIds") UUID[] orderIds);
 }
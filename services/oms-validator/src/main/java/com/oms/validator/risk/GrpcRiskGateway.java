@@ -0,0 +1,157 @@
+package com.oms.validator.risk;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.risk.RiskCodes;
+import com.oms.proto.risk.RiskCheckRequest;
+import com.oms.proto.risk.RiskCheckResponse;
+import com.oms.proto.risk.RiskServiceGrpc;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.rules.ReasonCodes;
+
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+
+/**
+ * Risk checks on risk-service (oms.validator.risk.mode=remote), pipelined over one
+ * CheckRiskBatch stream: every consumer thread writes its request to the shared stream
+ * and waits only for its own response, matched by request_id, so many orders are in
+ * flight on one connection.
+ *
+ * Buying power and position are checked once, atomically with the reservation, so the
+ * separate pre-checks pass here and {@link #reserve} returns the real verdict. A broken
+ * stream fails its pending checks and is reopened by the next call; a check that gets no
+ * answer, or that risk-service failed to run ({@link RiskCodes#UNAVAILABLE}), throws
+ * {@link RiskUnavailableException}, so the order is retried.
+ */
+@Service
+@ConditionalOnProperty(prefix = "oms.validator.risk", name = "mode", havingValue = "remote")
+@Slf4j
+public class GrpcRiskGateway implements RiskGateway {
+
+    @GrpcClient("risk-service")
+    private RiskServiceGrpc.RiskServiceStub riskService;
+
+    private final ValidatorProperties properties;
+    private final Map<String, CompletableFuture<RiskCheckResponse>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    private StreamObserver<RiskCheckRequest> requests;
+    private ResponseObserver responses;
+
+    public GrpcRiskGateway(ValidatorProperties properties) {
+        this.properties = properties;
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (requests != null) {
+            requests.onCompleted();
+            requests = null;
+        }
+    }
+
+    @Override
+    public int checkBuyingPower(OrderDTO order, long orderValue) {
+        return ReasonCodes.OK;
+    }
+
+    @Override
+    public int checkPosition(OrderDTO order, long maxPositionSize) {
+        return ReasonCodes.OK;
+    }
+
+    /**
+     * Limits are configured on risk-service; maxPositionSize and checkBuyingPower are not sent.
+     */
+    @Override
+    public int reserve(OrderDTO order, long price, long orderValue, long maxPositionSize,
+            boolean checkBuyingPower) {
+        String requestId = Long.toString(requestIds.incrementAndGet());
+        RiskCheckRequest request = RiskCheckRequest.newBuilder()
+                .setRequestId(requestId)
+                .setOrderId(order.getOrderId() != null ? order.getOrderId().toString() : "")
+                .setAccountId(order.getAccountId())
+                .setSymbol(order.getSymbol())
+                .setSide(order.getSide().name())
+                .setQuantity(order.getQuantity().doubleValue())
+                .setEstimatedPrice(price != FixedPoint.NULL ? FixedPoint.toDouble(price) : 0)
+                .setOrderType(order.getOrderType() != null ? order.getOrderType().name() : "")
+                .setReserve(true)
+                .build();
+
+        CompletableFuture<RiskCheckResponse> response = new CompletableFuture<>();
+        pending.put(requestId, response);
+        int reasonCode;
+        try {
+            send(request);
+            reasonCode = response.get(properties.getRisk().getRemote().getTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .getReasonCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RiskUnavailableException("Interrupted waiting for risk-service", e);
+        } catch (TimeoutException e) {
+            throw new RiskUnavailableException("risk-service did not answer order " + order.getOrderId()
+                    + " within " + properties.getRisk().getRemote().getTimeoutMs() + " ms", e);
+        } catch (Exception e) {
+            throw new RiskUnavailableException("risk-service check failed for order " + order.getOrderId(), e);
+        } finally {
+            pending.remove(requestId);
+        }
+        if (reasonCode == RiskCodes.UNAVAILABLE) {
+            throw new RiskUnavailableException("risk-service failed to check order " + order.getOrderId());
+        }
+        return reasonCode;
+    }
+
+    private synchronized void send(RiskCheckRequest request) {
+        if (requests == null) {
+            responses = new ResponseObserver();
+            requests = riskService.checkRiskBatch(responses);
+        }
+        requests.onNext(request);
+    }
+
+    private synchronized void streamClosed(ResponseObserver stream, Throwable error) {
+        if (stream != responses) {
+            return;
+        }
+        requests = null;
+        responses = null;
+        pending.values().forEach(future -> future.completeExceptionally(error));
+    }
+
+    private final class ResponseObserver implements StreamObserver<RiskCheckResponse> {
+
+        @Override
+        public void onNext(RiskCheckResponse response) {
+            CompletableFuture<RiskCheckResponse> future = pending.get(response.getRequestId());
+            if (future != null) {
+                future.complete(response);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.warn("risk-service stream failed, reopening on the next check: {}", t.getMessage());
+            streamClosed(this, t);
+        }
+
+        @Override
+        public void onCompleted() {
+            streamClosed(this, new IllegalStateException("risk-service closed the stream"));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.oms.validator.risk;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.common.risk.RiskLedger;
+
+/**
+ * Risk checks on the in-process {@link RiskLedger}, each on the account's shard thread.
+ * The default mode, and the stand-in for risk-service when testing the validator alone.
+ */
+public class LocalRiskGateway implements RiskGateway {
+
+    private final RiskLedger riskLedger;
+
+    public LocalRiskGateway(RiskLedger riskLedger) {
+        this.riskLedger = riskLedger;
+    }
+
+    @Override
+    public int checkBuyingPower(OrderDTO order, long orderValue) {
+        return riskLedger.call(order.getAccountId(), account -> account.checkBuyingPower(order, orderValue));
+    }
+
+    @Override
+    public int checkPosition(OrderDTO order, long maxPositionSize) {
+        return riskLedger.call(order.getAccountId(), account -> account.checkPosition(order, maxPositionSize));
+    }
+
+    @Override
+    public int reserve(OrderDTO order, long price, long orderValue, long maxPositionSize,
+            boolean checkBuyingPower) {
+        return riskLedger.call(order.getAccountId(),
+                account -> account.reserve(order, price, orderValue, maxPositionSize, checkBuyingPower));
+    }
+}
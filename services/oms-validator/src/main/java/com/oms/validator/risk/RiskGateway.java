@@ -0,0 +1,24 @@
+package com.oms.validator.risk;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+
+/**
+ * Where the validator's account-level risk checks run: the in-process ledger
+ * ({@link LocalRiskGateway}) or risk-service over gRPC ({@link GrpcRiskGateway}).
+ * Methods return {@link com.oms.validator.rules.ReasonCodes reason codes}. Prices, values
+ * and limits are {@link FixedPoint} longs, NULL for an order that cannot be priced.
+ */
+public interface RiskGateway {
+
+    int checkBuyingPower(OrderDTO order, long orderValue);
+
+    int checkPosition(OrderDTO order, long maxPositionSize);
+
+    /**
+     * Re-checks buying power and position and opens the order's exposure in one step.
+     * Idempotent on orderId.
+     */
+    int reserve(OrderDTO order, long price, long orderValue, long maxPositionSize,
+            boolean checkBuyingPower);
+}
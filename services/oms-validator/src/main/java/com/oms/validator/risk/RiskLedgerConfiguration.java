@@ -0,0 +1,58 @@
+package com.oms.validator.risk;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import com.oms.common.risk.RiskLedger;
+import com.oms.common.risk.RiskLedgerFeed;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.service.RiskCheckService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * In-process risk ledger (oms.validator.risk.mode=local with the ledger enabled): the
+ * ledger, its orders.validated / orders.rejected / executions.fills feed and the gateway
+ * over them.
+ */
+@Configuration
+@ConditionalOnExpression("'${oms.validator.risk.mode:local}' == 'local' and ${oms.validator.risk.ledger.enabled:true}")
+public class RiskLedgerConfiguration {
+
+    private static final String FEED_GROUP = "oms-validator-risk-ledger";
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RiskLedger riskLedger(ValidatorProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        ValidatorProperties.Ledger ledger = properties.getRisk().getLedger();
+        return new RiskLedger(new RiskLedger.Settings(ledger.getShards(), ledger.getDefaultBuyingPower(),
+                ledger.getCallTimeoutMs(), ledger.getSnapshotDir(), ledger.getOpenOrderTtlMs(),
+                ledger.getMaxOpenOrders(), "oms.validator.risk.ledger"),
+                objectMapper, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "stop")
+    public RiskLedgerFeed riskLedgerFeed(ConsumerFactory<String, byte[]> consumerFactory, RiskLedger riskLedger,
+            RiskCheckService riskCheckService, ValidatorProperties properties, ObjectMapper objectMapper) {
+        return new RiskLedgerFeed(consumerFactory, riskLedger, riskCheckService::orderPrice,
+                new RiskLedgerFeed.Settings(properties.getTopics().getValidated(), properties.getTopics().getRejected(),
+                        properties.getTopics().getFills(), properties.getRisk().getLedger().getSnapshotIntervalMs(),
+                        FEED_GROUP),
+                objectMapper);
+    }
+
+    @Bean
+    public LocalRiskGateway localRiskGateway(RiskLedger riskLedger) {
+        return new LocalRiskGateway(riskLedger);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRiskLedgerFeed(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(RiskLedgerFeed.class).start();
+    }
+}
@@ -0,0 +1,18 @@
+package com.oms.validator.risk;
+
+/**
+ * The risk check could not be made (risk-service timed out, failed to run it, its stream
+ * failed, or the wait was interrupted), so the order has no verdict yet. Transient by definition:
+ * {@link com.oms.validator.service.RetryTopicRouter} keeps retrying it and never
+ * dead-letters it.
+ */
+public class RiskUnavailableException extends RuntimeException {
+
+    public RiskUnavailableException(String message) {
+        super(message);
+    }
+
+    public RiskUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,291 @@
+package com.oms.validator.rules;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.config.ValidatorProperties.RuleDefinition;
+import com.oms.validator.refdata.SymbolMaster;
+import com.oms.validator.refdata.SymbolTable;
+import com.oms.validator.service.RiskCheckService;
+
+/**
+ * The validator's own rules: order parameter checks, security master checks (symbol,
+ * tick size, lot size), market price bands and risk checks. Velocity throttles are not a
+ * rule: see {@link com.oms.validator.service.OrderThrottle}.
+ * Costs are relative (1 = a null check or field comparison); selectivity is the expected
+ * rejection rate. Additional rules are plugged in by declaring more factory beans.
+ */
+@Configuration
+public class BuiltInRules {
+
+    /** Rules whose settings the final risk reservation also applies ({@link RulePipeline#riskLimits}) */
+    static final String BUYING_POWER = "buying-power";
+    static final String POSITION_SIZE = "position-size";
+
+    private record SimpleRuleFactory(String name, double cost, double selectivity,
+            Function<RuleDefinition, ValidationRule> creator) implements ValidationRuleFactory {
+
+        @Override
+        public ValidationRule create(RuleDefinition definition) {
+            return creator.apply(definition);
+        }
+    }
+
+    @Bean
+    public ValidationRuleFactory symbolRequiredRule() {
+        return new SimpleRuleFactory("symbol-required", 1, 0.001, d -> order ->
+                order.getSymbol() == null || order.getSymbol().isBlank() ? ReasonCodes.SYMBOL_REQUIRED : ReasonCodes.OK);
+    }
+
+    @Bean
+    public ValidationRuleFactory quantityPositiveRule() {
+        return new SimpleRuleFactory("quantity-positive", 1, 0.001, d -> order ->
+                order.getQuantity() == null || order.getQuantity().signum() <= 0
+                        ? ReasonCodes.QUANTITY_NOT_POSITIVE : ReasonCodes.OK);
+    }
+
+    @Bean
+    public ValidationRuleFactory sideRequiredRule() {
+        return new SimpleRuleFactory("side-required", 1, 0.001, d -> order ->
+                order.getSide() == null ? ReasonCodes.SIDE_REQUIRED : ReasonCodes.OK);
+    }
+
+    @Bean
+    public ValidationRuleFactory orderTypeRequiredRule() {
+        return new SimpleRuleFactory("order-type-required", 1, 0.001, d -> order ->
+                order.getOrderType() == null ? ReasonCodes.ORDER_TYPE_REQUIRED : ReasonCodes.OK);
+    }
+
+    @Bean
+    public ValidationRuleFactory timeInForceRequiredRule() {
+        return new SimpleRuleFactory("time-in-force-required", 1, 0.001, d -> order ->
+                order.getTimeInForce() == null ? ReasonCodes.TIME_IN_FORCE_REQUIRED : ReasonCodes.OK);
+    }
+
+    @Bean
+    public ValidationRuleFactory limitPriceRequiredRule() {
+        return new SimpleRuleFactory("limit-price-required", 1, 0.001, d -> order ->
+                order.getOrderType() == OrderDTO.OrderType.LIMIT && order.getLimitPrice() == null
+                        ? ReasonCodes.LIMIT_PRICE_REQUIRED : ReasonCodes.OK);
+    }
+
+    @Bean
+    public ValidationRuleFactory stopPriceRequiredRule() {
+        return new SimpleRuleFactory("stop-price-required", 1, 0.001, d -> order ->
+                order.getOrderType() == OrderDTO.OrderType.STOP && order.getStopPrice() == null
+                        ? ReasonCodes.STOP_PRICE_REQUIRED : ReasonCodes.OK);
+    }
+
+    /**
+     * Known, tradable and not halted in the security master. Without a configured master
+     * it falls back to the length-only stub, with the limit as the maximum length (default 10).
+     */
+    @Bean
+    public ValidationRuleFactory symbolValidRule(ValidatorProperties properties, SymbolMaster symbolMaster) {
+        return new SimpleRuleFactory("symbol-valid", 2, 0.01, d -> {
+            if (!properties.getValidation().isCheckSymbolExists()) {
+                return null;
+            }
+            int maxLength = d.getLimit() != null ? d.getLimit().intValue() : 10;
+            return new ValidationRule() {
+                @Override
+                public int check(OrderDTO order) {
+                    String symbol = order.getSymbol();
+                    SymbolTable table = symbolMaster.table();
+                    if (symbol == null) {
+                        return ReasonCodes.OK;
+                    }
+                    if (table == null) {
+                        return symbol.length() > maxLength ? ReasonCodes.INVALID_SYMBOL : ReasonCodes.OK;
+                    }
+                    int slot = table.find(symbol);
+                    if (slot < 0) {
+                        return ReasonCodes.INVALID_SYMBOL;
+                    }
+                    if (!table.isTradable(slot)) {
+                        return ReasonCodes.SYMBOL_NOT_TRADABLE;
+                    }
+                    return table.isHalted(slot) ? ReasonCodes.SYMBOL_HALTED : ReasonCodes.OK;
+                }
+
+                @Override
+                public String describe(int reasonCode, OrderDTO order) {
+                    return reasonCode == ReasonCodes.INVALID_SYMBOL
+                            ? "Invalid symbol: " + order.getSymbol()
+                            : ReasonCodes.describe(reasonCode) + ": " + order.getSymbol();
+                }
+            };
+        });
+    }
+
+    /**
+     * Limit and stop prices must be whole multiples of the instrument's tick size.
+     */
+    @Bean
+    public ValidationRuleFactory tickSizeRule(SymbolMaster symbolMaster) {
+        return new SimpleRuleFactory("tick-size", 3, 0.005, d -> new ValidationRule() {
+            @Override
+            public int check(OrderDTO order) {
+                SymbolTable table = symbolMaster.table();
+                int slot = table == null ? -1 : table.find(order.getSymbol());
+                if (slot < 0) {
+                    return ReasonCodes.OK;
+                }
+                long tick = table.tickSize(slot);
+                return onGrid(order.getLimitPrice(), tick) && onGrid(order.getStopPrice(), tick)
+                        ? ReasonCodes.OK : ReasonCodes.PRICE_NOT_ON_TICK;
+            }
+
+            @Override
+            public String describe(int reasonCode, OrderDTO order) {
+                return describeIncrement(reasonCode, symbolMaster, order, true);
+            }
+        });
+    }
+
+    /**
+     * Quantity must be a whole multiple of the instrument's lot size.
+     */
+    @Bean
+    public ValidationRuleFactory lotSizeRule(SymbolMaster symbolMaster) {
+        return new SimpleRuleFactory("lot-size", 3, 0.005, d -> new ValidationRule() {
+            @Override
+            public int check(OrderDTO order) {
+                SymbolTable table = symbolMaster.table();
+                int slot = table == null ? -1 : table.find(order.getSymbol());
+                if (slot < 0) {
+                    return ReasonCodes.OK;
+                }
+                return onGrid(order.getQuantity(), table.lotSize(slot)) ? ReasonCodes.OK : ReasonCodes.QUANTITY_NOT_ON_LOT;
+            }
+
+            @Override
+            public String describe(int reasonCode, OrderDTO order) {
+                return describeIncrement(reasonCode, symbolMaster, order, false);
+            }
+        });
+    }
+
+    /**
+     * Fat-finger check: limit and stop prices within limit percent (default 10) of the
+     * quote midpoint. Orders without a fresh quote pass.
+     */
+    @Bean
+    public ValidationRuleFactory priceBandRule(RiskCheckService riskCheckService) {
+        return new SimpleRuleFactory("price-band", 3, 0.005, d -> {
+            double band = (d.getLimit() != null ? d.getLimit().doubleValue() : 10) / 100;
+            return new ValidationRule() {
+                @Override
+                public int check(OrderDTO order) {
+                    if (order.getLimitPrice() == null && order.getStopPrice() == null) {
+                        return ReasonCodes.OK;
+                    }
+                    double reference = riskCheckService.referencePrice(order);
+                    if (Double.isNaN(reference)) {
+                        return ReasonCodes.OK;
+                    }
+                    return inBand(order.getLimitPrice(), reference, band) && inBand(order.getStopPrice(), reference, band)
+                            ? ReasonCodes.OK : ReasonCodes.PRICE_OUTSIDE_BAND;
+                }
+
+                @Override
+                public String describe(int reasonCode, OrderDTO order) {
+                    return "Price " + (order.getLimitPrice() != null ? order.getLimitPrice() : order.getStopPrice())
+                            + " is more than " + BigDecimal.valueOf(band * 100).stripTrailingZeros().toPlainString()
+                            + "% from the market " + riskCheckService.referencePrice(order) + " for " + order.getSymbol();
+                }
+            };
+        });
+    }
+
+    @Bean
+    public ValidationRuleFactory buyingPowerRule(ValidatorProperties properties, RiskCheckService riskCheckService) {
+        return new SimpleRuleFactory(BUYING_POWER, 10, 0.001, d ->
+                properties.getRisk().isCheckBuyingPower() ? riskCheckService::checkBuyingPower : null);
+    }
+
+    /**
+     * The limit is the maximum order value (default oms.validator.risk.max-order-value).
+     */
+    @Bean
+    public ValidationRuleFactory orderValueRule(ValidatorProperties properties, RiskCheckService riskCheckService) {
+        return new SimpleRuleFactory("order-value", 3, 0.01, d -> {
+            long maxOrderValue = d.getLimit() != null
+                    ? FixedPoint.fromBigDecimal(d.getLimit()) : FixedPoint.of(properties.getRisk().getMaxOrderValue());
+            return new ValidationRule() {
+                @Override
+                public int check(OrderDTO order) {
+                    return riskCheckService.checkOrderValue(order, maxOrderValue);
+                }
+
+                @Override
+                public String describe(int reasonCode, OrderDTO order) {
+                    return "Order value " + FixedPoint.toString(riskCheckService.orderValue(order))
+                            + " exceeds maximum " + FixedPoint.toString(maxOrderValue);
+                }
+            };
+        });
+    }
+
+    /**
+     * Worst-case position after the order, from the risk ledger. The limit is the maximum
+     * absolute position (default oms.validator.risk.max-position-size).
+     */
+    @Bean
+    public ValidationRuleFactory positionSizeRule(ValidatorProperties properties, RiskCheckService riskCheckService) {
+        return new SimpleRuleFactory(POSITION_SIZE, 10, 0.01, d -> {
+            long maxPositionSize = maxPositionSize(d, properties);
+            return new ValidationRule() {
+                @Override
+                public int check(OrderDTO order) {
+                    return riskCheckService.checkPositionLimits(order, maxPositionSize);
+                }
+
+                @Override
+                public String describe(int reasonCode, OrderDTO order) {
+                    return "Position after order of " + order.getQuantity() + " " + order.getSymbol()
+                            + " would exceed maximum position size " + FixedPoint.toString(maxPositionSize);
+                }
+            };
+        });
+    }
+
+    static long maxPositionSize(RuleDefinition definition, ValidatorProperties properties) {
+        return definition.getLimit() != null
+                ? FixedPoint.fromBigDecimal(definition.getLimit())
+                : FixedPoint.of(properties.getRisk().getMaxPositionSize());
+    }
+
+    /** Whether the value is a whole multiple of the fixed-point increment (absent values pass) */
+    private static boolean onGrid(BigDecimal value, long increment) {
+        if (value == null || increment <= 0) {
+            return true;
+        }
+        try {
+            return FixedPoint.fromBigDecimalExact(value) % increment == 0;
+        } catch (ArithmeticException e) {
+            // Finer than the table's scale, or out of range
+            return false;
+        }
+    }
+
+    private static boolean inBand(BigDecimal price, double reference, double band) {
+        return price == null || Math.abs(price.doubleValue() - reference) <= reference * band;
+    }
+
+    private static String describeIncrement(int reasonCode, SymbolMaster symbolMaster, OrderDTO order, boolean tick) {
+        SymbolTable table = symbolMaster.table();
+        int slot = table == null ? -1 : table.find(order.getSymbol());
+        if (slot < 0) {
+            return ReasonCodes.describe(reasonCode);
+        }
+        long increment = tick ? table.tickSize(slot) : table.lotSize(slot);
+        return ReasonCodes.describe(reasonCode) + " " + FixedPoint.toString(increment) + " for " + order.getSymbol();
+    }
+}
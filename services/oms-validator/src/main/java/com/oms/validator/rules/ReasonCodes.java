@@ -0,0 +1,75 @@
+package com.oms.validator.rules;
+
+import com.oms.common.risk.RiskCodes;
+
+/**
+ * Primitive rejection reason codes returned by {@link ValidationRule}s.
+ * Text is only produced for rejected orders, via {@link #describe(int)}.
+ */
+public final class ReasonCodes {
+
+    public static final int OK = 0;
+
+    // Order parameters
+    public static final int ORDER_ID_REQUIRED = 1;
+    public static final int SYMBOL_REQUIRED = 2;
+    public static final int QUANTITY_NOT_POSITIVE = 3;
+    public static final int SIDE_REQUIRED = 4;
+    public static final int ORDER_TYPE_REQUIRED = 5;
+    public static final int TIME_IN_FORCE_REQUIRED = 6;
+    public static final int LIMIT_PRICE_REQUIRED = 7;
+    public static final int STOP_PRICE_REQUIRED = 8;
+    public static final int INVALID_SYMBOL = 9;
+    public static final int SYMBOL_NOT_TRADABLE = 10;
+    public static final int SYMBOL_HALTED = 11;
+    public static final int PRICE_NOT_ON_TICK = 12;
+    public static final int QUANTITY_NOT_ON_LOT = 13;
+
+    // Risk (the ledger's codes come from common-risk, shared with risk-service)
+    public static final int INSUFFICIENT_BUYING_POWER = RiskCodes.INSUFFICIENT_BUYING_POWER;
+    public static final int ORDER_VALUE_EXCEEDED = 21;
+    public static final int POSITION_SIZE_EXCEEDED = RiskCodes.POSITION_SIZE_EXCEEDED;
+    public static final int PRICE_OUTSIDE_BAND = 23;
+    public static final int ACCOUNT_ORDER_RATE_EXCEEDED = 24;
+    public static final int ACCOUNT_NOTIONAL_RATE_EXCEEDED = 25;
+    public static final int SYMBOL_ORDER_RATE_EXCEEDED = 26;
+    public static final int SYMBOL_NOTIONAL_RATE_EXCEEDED = 27;
+    public static final int TOO_MANY_OPEN_ORDERS = RiskCodes.TOO_MANY_OPEN_ORDERS;
+
+    // Processing
+    public static final int UNREADABLE = 90;
+
+    private ReasonCodes() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static String describe(int code) {
+        return switch (code) {
+            case OK -> "OK";
+            case ORDER_ID_REQUIRED -> "Missing orderId";
+            case SYMBOL_REQUIRED -> "Symbol is required";
+            case QUANTITY_NOT_POSITIVE -> "Quantity must be positive";
+            case SIDE_REQUIRED -> "Side is required";
+            case ORDER_TYPE_REQUIRED -> "Order type is required";
+            case TIME_IN_FORCE_REQUIRED -> "Time in force is required";
+            case LIMIT_PRICE_REQUIRED -> "Limit price required for LIMIT orders";
+            case STOP_PRICE_REQUIRED -> "Stop price required for STOP orders";
+            case INVALID_SYMBOL -> "Invalid symbol";
+            case SYMBOL_NOT_TRADABLE -> "Symbol not tradable";
+            case SYMBOL_HALTED -> "Symbol halted";
+            case PRICE_NOT_ON_TICK -> "Price is not a multiple of the tick size";
+            case QUANTITY_NOT_ON_LOT -> "Quantity is not a multiple of the lot size";
+            case INSUFFICIENT_BUYING_POWER -> "Insufficient buying power";
+            case ORDER_VALUE_EXCEEDED -> "Order value exceeds maximum";
+            case POSITION_SIZE_EXCEEDED -> "Order quantity exceeds maximum position size";
+            case PRICE_OUTSIDE_BAND -> "Price outside the allowed band around the market";
+            case ACCOUNT_ORDER_RATE_EXCEEDED -> "Account order rate limit exceeded";
+            case ACCOUNT_NOTIONAL_RATE_EXCEEDED -> "Account notional rate limit exceeded";
+            case SYMBOL_ORDER_RATE_EXCEEDED -> "Symbol order rate limit exceeded";
+            case SYMBOL_NOTIONAL_RATE_EXCEEDED -> "Symbol notional rate limit exceeded";
+            case TOO_MANY_OPEN_ORDERS -> "Too many open orders";
+            case UNREADABLE -> "Validation error";
+            default -> "Rejected (" + code + ")";
+        };
+    }
+}
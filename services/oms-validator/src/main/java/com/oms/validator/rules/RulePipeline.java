@@ -0,0 +1,211 @@
+package com.oms.validator.rules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.config.ValidatorProperties.RuleDefinition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the validation rules over an order.
+ *
+ * The enabled rules are compiled once into a flat array ordered by cost / selectivity
+ * (cheap, often-failing rules first), so fail-fast mode rejects as early as possible.
+ * Rules return int reason codes; rejection text is only built for rejected orders.
+ * Each rule records its latency (oms.validator.rule.latency) and rejections.
+ *
+ * The rules section can also live in an external YAML file (oms.validator.rules.file,
+ * same oms.validator.rules layout); it is re-read when it changes and the new pipeline
+ * is swapped in atomically, without a restart. A file that fails to load or compile
+ * leaves the running pipeline in place.
+ */
+@Service
+@Slf4j
+public class RulePipeline {
+
+    private static final String FAIL_FAST = "fail-fast";
+
+    private final List<ValidationRuleFactory> factories;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Compiled compiled;
+    private long fileModified = -1;
+
+    /** Rejection of an order: the first failing rule's code and the text of every failure reported */
+    public record Rejection(int reasonCode, String reason) {
+    }
+
+    /**
+     * What the risk reservation re-checks, as the buying-power and position-size rules are
+     * configured: a disabled rule is not re-checked (maxPositionSize Long.MAX_VALUE).
+     */
+    public record RiskLimits(long maxPositionSize, boolean checkBuyingPower) {
+    }
+
+    private static final class CompiledRule {
+        final String name;
+        final ValidationRule rule;
+        final Timer latency;
+        final Counter rejections;
+
+        CompiledRule(String name, ValidationRule rule, Timer latency, Counter rejections) {
+            this.name = name;
+            this.rule = rule;
+            this.latency = latency;
+            this.rejections = rejections;
+        }
+    }
+
+    private record Compiled(CompiledRule[] rules, boolean failFast, RiskLimits riskLimits) {
+    }
+
+    public RulePipeline(List<ValidationRuleFactory> factories, ValidatorProperties properties,
+            MeterRegistry meterRegistry) {
+        this.factories = factories;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        compiled = compile(properties.getRules());
+        reloadIfChanged();
+    }
+
+    /**
+     * Limits of the pipeline currently running, for the reservation of an order it passed.
+     */
+    public RiskLimits riskLimits() {
+        return compiled.riskLimits();
+    }
+
+    /**
+     * Returns null when every rule passes, otherwise the rejection.
+     */
+    public Rejection evaluate(OrderDTO order) {
+        Compiled pipeline = compiled;
+        CompiledRule[] rules = pipeline.rules();
+
+        int firstCode = ReasonCodes.OK;
+        StringBuilder reasons = null;
+        for (CompiledRule compiledRule : rules) {
+            long start = System.nanoTime();
+            int code = compiledRule.rule.check(order);
+            compiledRule.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (code == ReasonCodes.OK) {
+                continue;
+            }
+
+            compiledRule.rejections.increment();
+            String reason = compiledRule.rule.describe(code, order);
+            if (pipeline.failFast()) {
+                return new Rejection(code, reason);
+            }
+            if (reasons == null) {
+                firstCode = code;
+                reasons = new StringBuilder(reason);
+            } else {
+                reasons.append("; ").append(reason);
+            }
+        }
+        return reasons == null ? null : new Rejection(firstCode, reasons.toString());
+    }
+
+    @Scheduled(fixedDelayString = "${oms.validator.rules.reload-interval-ms:5000}")
+    public synchronized void reloadIfChanged() {
+        String file = properties.getRules().getFile();
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        Path path = Path.of(file);
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == fileModified) {
+                return;
+            }
+            compiled = compile(load(path));
+            fileModified = modified;
+            log.info("Reloaded validation rules from {}", path);
+        } catch (Exception e) {
+            log.error("Failed to reload validation rules from {}, keeping the current pipeline: {}",
+                    path, e.getMessage());
+        }
+    }
+
+    /**
+     * Binds the file's rules section; a mode the file does not set stays the configured one.
+     */
+    private ValidatorProperties.Rules load(Path path) throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                .load("validation-rules", new FileSystemResource(path));
+        ValidatorProperties.Rules rules = new ValidatorProperties.Rules();
+        rules.setMode(properties.getRules().getMode());
+        return new Binder(ConfigurationPropertySources.from(sources))
+                .bind("oms.validator.rules", Bindable.ofInstance(rules))
+                .orElse(rules);
+    }
+
+    private Compiled compile(ValidatorProperties.Rules config) {
+        record Candidate(double rank, CompiledRule rule) {
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        long maxPositionSize = Long.MAX_VALUE;
+        boolean checkBuyingPower = false;
+        for (ValidationRuleFactory factory : factories) {
+            RuleDefinition definition = config.getDefinitions().getOrDefault(factory.name(), new RuleDefinition());
+            if (!definition.isEnabled()) {
+                continue;
+            }
+            ValidationRule rule = factory.create(definition);
+            if (rule == null) {
+                continue;
+            }
+            if (factory.name().equals(BuiltInRules.POSITION_SIZE)) {
+                maxPositionSize = BuiltInRules.maxPositionSize(definition, properties);
+            } else if (factory.name().equals(BuiltInRules.BUYING_POWER)) {
+                checkBuyingPower = true;
+            }
+            double cost = definition.getCost() != null ? definition.getCost() : factory.cost();
+            double selectivity = definition.getSelectivity() != null ? definition.getSelectivity() : factory.selectivity();
+            Timer latency = Timer.builder("oms.validator.rule.latency")
+                    .tag("rule", factory.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Counter rejections = Counter.builder("oms.validator.rule.rejections")
+                    .tag("rule", factory.name())
+                    .register(meterRegistry);
+            candidates.add(new Candidate(cost / Math.max(selectivity, 1e-6),
+                    new CompiledRule(factory.name(), rule, latency, rejections)));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::rank));
+
+        CompiledRule[] rules = candidates.stream().map(Candidate::rule).toArray(CompiledRule[]::new);
+        boolean failFast = FAIL_FAST.equalsIgnoreCase(config.getMode());
+        log.info("Compiled {} validation rules ({}): {}", rules.length, failFast ? FAIL_FAST : "collect-all",
+                candidates.stream().map(c -> c.rule().name).toList());
+        return new Compiled(rules, failFast, new RiskLimits(maxPositionSize, checkBuyingPower));
+    }
+}
@@ -0,0 +1,24 @@
+package com.oms.validator.rules;
+
+import com.oms.common.model.OrderDTO;
+
+/**
+ * One compiled validation check. Rules run in cost/selectivity order, not declaration
+ * order, so a rule must tolerate orders that another rule rejects (e.g. null fields).
+ */
+@FunctionalInterface
+public interface ValidationRule {
+
+    /**
+     * Returns {@link ReasonCodes#OK} when the order passes, otherwise its reason code.
+     * Called for every order: keep it allocation-free.
+     */
+    int check(OrderDTO order);
+
+    /**
+     * Rejection text for a code this rule returned; only called for rejected orders.
+     */
+    default String describe(int reasonCode, OrderDTO order) {
+        return ReasonCodes.describe(reasonCode);
+    }
+}
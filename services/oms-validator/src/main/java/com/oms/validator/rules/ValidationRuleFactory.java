@@ -0,0 +1,24 @@
+package com.oms.validator.rules;
+
+import com.oms.validator.config.ValidatorProperties.RuleDefinition;
+
+/**
+ * Named source of a {@link ValidationRule}. Every factory bean is a rule the pipeline can
+ * run; oms.validator.rules.definitions.&lt;name&gt; can disable it, override its ordering
+ * hints or set its limit.
+ */
+public interface ValidationRuleFactory {
+
+    String name();
+
+    /** Relative cost of one check (1 = a field comparison) */
+    double cost();
+
+    /** Expected share of orders the rule rejects */
+    double selectivity();
+
+    /**
+     * Builds the rule for the given definition, or returns null when it does not apply.
+     */
+    ValidationRule create(RuleDefinition definition);
+}
@@ -0,0 +1,151 @@
+package com.oms.validator.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.oms.validator.config.ValidatorProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-drives dead-lettered orders from orders.inbound.dlq back into orders.inbound.
+ *
+ * Reads the DLQ with its own consumer group, so each record is replayed once: a run
+ * replays up to maxRecords of what was in the DLQ when it started and commits the
+ * group's offsets after the batch is acked. The retry attempt and due-time headers
+ * are dropped, so a replayed record goes through every retry tier again; the
+ * original-* and exception headers stay for auditing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DlqReplayService {
+
+    static final String REPLAY_GROUP = "oms-validator-dlq-replay";
+    private static final int MAX_IDLE_POLLS = 5;
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final RetryTopicRouter retryTopicRouter;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public record ReplayResult(String from, String to, int replayed, boolean drained) {
+    }
+
+    public synchronized ReplayResult replay(int maxRecords) {
+        String dlqTopic = retryTopicRouter.dlqTopic();
+        String target = properties.getTopics().getIngest();
+        int replayed = 0;
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null)) {
+            List<PartitionInfo> infos = consumer.partitionsFor(dlqTopic);
+            if (infos == null || infos.isEmpty()) {
+                return new ReplayResult(dlqTopic, target, 0, true);
+            }
+            List<TopicPartition> partitions = infos.stream()
+                    .map(info -> new TopicPartition(dlqTopic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            // Records dead-lettered while replaying wait for the next run
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            int idlePolls = 0;
+            while (replayed < maxRecords && !caughtUp(consumer, endOffsets) && idlePolls < MAX_IDLE_POLLS) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(500));
+                idlePolls = records.isEmpty() ? idlePolls + 1 : 0;
+                List<ProducerRecord<String, byte[]>> batch = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+                    if (replayed + batch.size() >= maxRecords || record.offset() >= endOffsets.get(tp)) {
+                        continue;
+                    }
+                    batch.add(toInbound(record, target));
+                    offsets.put(tp, new OffsetAndMetadata(record.offset() + 1));
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                send(batch);
+                consumer.commitSync(offsets);
+                replayed += batch.size();
+            }
+
+            boolean drained = caughtUp(consumer, endOffsets);
+            log.info("Replayed {} orders from {} to {} (drained: {})", replayed, dlqTopic, target, drained);
+            Counter.builder("oms.validator.dlq.replayed")
+                    .tag("service", "oms-validator")
+                    .register(meterRegistry)
+                    .increment(replayed);
+            return new ReplayResult(dlqTopic, target, replayed, drained);
+        }
+    }
+
+    private void send(List<ProducerRecord<String, byte[]>> batch) {
+        if (kafkaTemplate.isTransactional()) {
+            // Transactional consumer mode: the producer only sends inside a transaction
+            kafkaTemplate.executeInTransaction((KafkaOperations<String, byte[]> ops) -> {
+                batch.forEach(ops::send);
+                return null;
+            });
+            return;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (ProducerRecord<String, byte[]> record : batch) {
+            sends.add(kafkaTemplate.send(record));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.getConsumer().getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Offsets are not committed, so the next run replays this batch again
+            throw new IllegalStateException("Failed to replay batch of " + batch.size() + " orders", e);
+        }
+    }
+
+    private static ProducerRecord<String, byte[]> toInbound(ConsumerRecord<String, byte[]> record, String target) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().equals(RetryTopicRouter.HEADER_ATTEMPT)
+                    && !header.key().equals(RetryTopicRouter.HEADER_DUE_AT)) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(target, null, record.key(), record.value(), headers);
+    }
+
+    private static boolean caughtUp(Consumer<String, byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
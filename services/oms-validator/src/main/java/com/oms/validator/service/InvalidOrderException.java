@@ -0,0 +1,12 @@
+package com.oms.validator.service;
+
+/**
+ * An inbound record that can never be processed (unreadable payload or no orderId).
+ * {@link RetryTopicRouter} sends it straight to the dead letter topic, skipping the retry tiers.
+ */
+public class InvalidOrderException extends RuntimeException {
+
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,158 @@
+package com.oms.validator.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.common.model.OrderDTO;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.model.ValidatedOrder;
+import com.oms.validator.repository.ValidatedOrderRepository;
+import com.oms.validator.service.OrderValidationService.ValidationResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch mode of the orders.inbound consumer (oms.validator.consumer.mode=batch).
+ *
+ * Each poll (up to oms.validator.consumer.batch-size records) is handled as a unit:
+ * one idempotency query for the whole batch, in-memory validation, one batched insert,
+ * all publishes in flight together, then a single ack once every publish is confirmed.
+ * A failure fails the whole batch: the transaction rolls back and the container's error
+ * handler moves every record of the poll to the first retry topic ({@link RetryTopicRouter}),
+ * where they are retried one by one. Unreadable records go straight to the dead letter topic,
+ * but only once the batch has committed: a batch that fails after them hands them to the
+ * error handler with the rest, and they must not be dead-lettered twice.
+ */
+@Service
+@ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "batch")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBatchConsumer {
+
+    private final OrderValidationService validationService;
+    private final ValidatedOrderRepository validatedOrderRepository;
+    private final OrderPublisher orderPublisher;
+    private final RetryTopicRouter retryTopicRouter;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @KafkaListener(
+        topics = "${oms.validator.topics.ingest}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    @Transactional
+    public void consumeOrders(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        log.debug("Consuming batch of {} orders", records.size());
+        DistributionSummary.builder("oms.validator.batch.size")
+                .description("Records per batch listener call")
+                .register(meterRegistry)
+                .record(records.size());
+
+        // 1. Validate in memory; a redelivered order may appear twice, keep the first
+        Map<UUID, ValidationResult> results = new LinkedHashMap<>();
+        List<ConsumerRecord<String, byte[]>> unreadable = new ArrayList<>();
+        List<String> unreadableReasons = new ArrayList<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            ValidationResult result = validationService.validateOrder(record.value(),
+                    OrderWireFormat.of(record.headers()), RetryTopicRouter.isRedelivery(record.headers()));
+            OrderDTO order = result.getOrder();
+            if (order == null || order.getOrderId() == null) {
+                log.error("Invalid order at partition {} offset {}, dead-lettering", record.partition(), record.offset());
+                incrementCounter("orders.invalid");
+                unreadable.add(record);
+                unreadableReasons.add(result.getRejectionReason());
+                continue;
+            }
+            if (results.putIfAbsent(order.getOrderId(), result) != null) {
+                incrementCounter("orders.duplicate");
+            }
+        }
+
+        // 2. Idempotency check for the whole batch in one query
+        Set<UUID> existing = results.isEmpty() ? Set.of() : new HashSet<>(
+                validatedOrderRepository.findExistingOrderIds(results.keySet().toArray(UUID[]::new)));
+
+        // 3. Persist with one batched insert
+        List<ValidatedOrder> toSave = new ArrayList<>(results.size());
+        List<ValidationResult> toPublish = new ArrayList<>(results.size());
+        for (ValidationResult result : results.values()) {
+            if (existing.contains(result.getOrder().getOrderId())) {
+                log.info("Order {} already processed, skipping", result.getOrder().getOrderId());
+                incrementCounter("orders.duplicate");
+                continue;
+            }
+            toSave.add(ValidatedOrderMapper.toValidatedOrder(result.getOrder(), result));
+            toPublish.add(result);
+        }
+        validatedOrderRepository.saveAll(toSave);
+
+        // 4. Publish everything, then wait for the broker acks together
+        List<CompletableFuture<?>> sends = new ArrayList<>(toPublish.size());
+        for (ValidationResult result : toPublish) {
+            if (result.isValid()) {
+                sends.add(orderPublisher.publishValidated(result.getOrder()));
+                incrementCounter("orders.validated");
+            } else {
+                sends.add(orderPublisher.publishRejected(result.getOrder(), result.getRejectionReason()));
+                incrementCounter("orders.rejected");
+            }
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.getConsumer().getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            incrementCounter("orders.errors");
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Don't acknowledge - the error handler moves the batch to the retry topic
+            throw new IllegalStateException("Failed to publish batch of " + sends.size() + " orders", e);
+        }
+
+        // 5. Dead-letter the unreadable records once the batch is committed, then acknowledge it
+        if (!unreadable.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (int i = 0; i < unreadable.size(); i++) {
+                        retryTopicRouter.accept(unreadable.get(i), new InvalidOrderException(unreadableReasons.get(i)));
+                    }
+                }
+            });
+        }
+        acknowledgment.acknowledge();
+        Counter.builder("oms.validator.orders.processed")
+                .tag("service", "oms-validator")
+                .register(meterRegistry)
+                .increment(toPublish.size());
+    }
+
+    private void incrementCounter(String name) {
+        Counter.builder("oms.validator." + name)
+                .tag("service", "oms-validator")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,17 +1,12 @@
 package com.oms.validator.service;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.oms.common.model.OrderDTO;
-import com.oms.validator.model.ValidatedOrder;
-import com.oms.validator.repository.ValidatedOrderRepository;
-import com.oms.validator.service.OrderValidationService.ValidationResult;
+import com.oms.common.kafka.OrderWireFormat;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -28,15 +23,20 @@ import lombok.extern.slf4j.Slf4j;
  * 3. Persist to validated_orders table (own table)
  * 4. Publish to orders.validated or orders.rejected (direct Kafka - Option 2)
  * 5. Acknowledge Kafka offset
+ * Steps 2-4 live in {@link OrderProcessor}. A failing record leaves the partition at once
+ * through the retry topics and the dead letter topic ({@link RetryTopicRouter}).
+ *
+ * Per-record mode (oms.validator.consumer.mode=record, or the property unset; the shipped
+ * application.yml selects batch); see {@link OrderBatchConsumer},
+ * {@link OrderParallelConsumer} and {@link OrderTransactionalConsumer} for the other modes.
  */
 @Service
+@ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "record", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class OrderConsumer {
 
-    private final OrderValidationService validationService;
-    private final ValidatedOrderRepository validatedOrderRepository;
-    private final OrderPublisher orderPublisher;
+    private final OrderProcessor orderProcessor;
     private final MeterRegistry meterRegistry;
 
     @KafkaListener(
@@ -44,85 +44,28 @@ public class OrderConsumer {
         groupId = "${spring.kafka.consumer.group-id}",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    @Transactional
-    public void consumeOrder(
-            @Payload String orderJson,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-
-        log.info("Consuming order from partition {} offset {}: key={}", partition, offset, key);
+    public void consumeOrder(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        int partition = record.partition();
+        long offset = record.offset();
+        log.info("Consuming order from partition {} offset {}: key={}", partition, offset, record.key());
 
         try {
-            // 1. Validate order
-            ValidationResult result = validationService.validateOrder(orderJson);
-            OrderDTO order = result.getOrder();
-
-            if (order == null || order.getOrderId() == null) {
-                log.error("Invalid order received, cannot process");
-                acknowledgment.acknowledge(); // Skip bad message
-                incrementCounter("orders.invalid");
-                return;
-            }
-
-            // 2. Idempotency check - skip if already processed
-            if (validatedOrderRepository.existsByOrderId(order.getOrderId())) {
-                log.info("Order {} already processed, skipping", order.getOrderId());
-                acknowledgment.acknowledge();
-                incrementCounter("orders.duplicate");
-                return;
-            }
-
-            // 3. Persist validation result to own table
-            ValidatedOrder validatedOrder = toValidatedOrder(order, result);
-            validatedOrderRepository.save(validatedOrder);
-            log.debug("Persisted validation result for order {}: {}", 
-                    order.getOrderId(), validatedOrder.getValidationStatus());
+            orderProcessor.process(record.value(), OrderWireFormat.of(record.headers()),
+                    RetryTopicRouter.isRedelivery(record.headers()));
 
-            // 4. Publish to next topic (direct Kafka - acceptable for POC)
-            if (result.isValid()) {
-                orderPublisher.publishValidated(order);
-                incrementCounter("orders.validated");
-                log.info("Order {} validated and published", order.getOrderId());
-            } else {
-                orderPublisher.publishRejected(order, result.getRejectionReason());
-                incrementCounter("orders.rejected");
-                log.warn("Order {} rejected: {}", order.getOrderId(), result.getRejectionReason());
-            }
-
-            // 5. Acknowledge Kafka offset after successful processing
+            // Acknowledge Kafka offset after successful processing
             acknowledgment.acknowledge();
-            incrementCounter("orders.processed");
 
         } catch (Exception e) {
             log.error("Error processing order from partition {} offset {}: {}", 
                     partition, offset, e.getMessage(), e);
             incrementCounter("orders.errors");
-            // Don't acknowledge - message will be redelivered
+            // Don't acknowledge - the container's error handler moves the record to the
+            // next retry topic (or the dead letter topic) and commits its offset
             throw e;
         }
     }
 
-    private ValidatedOrder toValidatedOrder(OrderDTO order, ValidationResult result) {
-        return ValidatedOrder.builder()
-                .orderId(order.getOrderId())
-                .clientOrderId(order.getClientOrderId())
-                .accountId(order.getAccountId())
-                .symbol(order.getSymbol())
-                .side(ValidatedOrder.OrderSide.valueOf(order.getSide().name()))
-                .orderType(ValidatedOrder.OrderType.valueOf(order.getOrderType().name()))
-                .quantity(order.getQuantity())
-                .limitPrice(order.getLimitPrice())
-                .stopPrice(order.getStopPrice())
-                .timeInForce(ValidatedOrder.TimeInForce.valueOf(order.getTimeInForce().name()))
-                .validationStatus(result.isValid() 
-                        ? ValidatedOrder.ValidationStatus.VALIDATED 
-                        : ValidatedOrder.ValidationStatus.REJECTED)
-                .rejectionReason(result.getRejectionReason())
-                .build();
-    }
-
     private void incrementCounter(String name) {
         Counter.builder("oms.validator." + name)
                 .tag("service", "oms-validator")
@@ -0,0 +1,315 @@
+package com.oms.validator.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.validator.config.ValidatorProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Key-ordered parallel mode of the orders.inbound consumer (oms.validator.consumer.mode=parallel).
+ *
+ * One poll loop per instance hands records to virtual threads. Records with the same key
+ * (orderId) are chained and run strictly in offset order; records with different keys,
+ * even from the same partition, run concurrently, so a hot partition is no longer bound
+ * to one thread.
+ *
+ * Per partition, the committed offset is the lowest offset still in flight (or the next
+ * offset to poll when nothing is), so a crash or rebalance only redelivers records that
+ * had not finished; processing is idempotent on orderId. A failing record is moved to the
+ * retry topics ({@link RetryTopicRouter}) instead of holding its key. When more than max-in-flight
+ * records are outstanding the assignment is paused until workers catch up. A failed poll
+ * loop is restarted with backoff rather than leaving the topic unconsumed.
+ */
+@Service
+@ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "parallel")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderParallelConsumer {
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final OrderProcessor orderProcessor;
+    private final RetryTopicRouter retryTopicRouter;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CompletableFuture<Void>> keyTails = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread pollThread;
+
+    /**
+     * Offsets of one partition: the in-flight set is shared with workers, next is owned
+     * by the poll thread.
+     */
+    private static final class PartitionOffsets {
+        final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+        long next = -1;
+        long committed = -1;
+
+        long committable() {
+            Long lowest = inFlight.isEmpty() ? null : inFlight.first();
+            return lowest != null ? lowest : next;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Gauge.builder("oms.validator.parallel.in_flight", inFlight, AtomicInteger::get)
+                .description("Records handed to workers and not yet complete")
+                .register(meterRegistry);
+
+        running = true;
+        pollThread = new Thread(this::run, "validator-parallel-consumer");
+        pollThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The poll loop notices within one poll timeout, then drains and commits synchronously
+        running = false;
+        if (pollThread != null) {
+            pollThread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        executor.close();
+    }
+
+    /**
+     * Runs the poll loop until shutdown. A failed loop (commit, poll or rebalance callback)
+     * has closed its consumer and so lost its partitions: in-flight work is drained, the
+     * partition state dropped, and the loop resubscribes after a backoff; records not
+     * committed are redelivered.
+     */
+    private void run() {
+        long backoffMs = 100;
+        while (running) {
+            try {
+                pollLoop();
+                backoffMs = 100;
+            } catch (Exception e) {
+                log.error("Parallel consumer poll loop failed, resubscribing in {} ms: {}", backoffMs,
+                        e.getMessage(), e);
+                drain(partitions.keySet(), properties.getConsumer().getParallel().getRevokeTimeoutMs());
+                partitions.clear();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void pollLoop() {
+        ValidatorProperties.Parallel config = properties.getConsumer().getParallel();
+        try (Consumer<String, byte[]> c = consumerFactory.createConsumer()) {
+            c.subscribe(List.of(properties.getTopics().getIngest()), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+                    drain(revoked, config.getRevokeTimeoutMs());
+                    commit(c, true);
+                    revoked.forEach(partitions::remove);
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+                    assigned.forEach(tp -> partitions.putIfAbsent(tp, new PartitionOffsets()));
+                }
+            });
+
+            long lastCommit = System.nanoTime();
+            boolean paused = false;
+            while (running) {
+                ConsumerRecords<String, byte[]> records = c.poll(Duration.ofMillis(config.getPollTimeoutMs()));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    dispatch(record);
+                }
+
+                // Backpressure: stop fetching while too much is outstanding, keep polling for liveness
+                if (!paused && inFlight.get() >= config.getMaxInFlight()) {
+                    c.pause(c.assignment());
+                    paused = true;
+                } else if (paused && inFlight.get() < config.getMaxInFlight() / 2) {
+                    c.resume(c.paused());
+                    paused = false;
+                }
+
+                if (System.nanoTime() - lastCommit >= TimeUnit.MILLISECONDS.toNanos(config.getCommitIntervalMs())) {
+                    commit(c, false);
+                    lastCommit = System.nanoTime();
+                }
+            }
+
+            drain(c.assignment(), config.getRevokeTimeoutMs());
+            commit(c, true);
+        }
+    }
+
+    private void dispatch(ConsumerRecord<String, byte[]> record) {
+        TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+        PartitionOffsets offsets = partitions.computeIfAbsent(tp, p -> new PartitionOffsets());
+        offsets.inFlight.add(record.offset());
+        offsets.next = record.offset() + 1;
+        inFlight.incrementAndGet();
+
+        // Records without a key have no ordering constraint of their own
+        String key = record.key() != null ? record.key() : tp + "@" + record.offset();
+        keyTails.compute(key, (k, tail) -> {
+            CompletableFuture<Void> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            CompletableFuture<Void> next = previous.thenRunAsync(() -> processOrRoute(record), executor);
+            next.whenComplete((v, ex) -> {
+                if (ex == null) {
+                    // An aborted record (shutdown) stays in flight so its offset is never committed
+                    offsets.inFlight.remove(record.offset());
+                }
+                inFlight.decrementAndGet();
+                keyTails.remove(k, next);
+            });
+            return next;
+        });
+    }
+
+    /**
+     * Processes a record; a failing one is handed to the retry topics at once, so neither
+     * its key nor the partition's committed offset waits for it.
+     */
+    private void processOrRoute(ConsumerRecord<String, byte[]> record) {
+        try {
+            orderProcessor.process(record.value(), OrderWireFormat.of(record.headers()),
+                    RetryTopicRouter.isRedelivery(record.headers()))
+                    .get(properties.getConsumer().getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted processing offset " + record.offset(), e);
+        } catch (Exception e) {
+            log.error("Error processing order from partition {} offset {}: {}",
+                    record.partition(), record.offset(), e.getMessage());
+            Counter.builder("oms.validator.orders.errors")
+                    .tag("service", "oms-validator")
+                    .register(meterRegistry)
+                    .increment();
+            routeWithRetry(record, e);
+        }
+    }
+
+    /**
+     * Retries the forward to the retry topics with backoff until it succeeds. Only this key
+     * waits, and the partition's committed offset stays below the record so it is
+     * redelivered if the instance stops first. Throws when aborted by shutdown, which also
+     * stops the rest of the key's chain.
+     */
+    private void routeWithRetry(ConsumerRecord<String, byte[]> record, Exception failure) {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                retryTopicRouter.accept(record, failure);
+                return;
+            } catch (Exception e) {
+                log.error("Error routing failed order from partition {} offset {}, retrying in {} ms: {}",
+                        record.partition(), record.offset(), backoffMs, e.getMessage());
+                if (!running) {
+                    throw new IllegalStateException("Shutting down, offset " + record.offset() + " not processed", e);
+                }
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted processing offset " + record.offset(), ie);
+                }
+                backoffMs = Math.min(backoffMs * 2, 10_000);
+            }
+        }
+    }
+
+    /**
+     * Commits every partition whose committable offset moved. The offset is only recorded as
+     * committed once the broker has acknowledged it (async callbacks run on the poll
+     * thread), so a failed commit is sent again with the next one.
+     */
+    private void commit(Consumer<String, byte[]> c, boolean sync) {
+        Map<TopicPartition, OffsetAndMetadata> toCommit = new HashMap<>();
+        partitions.forEach((tp, offsets) -> {
+            long committable = offsets.committable();
+            if (committable > offsets.committed) {
+                toCommit.put(tp, new OffsetAndMetadata(committable));
+            }
+        });
+        if (toCommit.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            c.commitSync(toCommit);
+            recordCommitted(toCommit);
+        } else {
+            c.commitAsync(toCommit, (committed, ex) -> {
+                if (ex != null) {
+                    log.warn("Offset commit failed, will retry with the next commit: {}", ex.getMessage());
+                } else {
+                    recordCommitted(committed);
+                }
+            });
+        }
+    }
+
+    private void recordCommitted(Map<TopicPartition, OffsetAndMetadata> committed) {
+        committed.forEach((tp, offset) -> {
+            PartitionOffsets offsets = partitions.get(tp);
+            if (offsets != null) {
+                offsets.committed = Math.max(offsets.committed, offset.offset());
+            }
+        });
+    }
+
+    /**
+     * Waits (bounded) for in-flight records of the given partitions to finish, so their
+     * offsets can be committed before the partitions move to another consumer.
+     */
+    private void drain(Collection<TopicPartition> tps, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (TopicPartition tp : tps) {
+            PartitionOffsets offsets = partitions.get(tp);
+            while (offsets != null && !offsets.inFlight.isEmpty() && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.oms.validator.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.common.model.OrderDTO;
+import com.oms.validator.model.ValidatedOrder;
+import com.oms.validator.repository.ValidatedOrderRepository;
+import com.oms.validator.service.OrderValidationService.ValidationResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-order validation flow shared by the per-record and parallel consumers:
+ * validate, idempotency check, persist to validated_orders, publish.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderProcessor {
+
+    private final OrderValidationService validationService;
+    private final ValidatedOrderRepository validatedOrderRepository;
+    private final OrderPublisher orderPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Processes one inbound order in its own transaction. Returns the publish future
+     * (already complete when nothing was published); callers that commit offsets
+     * themselves should wait for it first. Throws {@link InvalidOrderException} for a
+     * record that can never be processed.
+     *
+     * @param redelivered see {@link OrderValidationService#validateOrder}
+     */
+    @Transactional
+    public CompletableFuture<?> process(byte[] payload, OrderWireFormat format, boolean redelivered) {
+        // 1. Validate order
+        ValidationResult result = validationService.validateOrder(payload, format, redelivered);
+        OrderDTO order = result.getOrder();
+
+        if (order == null || order.getOrderId() == null) {
+            log.error("Invalid order received, cannot process");
+            incrementCounter("orders.invalid");
+            // Permanent failure: the caller's recoverer dead-letters the record
+            throw new InvalidOrderException(result.getRejectionReason());
+        }
+
+        // 2. Idempotency check - skip if already processed
+        if (validatedOrderRepository.existsByOrderId(order.getOrderId())) {
+            log.info("Order {} already processed, skipping", order.getOrderId());
+            incrementCounter("orders.duplicate");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // 3. Persist validation result to own table
+        ValidatedOrder validatedOrder = ValidatedOrderMapper.toValidatedOrder(order, result);
+        validatedOrderRepository.save(validatedOrder);
+        log.debug("Persisted validation result for order {}: {}", 
+                order.getOrderId(), validatedOrder.getValidationStatus());
+
+        // 4. Publish to next topic (direct Kafka - acceptable for POC)
+        CompletableFuture<?> publish;
+        if (result.isValid()) {
+            publish = orderPublisher.publishValidated(order);
+            incrementCounter("orders.validated");
+            log.info("Order {} validated and published", order.getOrderId());
+        } else {
+            publish = orderPublisher.publishRejected(order, result.getRejectionReason());
+            incrementCounter("orders.rejected");
+            log.warn("Order {} rejected: {}", order.getOrderId(), result.getRejectionReason());
+        }
+
+        incrementCounter("orders.processed");
+        return publish;
+    }
+
+    private void incrementCounter(String name) {
+        Counter.builder("oms.validator." + name)
+                .tag("service", "oms-validator")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,9 +1,16 @@
 package com.oms.validator.service;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import tools.jackson.databind.ObjectMapper;
+import com.oms.common.kafka.OrderSerializer;
+import com.oms.common.kafka.OrderWireFormat;
 import com.oms.common.model.OrderDTO;
 import com.oms.validator.config.ValidatorProperties;
 
@@ -11,24 +18,32 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Publishes validated/rejected orders to Kafka
+ * Publishes validated/rejected orders to Kafka.
+ * Validated orders go out through the shared {@link OrderSerializer}, in the configured
+ * wire format (oms.validator.wire-format); rejection events are always JSON. Both carry
+ * the content-type header.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderPublisher {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final OrderSerializer orderSerializer;
     private final ValidatorProperties properties;
 
-    public void publishValidated(OrderDTO order) {
+    /**
+     * Sends asynchronously; the returned future completes when the broker acks.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> publishValidated(OrderDTO order) {
         try {
-            String payload = objectMapper.writeValueAsString(order);
             String topic = properties.getTopics().getValidated();
             String key = order.getOrderId().toString();
+            RecordHeaders headers = new RecordHeaders();
+            byte[] payload = orderSerializer.serialize(topic, headers, order);
 
-            kafkaTemplate.send(topic, key, payload)
+            return kafkaTemplate.send(new ProducerRecord<>(topic, null, key, payload, headers))
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("Published validated order {} to {}", order.getOrderId(), topic);
@@ -42,14 +57,17 @@ public class OrderPublisher {
         }
     }
 
-    public void publishRejected(OrderDTO order, String reason) {
+    /**
+     * Sends asynchronously; the returned future completes when the broker acks.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> publishRejected(OrderDTO order, String reason) {
         try {
             RejectedOrderEvent event = new RejectedOrderEvent(order, reason);
-            String payload = objectMapper.writeValueAsString(event);
+            byte[] payload = objectMapper.writeValueAsBytes(event);
             String topic = properties.getTopics().getRejected();
             String key = order != null ? order.getOrderId().toString() : "unknown";
 
-            kafkaTemplate.send(topic, key, payload)
+            return kafkaTemplate.send(record(topic, key, payload, OrderWireFormat.JSON))
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("Published rejected order {} to {}: {}", key, topic, reason);
@@ -63,5 +81,12 @@ public class OrderPublisher {
         }
     }
 
+    private static ProducerRecord<String, byte[]> record(String topic, String key, byte[] payload,
+            OrderWireFormat format) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
+        format.mark(record.headers());
+        return record;
+    }
+
     private record RejectedOrderEvent(OrderDTO order, String rejectionReason) {}
 }
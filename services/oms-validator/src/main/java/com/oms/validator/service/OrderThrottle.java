@@ -0,0 +1,89 @@
+package com.oms.validator.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Service;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.common.throttle.OrderRateLimiter;
+import com.oms.common.throttle.OrderRateLimiter.Breach;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.rules.ReasonCodes;
+
+/**
+ * Per-account and per-symbol order-rate and notional velocity limits (oms.validator.throttle).
+ *
+ * Not a pipeline rule: an order is only counted once it has passed every rule, right
+ * before its risk reservation, so orders rejected for other reasons use no budget. Each
+ * order is counted once: redelivered records (retry tiers, DLQ replays) are not counted
+ * again, and an order polled again after a rebalance gets its earlier verdict from a
+ * memo of recent orders, if it is still there, before the orderId idempotency check skips it.
+ *
+ * The memo is a preallocated table of recent-orders slots indexed by the orderId hash; a
+ * slot packs the hash (high 48 bits) and the verdict (low 16 bits), so a lookup takes no
+ * lock and allocates nothing. A newer order in the same slot overwrites the older one.
+ */
+@Service
+public class OrderThrottle {
+
+    private final RiskCheckService riskCheckService;
+    private final OrderRateLimiter limiter;
+    private final AtomicLongArray counted;
+    private final int mask;
+
+    public OrderThrottle(ValidatorProperties properties, RiskCheckService riskCheckService) {
+        this.riskCheckService = riskCheckService;
+        ValidatorProperties.Throttle config = properties.getThrottle();
+        this.limiter = new OrderRateLimiter(new OrderRateLimiter.Limits(config.getAccountOrders(),
+                config.getAccountNotional(), config.getSymbolOrders(), config.getSymbolNotional(),
+                config.getWindowMs(), config.getBuckets(), config.getStripes()));
+        int slots = Integer.highestOneBit(Math.max(1, Math.min(config.getRecentOrders(), 1 << 30)));
+        this.counted = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Counts a valid order against its limits.
+     *
+     * @param redelivered the record has been through a retry tier or the dead letter topic
+     * @return {@link ReasonCodes#OK} or the rate limit it exceeds
+     */
+    public int check(OrderDTO order, boolean redelivered) {
+        if (!limiter.isEnabled() || redelivered) {
+            return ReasonCodes.OK;
+        }
+        long hash = hash(order);
+        int slot = (int) hash & mask;
+        long tag = hash & ~0xFFFFL;
+        long earlier = counted.get(slot);
+        if (earlier != 0 && (earlier & ~0xFFFFL) == tag) {
+            return (int) (earlier & 0xFFFF);
+        }
+        Breach breach = limiter.acquire(order.getAccountId(), order.getSymbol(), riskCheckService.notional(order));
+        int reasonCode = switch (breach) {
+            case NONE -> ReasonCodes.OK;
+            case ACCOUNT_ORDER_RATE -> ReasonCodes.ACCOUNT_ORDER_RATE_EXCEEDED;
+            case ACCOUNT_NOTIONAL_RATE -> ReasonCodes.ACCOUNT_NOTIONAL_RATE_EXCEEDED;
+            case SYMBOL_ORDER_RATE -> ReasonCodes.SYMBOL_ORDER_RATE_EXCEEDED;
+            case SYMBOL_NOTIONAL_RATE -> ReasonCodes.SYMBOL_NOTIONAL_RATE_EXCEEDED;
+        };
+        counted.set(slot, tag | reasonCode);
+        return reasonCode;
+    }
+
+    /** orderId hash with the high 48 bits never all zero, so 0 marks an empty slot */
+    private static long hash(OrderDTO order) {
+        long h = order.getOrderId().getMostSignificantBits() * 0x9E3779B97F4A7C15L
+                ^ order.getOrderId().getLeastSignificantBits();
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (h & ~0xFFFFL) != 0 ? h : h | 0x10000L;
+    }
+
+    public String describe(int reasonCode, OrderDTO order) {
+        boolean account = reasonCode == ReasonCodes.ACCOUNT_ORDER_RATE_EXCEEDED
+                || reasonCode == ReasonCodes.ACCOUNT_NOTIONAL_RATE_EXCEEDED;
+        return ReasonCodes.describe(reasonCode) + " for " + (account ? order.getAccountId() : order.getSymbol());
+    }
+}
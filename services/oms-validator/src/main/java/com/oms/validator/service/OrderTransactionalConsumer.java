@@ -0,0 +1,97 @@
+package com.oms.validator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.common.model.OrderDTO;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.model.ValidatedOrder;
+import com.oms.validator.service.OrderValidationService.ValidationResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exactly-once mode of the orders.inbound consumer (oms.validator.consumer.mode=transactional).
+ *
+ * The listener container wraps each poll in a Kafka transaction: the validated/rejected
+ * records produced here and the consumed offsets (sendOffsetsToTransaction) commit or
+ * abort together. An aborted batch is redelivered and its output is never visible to
+ * read_committed consumers, so no per-message database idempotency check is needed.
+ * validated_orders becomes an optional projection written after commit.
+ *
+ * After a rollback the container's after-rollback processor moves the batch to the first
+ * retry topic in a new transaction ({@link RetryTopicRouter}); unreadable records are
+ * dead-lettered inside the batch's own transaction.
+ */
+@Service
+@ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "transactional")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderTransactionalConsumer {
+
+    private final OrderValidationService validationService;
+    private final OrderPublisher orderPublisher;
+    private final RetryTopicRouter retryTopicRouter;
+    private final ValidatedOrderProjection projection;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @KafkaListener(
+        topics = "${oms.validator.topics.ingest}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "transactionalKafkaListenerContainerFactory"
+    )
+    public void consumeOrders(List<ConsumerRecord<String, byte[]>> records) {
+        log.debug("Consuming transactional batch of {} orders", records.size());
+
+        List<ValidatedOrder> rows = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            ValidationResult result = validationService.validateOrder(record.value(),
+                    OrderWireFormat.of(record.headers()), RetryTopicRouter.isRedelivery(record.headers()));
+            OrderDTO order = result.getOrder();
+            if (order == null || order.getOrderId() == null) {
+                log.error("Invalid order at partition {} offset {}, dead-lettering", record.partition(), record.offset());
+                incrementCounter("orders.invalid");
+                retryTopicRouter.accept(record, new InvalidOrderException(result.getRejectionReason()));
+                continue;
+            }
+
+            // Sends join the container's transaction; a failed send aborts the whole batch at commit
+            if (result.isValid()) {
+                orderPublisher.publishValidated(order);
+                incrementCounter("orders.validated");
+            } else {
+                orderPublisher.publishRejected(order, result.getRejectionReason());
+                incrementCounter("orders.rejected");
+            }
+            rows.add(ValidatedOrderMapper.toValidatedOrder(order, result));
+        }
+
+        if (properties.getConsumer().getTransactional().isProjectionEnabled()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projection.submit(rows);
+                }
+            });
+        }
+    }
+
+    private void incrementCounter(String name) {
+        Counter.builder("oms.validator." + name)
+                .tag("service", "oms-validator")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,14 +1,13 @@
 package com.oms.validator.service;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-
 import org.springframework.stereotype.Service;
 
-import tools.jackson.databind.ObjectMapper;
+import com.oms.common.kafka.OrderDeserializer;
+import com.oms.common.kafka.OrderWireFormat;
 import com.oms.common.model.OrderDTO;
-import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.rules.ReasonCodes;
+import com.oms.validator.rules.RulePipeline;
+import com.oms.validator.rules.RulePipeline.Rejection;
 
 import lombok.Builder;
 import lombok.Data;
@@ -18,103 +17,70 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Core validation logic for orders.
  * Pure validation - no database access.
- * Performs parameter validation and risk checks.
+ * Performs parameter validation and risk checks through the {@link RulePipeline}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderValidationService {
 
-    private final ValidatorProperties properties;
-    private final ObjectMapper objectMapper;
+    private final OrderDeserializer orderDeserializer;
+    private final RulePipeline rulePipeline;
     private final RiskCheckService riskCheckService;
+    private final OrderThrottle orderThrottle;
 
     /**
-     * Validates an order from JSON.
+     * Validates an order from a Kafka record value, JSON or binary as its content-type says.
      * Returns ValidationResult with the parsed order and validation status.
+     *
+     * Only a payload that cannot be read is a permanent rejection (no order, UNREADABLE).
+     * Failures of the rules or the risk reservation, such as a ledger shard timeout or an
+     * unreachable risk-service, are thrown so the caller's retry tiers apply.
+     *
+     * @param redelivered the record has been through a retry tier or the dead letter topic
+     *                    ({@link RetryTopicRouter#isRedelivery}), so its order was already throttled
      */
-    public ValidationResult validateOrder(String orderJson) {
+    public ValidationResult validateOrder(byte[] payload, OrderWireFormat format, boolean redelivered) {
+        // Parse order from Kafka message
+        OrderDTO order;
         try {
-            // Parse order from Kafka message
-            OrderDTO order = objectMapper.readValue(orderJson, OrderDTO.class);
-
-            if (order.getOrderId() == null) {
-                return ValidationResult.rejected(order, "Missing orderId");
-            }
-
-            log.debug("Validating order: orderId={}, symbol={}, side={}, quantity={}",
-                    order.getOrderId(), order.getSymbol(), order.getSide(), order.getQuantity());
-
-            // Perform validations
-            List<String> errors = new ArrayList<>();
-
-            // Basic parameter validation
-            validateParameters(order, errors);
-
-            // Symbol validation
-            if (properties.getValidation().isCheckSymbolExists()) {
-                validateSymbol(order.getSymbol(), errors);
-            }
-
-            // Risk checks
-            if (properties.getRisk().isCheckBuyingPower()) {
-                riskCheckService.checkBuyingPower(order, errors);
-            }
-
-            riskCheckService.checkOrderValue(order, errors);
-            riskCheckService.checkPositionLimits(order, errors);
-
-            if (!errors.isEmpty()) {
-                String rejectionReason = String.join("; ", errors);
-                return ValidationResult.rejected(order, rejectionReason);
-            }
-
-            // All checks passed
-            return ValidationResult.validated(order);
-
+            order = orderDeserializer.deserialize(payload, format);
         } catch (Exception e) {
-            log.error("Error validating order: {}", e.getMessage(), e);
-            return ValidationResult.rejected(null, "Validation error: " + e.getMessage());
+            log.error("Error reading order: {}", e.getMessage(), e);
+            return ValidationResult.rejected(null, ReasonCodes.UNREADABLE, "Validation error: " + e.getMessage());
         }
-    }
-
-    private void validateParameters(OrderDTO order, List<String> errors) {
-        if (order.getSymbol() == null || order.getSymbol().isBlank()) {
-            errors.add("Symbol is required");
+        if (order == null) {
+            return ValidationResult.rejected(null, ReasonCodes.UNREADABLE, "Validation error: empty order");
         }
 
-        if (order.getQuantity() == null || order.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
-            errors.add("Quantity must be positive");
+        if (order.getOrderId() == null) {
+            return ValidationResult.rejected(order, ReasonCodes.ORDER_ID_REQUIRED,
+                    ReasonCodes.describe(ReasonCodes.ORDER_ID_REQUIRED));
         }
 
-        if (order.getSide() == null) {
-            errors.add("Side is required");
-        }
+        log.debug("Validating order: orderId={}, symbol={}, side={}, quantity={}",
+                order.getOrderId(), order.getSymbol(), order.getSide(), order.getQuantity());
 
-        if (order.getOrderType() == null) {
-            errors.add("Order type is required");
+        // Parameter, symbol and risk rules
+        Rejection rejection = rulePipeline.evaluate(order);
+        if (rejection != null) {
+            return ValidationResult.rejected(order, rejection.reasonCode(), rejection.reason());
         }
 
-        if (order.getTimeInForce() == null) {
-            errors.add("Time in force is required");
+        // Velocity limits, counted only for orders that passed every rule
+        int throttleCode = orderThrottle.check(order, redelivered);
+        if (throttleCode != ReasonCodes.OK) {
+            return ValidationResult.rejected(order, throttleCode, orderThrottle.describe(throttleCode, order));
         }
 
-        // Limit orders must have limit price
-        if (order.getOrderType() == OrderDTO.OrderType.LIMIT && order.getLimitPrice() == null) {
-            errors.add("Limit price required for LIMIT orders");
+        // Atomic re-check and reservation of the account's headroom
+        int riskCode = riskCheckService.reserve(order, rulePipeline.riskLimits());
+        if (riskCode != ReasonCodes.OK) {
+            return ValidationResult.rejected(order, riskCode, ReasonCodes.describe(riskCode));
         }
 
-        // Stop orders must have stop price
-        if (order.getOrderType() == OrderDTO.OrderType.STOP && order.getStopPrice() == null) {
-            errors.add("Stop price required for STOP orders");
-        }
-    }
-
-    private void validateSymbol(String symbol, List<String> errors) {
-        // Stub: In production, check against a symbol master table or market data service
-        if (symbol != null && symbol.length() > 10) {
-            errors.add("Invalid symbol: " + symbol);
-        }
+        // All checks passed
+        return ValidationResult.validated(order);
     }
 
     @Data
@@ -122,6 +88,7 @@ public class OrderValidationService {
     public static class ValidationResult {
         private boolean valid;
         private OrderDTO order;
+        private int reasonCode;
         private String rejectionReason;
 
         public static ValidationResult validated(OrderDTO order) {
@@ -131,10 +98,11 @@ public class OrderValidationService {
                     .build();
         }
 
-        public static ValidationResult rejected(OrderDTO order, String reason) {
+        public static ValidationResult rejected(OrderDTO order, int reasonCode, String reason) {
             return ValidationResult.builder()
                     .valid(false)
                     .order(order)
+                    .reasonCode(reasonCode)
                     .rejectionReason(reason)
                     .build();
         }
@@ -0,0 +1,107 @@
+package com.oms.validator.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.service.RetryTopicRouter.RetryTier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consumes the retry topics (orders.inbound.retry-1s, -10s, ...), one container per tier.
+ *
+ * A record is processed once its due time (set by {@link RetryTopicRouter}) has passed;
+ * until then the container is paused with nack(), without blocking the poll loop. Every
+ * record of a tier has the same delay, so the head of each partition is always the next
+ * one due. Processing goes through {@link OrderProcessor} in every consumer mode; a
+ * record that fails again moves on to the next tier or the dead letter topic.
+ */
+@Service
+@Slf4j
+public class RetryTopicConsumer {
+
+    private final ConcurrentKafkaListenerContainerFactory<String, byte[]> containerFactory;
+    private final RetryTopicRouter retryTopicRouter;
+    private final OrderProcessor orderProcessor;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<ConcurrentMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+
+    public RetryTopicConsumer(
+            @Qualifier("retryKafkaListenerContainerFactory")
+            ConcurrentKafkaListenerContainerFactory<String, byte[]> containerFactory,
+            RetryTopicRouter retryTopicRouter, OrderProcessor orderProcessor,
+            ValidatorProperties properties, MeterRegistry meterRegistry) {
+        this.containerFactory = containerFactory;
+        this.retryTopicRouter = retryTopicRouter;
+        this.orderProcessor = orderProcessor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (RetryTier tier : retryTopicRouter.tiers()) {
+            ConcurrentMessageListenerContainer<String, byte[]> container = containerFactory.createContainer(tier.topic());
+            container.setBeanName("retry-" + tier.topic());
+            container.setupMessageListener((AcknowledgingMessageListener<String, byte[]>) this::onMessage);
+            container.start();
+            containers.add(container);
+            log.info("Consuming retry tier {} (delay {})", tier.topic(), tier.delay());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+
+    private void onMessage(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        long waitMs = RetryTopicRouter.longHeader(record.headers(), RetryTopicRouter.HEADER_DUE_AT)
+                - System.currentTimeMillis();
+        if (waitMs > 0) {
+            // Seek back and pause this container until the record is due
+            acknowledgment.nack(Duration.ofMillis(waitMs));
+            return;
+        }
+
+        try {
+            orderProcessor.process(record.value(), OrderWireFormat.of(record.headers()),
+                    RetryTopicRouter.isRedelivery(record.headers()))
+                    .get(properties.getConsumer().getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted retrying " + record.topic() + "@" + record.offset(), e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Publish failure or timeout; the container's error handler forwards the record
+            throw new IllegalStateException("Retry of " + record.topic() + "@" + record.offset() + " failed", e);
+        }
+
+        acknowledgment.acknowledge();
+        Counter.builder("oms.validator.orders.retry_succeeded")
+                .tag("service", "oms-validator")
+                .tag("topic", record.topic())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,192 @@
+package com.oms.validator.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.stereotype.Service;
+
+import com.oms.common.kafka.KafkaTopics;
+import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.risk.RiskUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves a failed orders.inbound record off its partition: to the next retry tier
+ * (orders.inbound.retry-1s, -10s, ...), or to orders.inbound.dlq once every tier has
+ * failed or when the failure is permanent ({@link InvalidOrderException}). A failed risk
+ * check ({@link RiskUnavailableException}) is never dead-lettered: it cycles on the last
+ * tier until risk-service answers.
+ *
+ * Used as the recoverer of the listener containers and directly by the parallel consumer.
+ * The send is synchronous and throws on failure, so the caller only commits the offset
+ * once the record is safely in its next topic.
+ */
+@Service
+@Slf4j
+public class RetryTopicRouter implements ConsumerRecordRecoverer {
+
+    public static final String HEADER_ATTEMPT = "oms-retry-attempt";
+    public static final String HEADER_DUE_AT = "oms-retry-due-at";
+    public static final String HEADER_ORIGINAL_TOPIC = "oms-original-topic";
+    public static final String HEADER_ORIGINAL_PARTITION = "oms-original-partition";
+    public static final String HEADER_ORIGINAL_OFFSET = "oms-original-offset";
+    public static final String HEADER_EXCEPTION_CLASS = "oms-exception-class";
+    public static final String HEADER_EXCEPTION_MESSAGE = "oms-exception-message";
+    public static final String HEADER_FAILED_AT = "oms-failed-at";
+
+    /** Headers rewritten on every hop; the original-* ones are kept from the first failure */
+    private static final List<String> HOP_HEADERS = List.of(HEADER_ATTEMPT, HEADER_DUE_AT,
+            HEADER_EXCEPTION_CLASS, HEADER_EXCEPTION_MESSAGE, HEADER_FAILED_AT);
+
+    public record RetryTier(String topic, Duration delay) {
+    }
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ValidatorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<RetryTier> tiers;
+    private final String dlqTopic;
+
+    public RetryTopicRouter(KafkaTemplate<String, byte[]> kafkaTemplate, ValidatorProperties properties,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        String ingest = properties.getTopics().getIngest();
+        List<RetryTier> configured = new ArrayList<>();
+        for (Duration delay : properties.getRetry().getDelays()) {
+            configured.add(new RetryTier(ingest + KafkaTopics.RETRY_SUFFIX + label(delay), delay));
+        }
+        this.tiers = List.copyOf(configured);
+        this.dlqTopic = ingest + KafkaTopics.DLQ_SUFFIX;
+    }
+
+    public List<RetryTier> tiers() {
+        return tiers;
+    }
+
+    public String dlqTopic() {
+        return dlqTopic;
+    }
+
+    /**
+     * Forwards the record to its next topic and waits for the broker ack.
+     */
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+        Throwable cause = rootCause(exception);
+        int attempt = intHeader(record.headers(), HEADER_ATTEMPT);
+        // An unreachable risk-service is no fault of the order: it stays on the last tier until it answers
+        boolean riskUnavailable = cause instanceof RiskUnavailableException && !tiers.isEmpty();
+        boolean deadLetter = cause instanceof InvalidOrderException || (attempt >= tiers.size() && !riskUnavailable);
+        RetryTier tier = deadLetter ? null : tiers.get(Math.min(attempt, tiers.size() - 1));
+        String topic = deadLetter ? dlqTopic : tier.topic();
+
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!HOP_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        if (headers.lastHeader(HEADER_ORIGINAL_TOPIC) == null) {
+            addHeader(headers, HEADER_ORIGINAL_TOPIC, record.topic());
+            addHeader(headers, HEADER_ORIGINAL_PARTITION, String.valueOf(record.partition()));
+            addHeader(headers, HEADER_ORIGINAL_OFFSET, String.valueOf(record.offset()));
+        }
+        Instant now = Instant.now();
+        addHeader(headers, HEADER_ATTEMPT, String.valueOf(attempt + 1));
+        addHeader(headers, HEADER_EXCEPTION_CLASS, cause.getClass().getName());
+        addHeader(headers, HEADER_EXCEPTION_MESSAGE, String.valueOf(cause.getMessage()));
+        addHeader(headers, HEADER_FAILED_AT, now.toString());
+        if (!deadLetter) {
+            addHeader(headers, HEADER_DUE_AT, String.valueOf(now.plus(tier.delay()).toEpochMilli()));
+        }
+
+        ProducerRecord<String, byte[]> forward = new ProducerRecord<>(topic, null,
+                (String) record.key(), (byte[]) record.value(), headers);
+        try {
+            kafkaTemplate.send(forward).get(properties.getConsumer().getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Failed to forward " + record.topic() + "-" + record.partition()
+                    + "@" + record.offset() + " to " + topic, e);
+        }
+
+        if (deadLetter) {
+            log.error("Dead-lettered order from {}-{}@{} to {} after {} attempts: {}", record.topic(),
+                    record.partition(), record.offset(), topic, attempt + 1, cause.getMessage());
+        } else {
+            log.warn("Order from {}-{}@{} failed ({}), retrying via {}", record.topic(), record.partition(),
+                    record.offset(), cause.getMessage(), topic);
+        }
+        Counter.builder(deadLetter ? "oms.validator.orders.dead_lettered" : "oms.validator.orders.retried")
+                .tag("service", "oms-validator")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Whether the record has been through a retry tier or the dead letter topic before
+     * (replays keep the original-* headers).
+     */
+    public static boolean isRedelivery(Headers headers) {
+        return headers.lastHeader(HEADER_ATTEMPT) != null || headers.lastHeader(HEADER_ORIGINAL_TOPIC) != null;
+    }
+
+    static int intHeader(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    static long longHeader(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static void addHeader(Headers headers, String key, String value) {
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The listener's own exception, without the container's and futures' wrappers */
+    private static Throwable rootCause(Exception exception) {
+        Throwable cause = exception;
+        while ((cause instanceof ListenerExecutionFailedException || cause instanceof ExecutionException
+                || cause instanceof CompletionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /** 1s, 10s, 1m, 250ms */
+    private static String label(Duration delay) {
+        long ms = delay.toMillis();
+        if (ms % 60_000 == 0) {
+            return ms / 60_000 + "m";
+        }
+        if (ms % 1000 == 0) {
+            return ms / 1000 + "s";
+        }
+        return ms + "ms";
+    }
+}
@@ -1,76 +1,167 @@
 package com.oms.validator.service;
 
-import java.math.BigDecimal;
-import java.util.List;
-
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import com.oms.common.model.FixedPoint;
 import com.oms.common.model.OrderDTO;
 import com.oms.validator.config.ValidatorProperties;
+import com.oms.validator.marketdata.QuoteCache;
+import com.oms.validator.risk.RiskGateway;
+import com.oms.validator.rules.ReasonCodes;
+import com.oms.validator.rules.RulePipeline.RiskLimits;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Risk management checks for orders
+ * Risk management checks for orders. Each check returns a
+ * {@link ReasonCodes reason code}; limits come from the compiled rule.
+ *
+ * Buying power and position checks run against the account's current position,
+ * open-order exposure and cash through the {@link RiskGateway}: the in-process ledger
+ * or risk-service (oms.validator.risk.mode). With neither (ledger disabled) they fall
+ * back to the order-only stubs.
+ *
+ * Market orders are priced from the {@link QuoteCache}; without a fresh quote they
+ * have no value and skip the value-based checks. Prices, values and limits are
+ * {@link FixedPoint} longs.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RiskCheckService {
 
+    private final RiskGateway riskGateway;
     private final ValidatorProperties properties;
+    private final QuoteCache quoteCache;
 
-    public void checkBuyingPower(OrderDTO order, List<String> errors) {
-        // Stub: In production, query account service for buying power
-        // For now, assume all accounts have sufficient buying power
-        log.debug("Checking buying power for order {}: PASSED (stub)", order.getOrderId());
+    public RiskCheckService(ObjectProvider<RiskGateway> riskGateway, ValidatorProperties properties,
+            QuoteCache quoteCache) {
+        this.riskGateway = riskGateway.getIfAvailable();
+        this.properties = properties;
+        this.quoteCache = quoteCache;
     }
 
-    public void checkOrderValue(OrderDTO order, List<String> errors) {
-        BigDecimal orderValue = calculateOrderValue(order);
-        long maxOrderValue = properties.getRisk().getMaxOrderValue();
+    public int checkBuyingPower(OrderDTO order) {
+        long orderValue = orderValue(order);
+        if (riskGateway == null || order.getAccountId() == null || orderValue == FixedPoint.NULL) {
+            // No ledger (or nothing to price): assume sufficient buying power
+            return ReasonCodes.OK;
+        }
+        return riskGateway.checkBuyingPower(order, orderValue);
+    }
 
-        if (orderValue != null && orderValue.compareTo(BigDecimal.valueOf(maxOrderValue)) > 0) {
-            errors.add("Order value " + orderValue + " exceeds maximum " + maxOrderValue);
+    public int checkOrderValue(OrderDTO order, long maxOrderValue) {
+        long orderValue = orderValue(order);
+
+        if (orderValue != FixedPoint.NULL && orderValue > maxOrderValue) {
             log.warn("Order {} rejected: value {} exceeds max {}", 
-                    order.getOrderId(), orderValue, maxOrderValue);
+                    order.getOrderId(), FixedPoint.toString(orderValue), FixedPoint.toString(maxOrderValue));
+            return ReasonCodes.ORDER_VALUE_EXCEEDED;
         }
+        return ReasonCodes.OK;
     }
 
-    public void checkPositionLimits(OrderDTO order, List<String> errors) {
-        // Stub: In production, query position service for current positions
-        // Check if this order would exceed per-symbol position limits
-        long maxPositionSize = properties.getRisk().getMaxPositionSize();
-        
-        if (order.getQuantity() != null && 
-            order.getQuantity().compareTo(BigDecimal.valueOf(maxPositionSize)) > 0) {
-            errors.add("Order quantity " + order.getQuantity() + " exceeds maximum position size " + maxPositionSize);
+    /**
+     * Rejects when the account's worst-case position after the order (current position
+     * plus every open order on the same side) would exceed the limit.
+     */
+    public int checkPositionLimits(OrderDTO order, long maxPositionSize) {
+        if (riskGateway != null && order.getAccountId() != null) {
+            return riskGateway.checkPosition(order, maxPositionSize);
+        }
+        if (order.getQuantity() != null && FixedPoint.fromBigDecimal(order.getQuantity()) > maxPositionSize) {
             log.warn("Order {} rejected: quantity {} exceeds max position size {}", 
-                    order.getOrderId(), order.getQuantity(), maxPositionSize);
+                    order.getOrderId(), order.getQuantity(), FixedPoint.toString(maxPositionSize));
+            return ReasonCodes.POSITION_SIZE_EXCEEDED;
         }
+        return ReasonCodes.OK;
     }
 
-    private BigDecimal calculateOrderValue(OrderDTO order) {
-        if (order.getQuantity() == null) {
-            return null;
+    /**
+     * Final step for an order that passed every rule: re-checks buying power and position
+     * and opens its exposure in one shard operation, so concurrent orders of the same
+     * account cannot both pass on the same headroom. Idempotent on orderId.
+     *
+     * That holds per ledger. In local mode every validator instance keeps its own and
+     * orders.inbound is keyed by orderId, so orders of one account on different instances
+     * are reserved independently; remote mode against one risk-service shares a ledger.
+     *
+     * @param limits those of the rule pipeline the order passed, so the re-check applies
+     *               the same position limit and skips the checks its rules skip
+     */
+    public int reserve(OrderDTO order, RiskLimits limits) {
+        if (riskGateway == null || order.getAccountId() == null) {
+            return ReasonCodes.OK;
         }
+        long price = orderPrice(order);
+        long orderValue = value(order, price);
+        return riskGateway.reserve(order, price, orderValue, limits.maxPositionSize(), limits.checkBuyingPower());
+    }
 
-        BigDecimal price = null;
+    /**
+     * Quantity x {@link #orderPrice} as a {@link FixedPoint} long; NULL when the order cannot
+     * be priced, Long.MAX_VALUE when the value is beyond the fixed-point range (and so
+     * beyond any limit).
+     */
+    public long orderValue(OrderDTO order) {
+        return value(order, orderPrice(order));
+    }
+
+    /**
+     * Price used to value the order and reserve its exposure, as a {@link FixedPoint} long;
+     * NULL when it has none. Market orders use the side of the NBBO they would take (ask for
+     * buys, bid for sells), falling back to the last trade.
+     */
+    public long orderPrice(OrderDTO order) {
         if (order.getOrderType() == OrderDTO.OrderType.LIMIT && order.getLimitPrice() != null) {
-            price = order.getLimitPrice();
+            return FixedPoint.fromBigDecimal(order.getLimitPrice());
         } else if (order.getOrderType() == OrderDTO.OrderType.STOP && order.getStopPrice() != null) {
-            price = order.getStopPrice();
-        } else if (order.getOrderType() == OrderDTO.OrderType.MARKET) {
-            // Stub: For market orders, use last traded price or estimated price
-            // For now, skip value check for market orders
-            return null;
+            return FixedPoint.fromBigDecimal(order.getStopPrice());
+        } else if (order.getOrderType() == OrderDTO.OrderType.MARKET && order.getSide() != null) {
+            return FixedPoint.fromDouble(quoteCache.marketPrice(quoteCache.index(order.getSymbol()), order.getSide(),
+                    properties.getMarketData().getMaxQuoteAgeMs()));
         }
+        return FixedPoint.NULL;
+    }
 
-        if (price != null) {
-            return order.getQuantity().multiply(price);
+    private static long value(OrderDTO order, long price) {
+        if (order.getQuantity() == null || price == FixedPoint.NULL) {
+            return FixedPoint.NULL;
         }
+        try {
+            return FixedPoint.multiply(FixedPoint.fromBigDecimal(order.getQuantity()), price);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Order value as a double, priced like {@link #orderPrice} but without allocating;
+     * 0 when the order cannot be priced.
+     */
+    public double notional(OrderDTO order) {
+        if (order.getQuantity() == null) {
+            return 0;
+        }
+        double price;
+        if (order.getOrderType() == OrderDTO.OrderType.LIMIT && order.getLimitPrice() != null) {
+            price = order.getLimitPrice().doubleValue();
+        } else if (order.getOrderType() == OrderDTO.OrderType.STOP && order.getStopPrice() != null) {
+            price = order.getStopPrice().doubleValue();
+        } else if (order.getOrderType() == OrderDTO.OrderType.MARKET && order.getSide() != null) {
+            price = quoteCache.marketPrice(quoteCache.index(order.getSymbol()), order.getSide(),
+                    properties.getMarketData().getMaxQuoteAgeMs());
+        } else {
+            return 0;
+        }
+        return Double.isNaN(price) ? 0 : order.getQuantity().doubleValue() * price;
+    }
 
-        return null;
+    /**
+     * Bid/ask midpoint (else last trade) of the order's symbol, NaN without a fresh quote.
+     */
+    public double referencePrice(OrderDTO order) {
+        return quoteCache.referencePrice(quoteCache.index(order.getSymbol()),
+                properties.getMarketData().getMaxQuoteAgeMs());
     }
 }
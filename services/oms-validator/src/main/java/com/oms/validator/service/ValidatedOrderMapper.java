@@ -0,0 +1,34 @@
+package com.oms.validator.service;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.validator.model.ValidatedOrder;
+import com.oms.validator.service.OrderValidationService.ValidationResult;
+
+/**
+ * Maps a validation outcome to the validator's own ValidatedOrder row.
+ */
+public final class ValidatedOrderMapper {
+
+    private ValidatedOrderMapper() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static ValidatedOrder toValidatedOrder(OrderDTO order, ValidationResult result) {
+        return ValidatedOrder.builder()
+                .orderId(order.getOrderId())
+                .clientOrderId(order.getClientOrderId())
+                .accountId(order.getAccountId())
+                .symbol(order.getSymbol())
+                .side(ValidatedOrder.OrderSide.valueOf(order.getSide().name()))
+                .orderType(ValidatedOrder.OrderType.valueOf(order.getOrderType().name()))
+                .quantity(order.getQuantity())
+                .limitPrice(order.getLimitPrice())
+                .stopPrice(order.getStopPrice())
+                .timeInForce(ValidatedOrder.TimeInForce.valueOf(order.getTimeInForce().name()))
+                .validationStatus(result.isValid() 
+                        ? ValidatedOrder.ValidationStatus.VALIDATED 
+                        : ValidatedOrder.ValidationStatus.REJECTED)
+                .rejectionReason(result.getRejectionReason())
+                .build();
+    }
+}
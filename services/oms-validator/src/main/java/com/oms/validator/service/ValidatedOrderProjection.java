@@ -0,0 +1,85 @@
+package com.oms.validator.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.oms.validator.model.ValidatedOrder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous validated_orders projection for the transactional consumer mode.
+ *
+ * The Kafka transaction is the source of truth there, so the table is written off the
+ * consume path, after commit, on a single writer thread. Inserts ignore rows that
+ * already exist, which makes replays after an aborted transaction harmless.
+ */
+@Service
+@ConditionalOnProperty(prefix = "oms.validator.consumer", name = "mode", havingValue = "transactional")
+@RequiredArgsConstructor
+@Slf4j
+public class ValidatedOrderProjection {
+
+    private static final String INSERT_SQL = "INSERT INTO validated_orders (order_id, client_order_id, "
+            + "account_id, symbol, side, order_type, quantity, limit_price, stop_price, time_in_force, "
+            + "validation_status, rejection_reason, validated_at, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (order_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("validated-orders-projection").daemon().factory());
+
+    public void submit(List<ValidatedOrder> rows) {
+        if (!rows.isEmpty()) {
+            writer.execute(() -> write(rows));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.close();
+    }
+
+    private void write(List<ValidatedOrder> rows) {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setObject(1, row.getOrderId());
+                ps.setString(2, row.getClientOrderId());
+                ps.setString(3, row.getAccountId());
+                ps.setString(4, row.getSymbol());
+                ps.setString(5, row.getSide().name());
+                ps.setString(6, row.getOrderType().name());
+                ps.setBigDecimal(7, row.getQuantity());
+                ps.setBigDecimal(8, row.getLimitPrice());
+                ps.setBigDecimal(9, row.getStopPrice());
+                ps.setString(10, row.getTimeInForce().name());
+                ps.setString(11, row.getValidationStatus().name());
+                ps.setString(12, row.getRejectionReason());
+                ps.setTimestamp(13, now);
+                ps.setTimestamp(14, now);
+                ps.setTimestamp(15, now);
+            });
+        } catch (Exception e) {
+            // The projection is best-effort: the validated/rejected topics remain authoritative
+            log.error("Failed to project {} validated orders: {}", rows.size(), e.getMessage(), e);
+            Counter.builder("oms.validator.projection.errors")
+                    .tag("service", "oms-validator")
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
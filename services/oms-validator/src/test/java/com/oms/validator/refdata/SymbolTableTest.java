@@ -0,0 +1,126 @@
+package com.oms.validator.refdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.validator.refdata.SymbolTable.Entry;
+
+class SymbolTableTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyWrittenEntryIsFoundWithItsData() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(new Entry("SYM" + i, 10_000L + i, FixedPoint.of(1 + i % 100), i % 4));
+        }
+        SymbolTable table = writeAndMap(entries);
+
+        assertEquals(entries.size(), table.size());
+        Set<Integer> slots = new HashSet<>();
+        for (Entry entry : entries) {
+            int slot = table.find(entry.symbol());
+            assertNotEquals(-1, slot, entry.symbol());
+            assertTrue(slots.add(slot), "slot shared by " + entry.symbol());
+            assertEquals(entry.tickSize(), table.tickSize(slot));
+            assertEquals(entry.lotSize(), table.lotSize(slot));
+            assertEquals((entry.flags() & SymbolTable.FLAG_TRADABLE) != 0, table.isTradable(slot));
+            assertEquals((entry.flags() & SymbolTable.FLAG_HALTED) != 0, table.isHalted(slot));
+        }
+    }
+
+    @Test
+    void findIgnoresSurroundingWhitespaceAndCase() throws IOException {
+        SymbolTable table = writeAndMap(List.of(
+                new Entry("AAPL", 10_000L, FixedPoint.ONE, SymbolTable.FLAG_TRADABLE),
+                new Entry("BRK.B", 10_000L, FixedPoint.ONE, SymbolTable.FLAG_TRADABLE)));
+
+        int slot = table.find("AAPL");
+        assertNotEquals(-1, slot);
+        assertEquals(slot, table.find("aapl"));
+        assertEquals(slot, table.find("  Aapl\t"));
+        assertEquals(table.find("BRK.B"), table.find(new StringBuilder("brk.b ")));
+    }
+
+    @Test
+    void unknownSymbolsAreRejected() throws IOException {
+        SymbolTable table = writeAndMap(List.of(
+                new Entry("AAPL", 10_000L, FixedPoint.ONE, SymbolTable.FLAG_TRADABLE),
+                new Entry("MSFT", 10_000L, FixedPoint.ONE, SymbolTable.FLAG_TRADABLE)));
+
+        assertEquals(-1, table.find("GOOG"));
+        assertEquals(-1, table.find("AAP"));
+        assertEquals(-1, table.find("AAPLX"));
+        assertEquals(-1, table.find(""));
+        assertEquals(-1, table.find("   "));
+        assertEquals(-1, table.find(null));
+        assertEquals(-1, table.find("A".repeat(SymbolTable.MAX_SYMBOL_LENGTH + 1)));
+    }
+
+    @Test
+    void symbolsOfMaximumLengthRoundTrip() throws IOException {
+        String longest = "ABCDEFGHIJKLMNOP";
+        String prefix = longest.substring(0, SymbolTable.MAX_SYMBOL_LENGTH - 1);
+        SymbolTable table = writeAndMap(List.of(
+                new Entry(longest, 1L, 2L, SymbolTable.FLAG_HALTED),
+                new Entry(prefix, 3L, 4L, SymbolTable.FLAG_TRADABLE)));
+
+        int slot = table.find(longest);
+        assertNotEquals(-1, slot);
+        assertEquals(1L, table.tickSize(slot));
+        assertTrue(table.isHalted(slot));
+        assertFalse(table.isTradable(slot));
+        assertEquals(3L, table.tickSize(table.find(prefix)));
+    }
+
+    @Test
+    void emptyTableFindsNothing() throws IOException {
+        SymbolTable table = writeAndMap(List.of());
+
+        assertEquals(0, table.size());
+        assertEquals(-1, table.find("AAPL"));
+    }
+
+    @Test
+    void rewriteReplacesTheIndex() throws IOException {
+        Path file = dir.resolve("symbols.idx");
+        SymbolTable.write(List.of(new Entry("AAPL", 10_000L, FixedPoint.ONE, SymbolTable.FLAG_TRADABLE)), file);
+        SymbolTable.write(List.of(new Entry("MSFT", 20_000L, FixedPoint.ONE, SymbolTable.FLAG_TRADABLE)), file);
+
+        SymbolTable table = SymbolTable.map(file);
+        assertEquals(-1, table.find("AAPL"));
+        assertEquals(20_000L, table.tickSize(table.find("MSFT")));
+        assertFalse(Files.exists(dir.resolve("symbols.idx.tmp")));
+    }
+
+    @Test
+    void mapRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("symbols.csv");
+        Files.writeString(file, "symbol,tick_size,lot_size,tradable,halted\nAAPL,0.01,1,true,false\n");
+
+        assertThrows(IllegalArgumentException.class, () -> SymbolTable.map(file));
+    }
+
+    private SymbolTable writeAndMap(List<Entry> entries) throws IOException {
+        Path file = dir.resolve("symbols.idx");
+        SymbolTable.write(entries, file);
+        return SymbolTable.map(file);
+    }
+}
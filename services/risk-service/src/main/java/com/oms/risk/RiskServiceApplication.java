@@ -0,0 +1,22 @@
+package com.oms.risk;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Risk Service - pre-trade risk checks
+ * 
+ * Responsibilities:
+ * - Serve CheckRisk / CheckRiskBatch / GetPosition over gRPC (proto/risk.proto)
+ * - Keep positions, open-order exposure and cash per account in memory
+ * - Follow orders.validated and executions.fills to keep that state current
+ */
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class RiskServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(RiskServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,60 @@
+package com.oms.risk.config;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.risk.RiskLedger;
+import com.oms.common.risk.RiskLedgerFeed;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * The risk ledger and its orders.validated / orders.rejected / executions.fills feed.
+ */
+@Configuration
+public class RiskLedgerConfiguration {
+
+    private static final String FEED_GROUP = "risk-service-ledger";
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RiskLedger riskLedger(RiskProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        RiskProperties.Ledger ledger = properties.getLedger();
+        return new RiskLedger(new RiskLedger.Settings(ledger.getShards(), ledger.getDefaultBuyingPower(),
+                ledger.getCallTimeoutMs(), ledger.getSnapshotDir(), ledger.getOpenOrderTtlMs(),
+                ledger.getMaxOpenOrders(), "oms.risk.ledger"),
+                objectMapper, meterRegistry);
+    }
+
+    /**
+     * Orders are re-opened at their limit or stop price; market orders, which the
+     * validator reserves at a quote, are re-opened without cash exposure.
+     */
+    @Bean(destroyMethod = "stop")
+    public RiskLedgerFeed riskLedgerFeed(ConsumerFactory<String, byte[]> consumerFactory, RiskLedger riskLedger,
+            RiskProperties properties, ObjectMapper objectMapper) {
+        return new RiskLedgerFeed(consumerFactory, riskLedger, RiskLedgerConfiguration::orderPrice,
+                new RiskLedgerFeed.Settings(properties.getTopics().getValidated(), properties.getTopics().getRejected(),
+                        properties.getTopics().getFills(), properties.getLedger().getSnapshotIntervalMs(), FEED_GROUP),
+                objectMapper);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRiskLedgerFeed(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(RiskLedgerFeed.class).start();
+    }
+
+    private static long orderPrice(OrderDTO order) {
+        if (order.getOrderType() == OrderDTO.OrderType.LIMIT) {
+            return FixedPoint.fromBigDecimal(order.getLimitPrice());
+        } else if (order.getOrderType() == OrderDTO.OrderType.STOP) {
+            return FixedPoint.fromBigDecimal(order.getStopPrice());
+        }
+        return FixedPoint.NULL;
+    }
+}
@@ -0,0 +1,52 @@
+package com.oms.risk.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for the risk service
+ */
+@Data
+@ConfigurationProperties(prefix = "oms.risk")
+public class RiskProperties {
+
+    private Topics topics = new Topics();
+    private Limits limits = new Limits();
+    private Ledger ledger = new Ledger();
+    private Grpc grpc = new Grpc();
+
+    @Data
+    public static class Topics {
+        private String validated = "orders.validated";
+        private String rejected = "orders.rejected";
+        private String fills = "executions.fills";
+    }
+
+    @Data
+    public static class Limits {
+        private long maxPositionSize = 100000;
+        private boolean checkBuyingPower = true;
+    }
+
+    @Data
+    public static class Ledger {
+        /** Single-writer shards (accounts are hashed onto them); 0 = one per available processor */
+        private int shards = 0;
+        /** Cash of an account the ledger has not seen funded yet */
+        private long defaultBuyingPower = 10_000_000;
+        private long callTimeoutMs = 1000;
+        private String snapshotDir = System.getProperty("java.io.tmpdir") + "/risk-service";
+        private long snapshotIntervalMs = 10000;
+        /** Open orders release their reservation this long after validation unless filled or rejected; 0 = never */
+        private long openOrderTtlMs = 86_400_000;
+        /** Reservations are refused for an account with this many open orders; 0 = no limit */
+        private int maxOpenOrders = 10_000;
+    }
+
+    @Data
+    public static class Grpc {
+        /** Concurrent checks per CheckRiskBatch stream before backpressure */
+        private int maxInFlight = 1024;
+    }
+}
@@ -0,0 +1,258 @@
+package com.oms.risk.grpc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderSide;
+import com.oms.common.risk.RiskCodes;
+import com.oms.common.risk.RiskLedger;
+import com.oms.proto.risk.GetPositionRequest;
+import com.oms.proto.risk.Position;
+import com.oms.proto.risk.RiskCheckRequest;
+import com.oms.proto.risk.RiskCheckResponse;
+import com.oms.proto.risk.RiskServiceGrpc;
+import com.oms.proto.risk.RiskViolation;
+import com.oms.risk.config.RiskProperties;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * gRPC RiskService on the in-memory {@link RiskLedger}.
+ *
+ * Checks run on the account's shard thread and never block a gRPC thread: each request
+ * is handed to its shard and answered when the shard completes it. CheckRiskBatch is a
+ * bidirectional stream for pipelining clients (the validator in remote mode): up to
+ * max-in-flight checks run concurrently per stream, responses are correlated by
+ * request_id and may arrive out of order across accounts. A check that fails here (shard
+ * timeout, exception on the shard thread) is answered with {@link RiskCodes#UNAVAILABLE},
+ * which is not a verdict. Flow control is manual, so a saturated ledger pushes back on the
+ * client through HTTP/2.
+ */
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+public class RiskGrpcService extends RiskServiceGrpc.RiskServiceImplBase {
+
+    private final RiskLedger riskLedger;
+    private final RiskProperties properties;
+
+    @Override
+    public void checkRisk(RiskCheckRequest request, StreamObserver<RiskCheckResponse> responseObserver) {
+        check(request).whenComplete((response, error) -> {
+            if (error != null) {
+                log.error("CheckRisk failed: accountId={}", request.getAccountId(), error);
+                responseObserver.onError(Status.INTERNAL.withDescription("Internal server error").asRuntimeException());
+            } else {
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            }
+        });
+    }
+
+    @Override
+    public StreamObserver<RiskCheckRequest> checkRiskBatch(StreamObserver<RiskCheckResponse> responseObserver) {
+        ServerCallStreamObserver<RiskCheckResponse> call =
+                (ServerCallStreamObserver<RiskCheckResponse>) responseObserver;
+        call.disableAutoRequest();
+        call.request(properties.getGrpc().getMaxInFlight());
+
+        return new StreamObserver<>() {
+
+            private final AtomicInteger inFlight = new AtomicInteger();
+            private final AtomicBoolean halfClosed = new AtomicBoolean();
+            private final AtomicBoolean completed = new AtomicBoolean();
+
+            @Override
+            public void onNext(RiskCheckRequest request) {
+                inFlight.incrementAndGet();
+                check(request).whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("CheckRiskBatch item failed: accountId={}", request.getAccountId(), error);
+                        response = rejected(request, RiskCodes.UNAVAILABLE, "Internal server error");
+                    }
+                    // StreamObserver is not thread-safe; responses come from every shard thread
+                    synchronized (call) {
+                        if (!call.isCancelled() && !completed.get()) {
+                            call.onNext(response);
+                            call.request(1);
+                        }
+                    }
+                    if (inFlight.decrementAndGet() == 0 && halfClosed.get()) {
+                        complete();
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("CheckRiskBatch stream closed by client: {}", t.getMessage());
+                completed.set(true);
+            }
+
+            @Override
+            public void onCompleted() {
+                halfClosed.set(true);
+                if (inFlight.get() == 0) {
+                    complete();
+                }
+            }
+
+            private void complete() {
+                if (completed.compareAndSet(false, true)) {
+                    synchronized (call) {
+                        if (!call.isCancelled()) {
+                            call.onCompleted();
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Net position of one symbol. Cost basis, market value and P&amp;L are not tracked by the
+     * ledger and come back as 0.
+     */
+    @Override
+    public void getPosition(GetPositionRequest request, StreamObserver<Position> responseObserver) {
+        if (request.getAccountId().isBlank() || !request.hasSymbol() || request.getSymbol().isBlank()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("account_id and symbol are required").asRuntimeException());
+            return;
+        }
+        String symbol = request.getSymbol();
+        riskLedger.submit(request.getAccountId(), account -> account.position(symbol))
+                .whenComplete((quantity, error) -> {
+                    if (error != null) {
+                        log.error("GetPosition failed: accountId={}", request.getAccountId(), error);
+                        responseObserver.onError(
+                                Status.INTERNAL.withDescription("Internal server error").asRuntimeException());
+                        return;
+                    }
+                    responseObserver.onNext(Position.newBuilder()
+                            .setAccountId(request.getAccountId())
+                            .setSymbol(symbol)
+                            .setQuantity(FixedPoint.toDouble(quantity))
+                            .setUpdatedAtMs(System.currentTimeMillis())
+                            .build());
+                    responseObserver.onCompleted();
+                });
+    }
+
+    /**
+     * Buying power then position; with reserve set, checks and opens the order's exposure
+     * in the same shard step (idempotent on order_id).
+     */
+    private CompletableFuture<RiskCheckResponse> check(RiskCheckRequest request) {
+        OrderDTO order;
+        try {
+            order = toOrder(request);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(rejected(request, RiskCodes.INVALID_REQUEST, e.getMessage()));
+        }
+
+        long price;
+        long notional;
+        try {
+            price = request.getEstimatedPrice() > 0
+                    ? FixedPoint.fromDouble(request.getEstimatedPrice()) : FixedPoint.NULL;
+            notional = price != FixedPoint.NULL
+                    ? FixedPoint.multiply(FixedPoint.fromBigDecimal(order.getQuantity()), price) : FixedPoint.NULL;
+        } catch (ArithmeticException e) {
+            return CompletableFuture.completedFuture(rejected(request, RiskCodes.INVALID_REQUEST,
+                    "quantity or estimated_price out of range"));
+        }
+        long maxPositionSize = FixedPoint.of(properties.getLimits().getMaxPositionSize());
+        boolean checkBuyingPower = properties.getLimits().isCheckBuyingPower();
+
+        return riskLedger.submit(order.getAccountId(), account -> {
+            if (request.getReserve()) {
+                return account.reserve(order, price, notional, maxPositionSize, checkBuyingPower);
+            }
+            int code = checkBuyingPower ? account.checkBuyingPower(order, notional) : RiskCodes.OK;
+            return code == RiskCodes.OK ? account.checkPosition(order, maxPositionSize) : code;
+        }).thenApply(code -> code == RiskCodes.OK ? approved(request) : rejected(request, code, describe(code)));
+    }
+
+    private static OrderDTO toOrder(RiskCheckRequest request) {
+        if (request.getAccountId().isBlank() || request.getSymbol().isBlank()) {
+            throw new IllegalArgumentException("account_id and symbol are required");
+        }
+        if (!(request.getQuantity() > 0)) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        OrderSide side;
+        try {
+            side = OrderSide.valueOf(request.getSide());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid side: " + request.getSide());
+        }
+        UUID orderId = null;
+        if (!request.getOrderId().isBlank()) {
+            try {
+                orderId = UUID.fromString(request.getOrderId());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid order_id: " + request.getOrderId());
+            }
+        } else if (request.getReserve()) {
+            throw new IllegalArgumentException("order_id is required to reserve");
+        }
+        return OrderDTO.builder()
+                .orderId(orderId)
+                .accountId(request.getAccountId())
+                .symbol(request.getSymbol())
+                .side(side)
+                .quantity(BigDecimal.valueOf(request.getQuantity()))
+                .build();
+    }
+
+    private static RiskCheckResponse approved(RiskCheckRequest request) {
+        return RiskCheckResponse.newBuilder()
+                .setRequestId(request.getRequestId())
+                .setApproved(true)
+                .setMessage("Approved")
+                .setReasonCode(RiskCodes.OK)
+                .build();
+    }
+
+    private static RiskCheckResponse rejected(RiskCheckRequest request, int code, String message) {
+        return RiskCheckResponse.newBuilder()
+                .setRequestId(request.getRequestId())
+                .setApproved(false)
+                .setMessage(message)
+                .setReasonCode(code)
+                .addViolations(RiskViolation.newBuilder()
+                        .setRule(rule(code))
+                        .setDescription(message)
+                        .setSeverity("ERROR"))
+                .build();
+    }
+
+    private static String rule(int code) {
+        return switch (code) {
+            case RiskCodes.INSUFFICIENT_BUYING_POWER -> "buying-power";
+            case RiskCodes.POSITION_SIZE_EXCEEDED -> "position-size";
+            case RiskCodes.UNAVAILABLE -> "internal";
+            default -> "request";
+        };
+    }
+
+    private static String describe(int code) {
+        return switch (code) {
+            case RiskCodes.INSUFFICIENT_BUYING_POWER -> "Insufficient buying power";
+            case RiskCodes.POSITION_SIZE_EXCEEDED -> "Order quantity exceeds maximum position size";
+            case RiskCodes.TOO_MANY_OPEN_ORDERS -> "Too many open orders";
+            default -> "Rejected (" + code + ")";
+        };
+    }
+}
@@ -17,7 +17,8 @@ public final class KafkaTopics {
     // Market data topics
     public static final String MARKETDATA_QUOTES = "marketdata.quotes";
     
-    // Dead letter queue
+    // Retry tiers (suffixed with the delay, e.g. orders.inbound.retry-10s) and dead letter queue
+    public static final String RETRY_SUFFIX = ".retry-";
     public static final String DLQ_SUFFIX = ".dlq";
     
     private KafkaTopics() {
@@ -0,0 +1,309 @@
+package com.oms.common.kafka;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderSide;
+import com.oms.common.model.OrderDTO.OrderStatus;
+import com.oms.common.model.OrderDTO.OrderType;
+import com.oms.common.model.OrderDTO.TimeInForce;
+
+/**
+ * Fixed-layout binary encoding of {@link OrderDTO} ({@link OrderWireFormat#BINARY}).
+ *
+ * Layout, big-endian:
+ * <pre>
+ *   version         byte (1)
+ *   presence        short, one bit per nullable field below (PRESENT_*)
+ *   orderId         long msb, long lsb
+ *   side, orderType, timeInForce, status
+ *                   byte ordinal each, -1 for null
+ *   clientOrderId, accountId, symbol
+ *                   unsigned short UTF-8 length, bytes
+ *   quantity, filledQuantity, limitPrice, stopPrice
+ *                   byte 0, byte scale, long unscaled value (up to 18 digits), or
+ *                   byte 1, int scale, unsigned short length, two's-complement unscaled value
+ *   createdAt, updatedAt
+ *                   long epoch seconds, int nanos
+ * </pre>
+ * Absent fields take no space. Enums travel as ordinals: constants may only be appended,
+ * never reordered, or records already on the topics decode to the wrong value.
+ */
+public final class OrderBinaryCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int PRESENT_ORDER_ID = 1;
+    private static final int PRESENT_CLIENT_ORDER_ID = 1 << 1;
+    private static final int PRESENT_ACCOUNT_ID = 1 << 2;
+    private static final int PRESENT_SYMBOL = 1 << 3;
+    private static final int PRESENT_QUANTITY = 1 << 4;
+    private static final int PRESENT_FILLED_QUANTITY = 1 << 5;
+    private static final int PRESENT_LIMIT_PRICE = 1 << 6;
+    private static final int PRESENT_STOP_PRICE = 1 << 7;
+    private static final int PRESENT_CREATED_AT = 1 << 8;
+    private static final int PRESENT_UPDATED_AT = 1 << 9;
+
+    private static final byte DECIMAL_COMPACT = 0;
+    private static final byte DECIMAL_WIDE = 1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final OrderType[] TYPES = OrderType.values();
+    private static final TimeInForce[] TIME_IN_FORCES = TimeInForce.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private OrderBinaryCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static byte[] encode(OrderDTO order) {
+        byte[] bytes = new byte[encodedSize(order)];
+        encode(order, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Writes the order at the buffer's position, which must have {@link #encodedSize}
+     * bytes remaining.
+     */
+    public static void encode(OrderDTO order, ByteBuffer out) {
+        out.put(VERSION);
+        out.putShort((short) presence(order));
+        if (order.getOrderId() != null) {
+            out.putLong(order.getOrderId().getMostSignificantBits());
+            out.putLong(order.getOrderId().getLeastSignificantBits());
+        }
+        out.put(ordinal(order.getSide()));
+        out.put(ordinal(order.getOrderType()));
+        out.put(ordinal(order.getTimeInForce()));
+        out.put(ordinal(order.getStatus()));
+        putString(out, order.getClientOrderId());
+        putString(out, order.getAccountId());
+        putString(out, order.getSymbol());
+        putDecimal(out, order.getQuantity());
+        putDecimal(out, order.getFilledQuantity());
+        putDecimal(out, order.getLimitPrice());
+        putDecimal(out, order.getStopPrice());
+        putInstant(out, order.getCreatedAt());
+        putInstant(out, order.getUpdatedAt());
+    }
+
+    public static int encodedSize(OrderDTO order) {
+        int size = 1 + 2 + 4;
+        if (order.getOrderId() != null) {
+            size += 16;
+        }
+        size += stringSize(order.getClientOrderId()) + stringSize(order.getAccountId())
+                + stringSize(order.getSymbol());
+        size += decimalSize(order.getQuantity()) + decimalSize(order.getFilledQuantity())
+                + decimalSize(order.getLimitPrice()) + decimalSize(order.getStopPrice());
+        if (order.getCreatedAt() != null) {
+            size += 12;
+        }
+        if (order.getUpdatedAt() != null) {
+            size += 12;
+        }
+        return size;
+    }
+
+    public static OrderDTO decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads one order from the buffer's position.
+     *
+     * @throws IllegalArgumentException for an unknown version or a truncated record
+     */
+    public static OrderDTO decode(ByteBuffer in) {
+        try {
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported order encoding version " + version);
+            }
+            int presence = in.getShort() & 0xFFFF;
+
+            OrderDTO order = new OrderDTO();
+            if ((presence & PRESENT_ORDER_ID) != 0) {
+                order.setOrderId(new UUID(in.getLong(), in.getLong()));
+            }
+            order.setSide(valueOf(SIDES, in.get()));
+            order.setOrderType(valueOf(TYPES, in.get()));
+            order.setTimeInForce(valueOf(TIME_IN_FORCES, in.get()));
+            order.setStatus(valueOf(STATUSES, in.get()));
+            order.setClientOrderId(getString(in, presence, PRESENT_CLIENT_ORDER_ID));
+            order.setAccountId(getString(in, presence, PRESENT_ACCOUNT_ID));
+            order.setSymbol(getString(in, presence, PRESENT_SYMBOL));
+            order.setQuantity(getDecimal(in, presence, PRESENT_QUANTITY));
+            order.setFilledQuantity(getDecimal(in, presence, PRESENT_FILLED_QUANTITY));
+            order.setLimitPrice(getDecimal(in, presence, PRESENT_LIMIT_PRICE));
+            order.setStopPrice(getDecimal(in, presence, PRESENT_STOP_PRICE));
+            order.setCreatedAt(getInstant(in, presence, PRESENT_CREATED_AT));
+            order.setUpdatedAt(getInstant(in, presence, PRESENT_UPDATED_AT));
+            return order;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated order record", e);
+        }
+    }
+
+    private static int presence(OrderDTO order) {
+        int presence = 0;
+        presence |= order.getOrderId() != null ? PRESENT_ORDER_ID : 0;
+        presence |= order.getClientOrderId() != null ? PRESENT_CLIENT_ORDER_ID : 0;
+        presence |= order.getAccountId() != null ? PRESENT_ACCOUNT_ID : 0;
+        presence |= order.getSymbol() != null ? PRESENT_SYMBOL : 0;
+        presence |= order.getQuantity() != null ? PRESENT_QUANTITY : 0;
+        presence |= order.getFilledQuantity() != null ? PRESENT_FILLED_QUANTITY : 0;
+        presence |= order.getLimitPrice() != null ? PRESENT_LIMIT_PRICE : 0;
+        presence |= order.getStopPrice() != null ? PRESENT_STOP_PRICE : 0;
+        presence |= order.getCreatedAt() != null ? PRESENT_CREATED_AT : 0;
+        presence |= order.getUpdatedAt() != null ? PRESENT_UPDATED_AT : 0;
+        return presence;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static <E extends Enum<E>> E valueOf(E[] values, byte ordinal) {
+        if (ordinal == -1) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown ordinal " + ordinal + " for "
+                    + values[0].getDeclaringClass().getSimpleName());
+        }
+        return values[ordinal];
+    }
+
+    // Strings: ASCII (every symbol and most ids) is written char by char without a copy
+
+    private static int stringSize(String value) {
+        return value == null ? 0 : 2 + utf8Length(value);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            return;
+        }
+        int length = utf8Length(value);
+        if (length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String of " + length + " bytes exceeds " + MAX_STRING_BYTES);
+        }
+        out.putShort((short) length);
+        if (length == value.length()) {
+            for (int i = 0; i < length; i++) {
+                out.put((byte) value.charAt(i));
+            }
+        } else {
+            out.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String getString(ByteBuffer in, int presence, int bit) {
+        if ((presence & bit) == 0) {
+            return null;
+        }
+        int length = in.getShort() & 0xFFFF;
+        if (in.hasArray()) {
+            int offset = in.arrayOffset() + in.position();
+            in.position(in.position() + length);
+            return new String(in.array(), offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                // Lone surrogates are replaced by '?' (one byte) in String.getBytes
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return length;
+    }
+
+    // Decimals: scale and unscaled value, so 100.50 stays 100.50
+
+    private static boolean isCompact(BigDecimal value) {
+        return value.precision() <= 18 && value.scale() >= Byte.MIN_VALUE && value.scale() <= Byte.MAX_VALUE;
+    }
+
+    private static int decimalSize(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        if (isCompact(value)) {
+            return 1 + 1 + 8;
+        }
+        return 1 + 4 + 2 + value.unscaledValue().bitLength() / 8 + 1;
+    }
+
+    private static void putDecimal(ByteBuffer out, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        if (isCompact(value)) {
+            out.put(DECIMAL_COMPACT);
+            out.put((byte) value.scale());
+            out.putLong(value.unscaledValue().longValue());
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.put(DECIMAL_WIDE);
+        out.putInt(value.scale());
+        out.putShort((short) unscaled.length);
+        out.put(unscaled);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer in, int presence, int bit) {
+        if ((presence & bit) == 0) {
+            return null;
+        }
+        byte kind = in.get();
+        if (kind == DECIMAL_COMPACT) {
+            int scale = in.get();
+            return BigDecimal.valueOf(in.getLong(), scale);
+        }
+        if (kind != DECIMAL_WIDE) {
+            throw new IllegalArgumentException("Unknown decimal encoding " + kind);
+        }
+        int scale = in.getInt();
+        byte[] unscaled = new byte[in.getShort() & 0xFFFF];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void putInstant(ByteBuffer out, Instant value) {
+        if (value != null) {
+            out.putLong(value.getEpochSecond());
+            out.putInt(value.getNano());
+        }
+    }
+
+    private static Instant getInstant(ByteBuffer in, int presence, int bit) {
+        if ((presence & bit) == 0) {
+            return null;
+        }
+        return Instant.ofEpochSecond(in.getLong(), in.getInt());
+    }
+}
@@ -0,0 +1,71 @@
+package com.oms.common.kafka;
+
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.oms.common.model.OrderDTO;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Kafka {@link Deserializer} for {@link OrderDTO}, JSON or binary as the record's
+ * content-type header says ({@link OrderWireFormat}); records without it are JSON.
+ *
+ * Parses the record's bytes in place, JSON included, without an intermediate String;
+ * the ByteBuffer variant reads the fetched buffer without copying the value out first.
+ */
+public class OrderDeserializer implements Deserializer<OrderDTO> {
+
+    private final ObjectMapper objectMapper;
+
+    public OrderDeserializer() {
+        this(JsonMapper.builder().build());
+    }
+
+    public OrderDeserializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public OrderDTO deserialize(String topic, byte[] data) {
+        return deserialize(data, OrderWireFormat.JSON);
+    }
+
+    @Override
+    public OrderDTO deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(data, OrderWireFormat.of(headers));
+    }
+
+    @Override
+    public OrderDTO deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        // Kafka reads the buffer's remaining bytes afterwards (serializedValueSize): leave its position alone
+        if (OrderWireFormat.of(headers) == OrderWireFormat.BINARY) {
+            return OrderBinaryCodec.decode(data.duplicate());
+        }
+        if (data.hasArray()) {
+            return objectMapper.readValue(data.array(), data.arrayOffset() + data.position(), data.remaining(),
+                    OrderDTO.class);
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return objectMapper.readValue(bytes, OrderDTO.class);
+    }
+
+    /**
+     * For callers holding the raw value and its format, e.g. listeners on byte[] records.
+     */
+    public OrderDTO deserialize(byte[] data, OrderWireFormat format) {
+        if (data == null) {
+            return null;
+        }
+        return format == OrderWireFormat.BINARY
+                ? OrderBinaryCodec.decode(data)
+                : objectMapper.readValue(data, OrderDTO.class);
+    }
+}
@@ -0,0 +1,22 @@
+package com.oms.common.kafka;
+
+import org.apache.kafka.common.serialization.Serdes;
+
+import com.oms.common.model.OrderDTO;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@link OrderSerializer} and {@link OrderDeserializer} as one Serde, for typed consumers
+ * and producers of order topics.
+ */
+public class OrderSerde extends Serdes.WrapperSerde<OrderDTO> {
+
+    public OrderSerde() {
+        super(new OrderSerializer(), new OrderDeserializer());
+    }
+
+    public OrderSerde(ObjectMapper objectMapper, OrderWireFormat format) {
+        super(new OrderSerializer(objectMapper, format), new OrderDeserializer(objectMapper));
+    }
+}
@@ -0,0 +1,91 @@
+package com.oms.common.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.oms.common.model.OrderDTO;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Kafka {@link Serializer} for {@link OrderDTO} in one {@link OrderWireFormat}, marking the
+ * record's content-type header with it.
+ *
+ * JSON is generated as UTF-8 straight into a per-thread buffer that is reused across
+ * records and copied out once at its final size; binary records are sized up front by
+ * {@link OrderBinaryCodec} and written in place. Neither goes through a String.
+ *
+ * Built with the application's ObjectMapper, or by Kafka from the class name with the
+ * format in {@link #WIRE_FORMAT_CONFIG}.
+ */
+public class OrderSerializer implements Serializer<OrderDTO> {
+
+    public static final String WIRE_FORMAT_CONFIG = "oms.order.wire-format";
+
+    /** A thread's buffer grown past this by an outsized record is dropped after use */
+    private static final int MAX_RETAINED_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
+
+    private final ObjectMapper objectMapper;
+    private OrderWireFormat format;
+
+    public OrderSerializer() {
+        this(JsonMapper.builder().build(), OrderWireFormat.JSON);
+    }
+
+    public OrderSerializer(ObjectMapper objectMapper, OrderWireFormat format) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object value = configs.get(WIRE_FORMAT_CONFIG);
+        if (value instanceof OrderWireFormat wireFormat) {
+            format = wireFormat;
+        } else if (value != null) {
+            format = OrderWireFormat.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public OrderWireFormat format() {
+        return format;
+    }
+
+    /**
+     * Without headers a consumer cannot tell the format, so this always writes JSON.
+     */
+    @Override
+    public byte[] serialize(String topic, OrderDTO data) {
+        return data == null ? null : json(data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, OrderDTO data) {
+        if (data == null) {
+            return null;
+        }
+        format.mark(headers);
+        return format == OrderWireFormat.BINARY ? OrderBinaryCodec.encode(data) : json(data);
+    }
+
+    private byte[] json(OrderDTO order) {
+        ByteArrayOutputStream buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            objectMapper.writeValue(buffer, order);
+            return buffer.toByteArray();
+        } finally {
+            if (buffer.size() > MAX_RETAINED_BYTES) {
+                BUFFER.remove();
+            }
+        }
+    }
+}
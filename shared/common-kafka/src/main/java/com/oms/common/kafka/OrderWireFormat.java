@@ -0,0 +1,51 @@
+package com.oms.common.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Encodings of order records (orders.inbound, orders.validated), marked on each record
+ * with the content-type header.
+ *
+ * Producers pick one by config; consumers accept both. A record without the header is
+ * JSON, as everything was before the header existed.
+ */
+public enum OrderWireFormat {
+
+    JSON("application/json"),
+    /** {@link OrderBinaryCodec} */
+    BINARY("application/x-oms-order");
+
+    public static final String HEADER = "content-type";
+
+    private final String contentType;
+    private final byte[] headerValue;
+
+    OrderWireFormat(String contentType) {
+        this.contentType = contentType;
+        this.headerValue = contentType.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Sets this format's content-type header, replacing one copied from another record.
+     */
+    public void mark(Headers headers) {
+        headers.remove(HEADER);
+        headers.add(HEADER, headerValue);
+    }
+
+    public static OrderWireFormat of(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        if (header != null && Arrays.equals(header.value(), BINARY.headerValue)) {
+            return BINARY;
+        }
+        return JSON;
+    }
+}
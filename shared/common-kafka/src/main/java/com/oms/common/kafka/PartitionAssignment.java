@@ -0,0 +1,98 @@
+package com.oms.common.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manual assignment of every partition of a set of topics, for the feeds that read all of
+ * them without a consumer group. Without a group nothing tells the consumer when a topic
+ * is created or gains partitions, so the topics are re-resolved periodically and whatever
+ * appeared is added to the assignment. Partitions already assigned keep their positions.
+ */
+public final class PartitionAssignment {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionAssignment.class);
+
+    private static final long REFRESH_INTERVAL_MS = 10_000;
+    private static final Duration METADATA_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Consumer<?, ?> consumer;
+    private final List<String> topics;
+    private final Set<TopicPartition> assigned = new LinkedHashSet<>();
+    private long lastRefresh;
+
+    public PartitionAssignment(Consumer<?, ?> consumer, List<String> topics) {
+        this.consumer = consumer;
+        this.topics = List.copyOf(topics);
+    }
+
+    /**
+     * Assigns the partitions of the topics as they exist now; topics missing so far are
+     * picked up by {@link #refresh}.
+     *
+     * @return the assigned partitions, still to be positioned by the caller
+     */
+    public List<TopicPartition> assign() {
+        lastRefresh = System.nanoTime();
+        List<TopicPartition> added = resolve();
+        assigned.addAll(added);
+        consumer.assign(assigned);
+        return added;
+    }
+
+    /**
+     * Re-resolves the topics once the refresh interval has passed and assigns the partitions
+     * that appeared since. A metadata failure is logged and retried on the next interval.
+     *
+     * @return the newly assigned partitions, still to be positioned; empty when none
+     */
+    public List<TopicPartition> refresh() {
+        long now = System.nanoTime();
+        if (now - lastRefresh < TimeUnit.MILLISECONDS.toNanos(REFRESH_INTERVAL_MS)) {
+            return List.of();
+        }
+        lastRefresh = now;
+        List<TopicPartition> added;
+        try {
+            added = resolve();
+        } catch (Exception e) {
+            log.warn("Could not refresh partitions of {}: {}", topics, e.getMessage());
+            return List.of();
+        }
+        added.removeAll(assigned);
+        if (!added.isEmpty()) {
+            assigned.addAll(added);
+            consumer.assign(assigned);
+            log.info("Assigned {} new partitions: {}", added.size(), added);
+        }
+        return added;
+    }
+
+    /** Every assigned partition, in assignment order */
+    public Set<TopicPartition> partitions() {
+        return assigned;
+    }
+
+    private List<TopicPartition> resolve() {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : topics) {
+            List<PartitionInfo> infos = consumer.partitionsFor(topic, METADATA_TIMEOUT);
+            if (infos == null || infos.isEmpty()) {
+                log.debug("Topic {} has no partitions yet", topic);
+                continue;
+            }
+            infos.forEach(info -> partitions.add(new TopicPartition(topic, info.partition())));
+        }
+        return partitions;
+    }
+}
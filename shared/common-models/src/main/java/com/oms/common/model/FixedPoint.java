@@ -0,0 +1,203 @@
+package com.oms.common.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Scaled-long decimals for prices, quantities and notionals: a value v is held as the
+ * long v x 10^6, the scale of the DECIMAL(18,6) columns.
+ *
+ * Arithmetic on the raw longs is exact and allocation free; it throws
+ * {@link ArithmeticException} instead of overflowing. Only {@link #multiply} rounds, half
+ * away from zero, back to six places. BigDecimal appears at the edges only (DTOs, JDBC,
+ * JSON via {@link FixedPointJson}) through the conversions below.
+ *
+ * {@link #NULL} marks an absent value. It is never the result of arithmetic, and the
+ * operations reject it as an operand.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 6;
+    public static final long ONE = 1_000_000L;
+    public static final long ZERO = 0L;
+    /** Absent value */
+    public static final long NULL = Long.MIN_VALUE;
+
+    private static final long HALF = ONE / 2;
+    private static final double MAX_DOUBLE = (double) Long.MAX_VALUE / ONE;
+
+    private FixedPoint() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // Conversions
+
+    /** Whole units, e.g. of(100) is 100.000000 */
+    public static long of(long units) {
+        return checked(Math.multiplyExact(units, ONE));
+    }
+
+    /**
+     * Rounded half away from zero to six places, as the DECIMAL(18,6) columns store it;
+     * null gives {@link #NULL}.
+     *
+     * @throws ArithmeticException when out of range
+     */
+    public static long fromBigDecimal(BigDecimal value) {
+        if (value == null) {
+            return NULL;
+        }
+        BigDecimal scaled = value.scale() == SCALE ? value : value.setScale(SCALE, RoundingMode.HALF_UP);
+        return checked(scaled.unscaledValue().longValueExact());
+    }
+
+    /**
+     * Like {@link #fromBigDecimal}, but a value finer than six places is an error.
+     *
+     * @throws ArithmeticException when out of range or not representable exactly
+     */
+    public static long fromBigDecimalExact(BigDecimal value) {
+        if (value == null) {
+            return NULL;
+        }
+        return checked(value.movePointRight(SCALE).longValueExact());
+    }
+
+    public static BigDecimal toBigDecimal(long raw) {
+        return raw == NULL ? null : BigDecimal.valueOf(raw, SCALE);
+    }
+
+    /**
+     * Rounded to six places; NaN gives {@link #NULL}.
+     *
+     * @throws ArithmeticException when infinite or out of range
+     */
+    public static long fromDouble(double value) {
+        if (Double.isNaN(value)) {
+            return NULL;
+        }
+        if (!(Math.abs(value) < MAX_DOUBLE)) {
+            throw new ArithmeticException("Out of fixed-point range: " + value);
+        }
+        return checked(Math.round(value * ONE));
+    }
+
+    /** {@link #NULL} gives NaN */
+    public static double toDouble(long raw) {
+        return raw == NULL ? Double.NaN : (double) raw / ONE;
+    }
+
+    /**
+     * Plain decimal text without trailing zeros (100.5, -0.000001, 42); null for {@link #NULL}.
+     */
+    public static String toString(long raw) {
+        if (raw == NULL) {
+            return null;
+        }
+        long units = raw / ONE;
+        long fraction = Math.abs(raw % ONE);
+        StringBuilder text = new StringBuilder(24);
+        if (raw < 0 && units == 0) {
+            text.append('-');
+        }
+        text.append(units);
+        if (fraction != 0) {
+            int digits = SCALE;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            text.append('.');
+            String fractionText = Long.toString(fraction);
+            for (int i = fractionText.length(); i < digits; i++) {
+                text.append('0');
+            }
+            text.append(fractionText);
+        }
+        return text.toString();
+    }
+
+    // Arithmetic
+
+    public static long add(long a, long b) {
+        return checked(Math.addExact(operand(a), operand(b)));
+    }
+
+    public static long subtract(long a, long b) {
+        return checked(Math.subtractExact(operand(a), operand(b)));
+    }
+
+    public static long negate(long a) {
+        return -operand(a);
+    }
+
+    public static long abs(long a) {
+        return Math.abs(operand(a));
+    }
+
+    /**
+     * Product of two fixed-point values (quantity x price), rounded half away from zero to
+     * six places. The intermediate product is 128 bits wide, so only a result outside the
+     * long range overflows.
+     */
+    public static long multiply(long a, long b) {
+        operand(a);
+        operand(b);
+        boolean negative = (a < 0) != (b < 0);
+        long x = Math.abs(a);
+        long y = Math.abs(b);
+        long high = Math.multiplyHigh(x, y);
+        long low = x * y;
+        if (high >= ONE) {
+            throw new ArithmeticException("Fixed-point overflow");
+        }
+
+        // (high:low) / ONE in two 32-bit steps; high < ONE keeps every step within a long
+        long upper = (high << 32) | (low >>> 32);
+        long quotientHigh = upper / ONE;
+        long lower = ((upper % ONE) << 32) | (low & 0xFFFFFFFFL);
+        long quotientLow = lower / ONE;
+        long remainder = lower % ONE;
+        if (quotientHigh >>> 31 != 0) {
+            throw new ArithmeticException("Fixed-point overflow");
+        }
+        long quotient = (quotientHigh << 32) + quotientLow;
+        if (remainder >= HALF) {
+            quotient = checked(Math.addExact(quotient, 1));
+        }
+        return negative ? -quotient : quotient;
+    }
+
+    // JDBC, for DECIMAL(18,6) columns
+
+    public static void bind(PreparedStatement statement, int index, long raw) throws SQLException {
+        if (raw == NULL) {
+            statement.setNull(index, Types.DECIMAL);
+        } else {
+            statement.setBigDecimal(index, toBigDecimal(raw));
+        }
+    }
+
+    /** SQL NULL gives {@link #NULL} */
+    public static long read(ResultSet resultSet, String column) throws SQLException {
+        return fromBigDecimal(resultSet.getBigDecimal(column));
+    }
+
+    private static long operand(long raw) {
+        if (raw == NULL) {
+            throw new ArithmeticException("Fixed-point operand is NULL");
+        }
+        return raw;
+    }
+
+    private static long checked(long raw) {
+        if (raw == NULL) {
+            throw new ArithmeticException("Fixed-point overflow");
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,57 @@
+package com.oms.common.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Maps a {@link FixedPoint} long property to a JSON decimal (100.5 rather than 100500000)
+ * and back; {@link FixedPoint#NULL} is JSON null.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER })
+@JacksonAnnotationsInside
+@JsonSerialize(using = FixedPointJson.Serializer.class)
+@JsonDeserialize(using = FixedPointJson.Deserializer.class)
+public @interface FixedPointJson {
+
+    class Serializer extends ValueSerializer<Long> {
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializationContext ctxt) {
+            if (value == FixedPoint.NULL) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(FixedPoint.toString(value));
+            }
+        }
+    }
+
+    class Deserializer extends ValueDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) {
+            BigDecimal value = p.currentToken() == JsonToken.VALUE_STRING
+                    ? new BigDecimal(p.getString().trim())
+                    : p.getDecimalValue();
+            return FixedPoint.fromBigDecimal(value);
+        }
+
+        @Override
+        public Long getNullValue(DeserializationContext ctxt) {
+            return FixedPoint.NULL;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.oms.common.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account and per-symbol velocity limits on order count and notional, shared by the
+ * ingest edge and the validator. Each limit is a {@link SlidingWindowLimiter}; a limit
+ * of 0 disables it.
+ *
+ * Limits are checked in the order account orders, account notional, symbol orders,
+ * symbol notional. An order counts against every limit it passed before the one that
+ * rejected it, so a flooding client keeps exhausting its order-rate budget.
+ */
+public final class OrderRateLimiter {
+
+    public enum Breach {
+        NONE("OK"),
+        ACCOUNT_ORDER_RATE("Account order rate limit exceeded"),
+        ACCOUNT_NOTIONAL_RATE("Account notional rate limit exceeded"),
+        SYMBOL_ORDER_RATE("Symbol order rate limit exceeded"),
+        SYMBOL_NOTIONAL_RATE("Symbol notional rate limit exceeded");
+
+        private final String description;
+
+        Breach(String description) {
+            this.description = description;
+        }
+
+        public String description() {
+            return description;
+        }
+
+        public boolean isNotional() {
+            return this == ACCOUNT_NOTIONAL_RATE || this == SYMBOL_NOTIONAL_RATE;
+        }
+    }
+
+    /**
+     * @param windowMs sliding window length; limits are amounts per window
+     * @param buckets  sub-windows the window slides by
+     * @param stripes  counter stripes per limit
+     */
+    public record Limits(long accountOrders, long accountNotional, long symbolOrders, long symbolNotional,
+            long windowMs, int buckets, int stripes) {
+    }
+
+    private final SlidingWindowLimiter accountOrders;
+    private final SlidingWindowLimiter accountNotional;
+    private final SlidingWindowLimiter symbolOrders;
+    private final SlidingWindowLimiter symbolNotional;
+
+    public OrderRateLimiter(Limits limits) {
+        this.accountOrders = limiter(limits.accountOrders(), limits);
+        this.accountNotional = limiter(limits.accountNotional(), limits);
+        this.symbolOrders = limiter(limits.symbolOrders(), limits);
+        this.symbolNotional = limiter(limits.symbolNotional(), limits);
+    }
+
+    public boolean isEnabled() {
+        return accountOrders.isEnabled() || accountNotional.isEnabled()
+                || symbolOrders.isEnabled() || symbolNotional.isEnabled();
+    }
+
+    /**
+     * Counts one order of the given notional (0 when it cannot be priced) and returns
+     * the first limit it breaches, or {@link Breach#NONE}.
+     */
+    public Breach acquire(String accountId, String symbol, double notional) {
+        long amount = notional > 0 ? (long) Math.ceil(notional) : 0;
+        if (!accountOrders.tryAcquire(accountId, 1)) {
+            return Breach.ACCOUNT_ORDER_RATE;
+        }
+        if (amount > 0 && !accountNotional.tryAcquire(accountId, amount)) {
+            return Breach.ACCOUNT_NOTIONAL_RATE;
+        }
+        if (!symbolOrders.tryAcquire(symbol, 1)) {
+            return Breach.SYMBOL_ORDER_RATE;
+        }
+        if (amount > 0 && !symbolNotional.tryAcquire(symbol, amount)) {
+            return Breach.SYMBOL_NOTIONAL_RATE;
+        }
+        return Breach.NONE;
+    }
+
+    public long limit(Breach breach) {
+        return switch (breach) {
+            case ACCOUNT_ORDER_RATE -> accountOrders.limit();
+            case ACCOUNT_NOTIONAL_RATE -> accountNotional.limit();
+            case SYMBOL_ORDER_RATE -> symbolOrders.limit();
+            case SYMBOL_NOTIONAL_RATE -> symbolNotional.limit();
+            case NONE -> 0;
+        };
+    }
+
+    private static SlidingWindowLimiter limiter(long limit, Limits limits) {
+        return new SlidingWindowLimiter(limit, limits.windowMs(), TimeUnit.MILLISECONDS, limits.buckets(),
+                limits.stripes());
+    }
+}
@@ -0,0 +1,93 @@
+package com.oms.common.throttle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window limit on an amount (orders, notional) per key, over striped primitive
+ * counters: no locks and no allocation per call.
+ *
+ * Keys hash onto a fixed number of stripes; each stripe holds a ring of sub-window
+ * buckets in one AtomicLongArray. A bucket packs its sub-window number (high 24 bits)
+ * with the amount counted in it (low 40 bits), so a stale bucket is recognised and reset
+ * by the CAS that adds to it. Keys sharing a stripe share its budget, which only ever
+ * throttles early, never late; size the stripes well above the number of active keys.
+ *
+ * The check and the add are not one atomic step, so concurrent callers on one key can
+ * overshoot the limit by at most their own amounts.
+ */
+public final class SlidingWindowLimiter {
+
+    private static final int EPOCH_BITS = 24;
+    private static final int AMOUNT_BITS = 64 - EPOCH_BITS;
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final long EPOCH_MASK = (1L << EPOCH_BITS) - 1;
+
+    private final long limit;
+    private final int buckets;
+    private final long bucketNanos;
+    private final int stripeMask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param limit   maximum amount per key over the window; 0 or less disables the limiter
+     * @param window  window length
+     * @param buckets sub-windows the window slides by
+     * @param stripes counter stripes, rounded up to a power of two
+     */
+    public SlidingWindowLimiter(long limit, long window, TimeUnit unit, int buckets, int stripes) {
+        this.limit = limit;
+        this.buckets = Math.max(1, buckets);
+        this.bucketNanos = Math.max(1, unit.toNanos(window) / this.buckets);
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripeMask = size - 1;
+        this.counters = new AtomicLongArray(limit > 0 ? size * this.buckets : 0);
+    }
+
+    public boolean isEnabled() {
+        return limit > 0;
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    /**
+     * Counts the amount against the key if it fits in the window; false (and nothing
+     * counted) when it would exceed the limit.
+     */
+    public boolean tryAcquire(String key, long amount) {
+        if (limit <= 0 || key == null) {
+            return true;
+        }
+        long epoch = System.nanoTime() / bucketNanos;
+        int base = stripe(key) * buckets;
+
+        long used = 0;
+        for (int i = 0; i < buckets; i++) {
+            long bucket = counters.get(base + i);
+            if (((epoch - (bucket >>> AMOUNT_BITS)) & EPOCH_MASK) < buckets) {
+                used += bucket & AMOUNT_MASK;
+            }
+        }
+        if (used + amount > limit) {
+            return false;
+        }
+
+        int index = base + (int) Math.floorMod(epoch, (long) buckets);
+        long tag = (epoch & EPOCH_MASK) << AMOUNT_BITS;
+        while (true) {
+            long bucket = counters.get(index);
+            long current = (bucket & ~AMOUNT_MASK) == tag ? bucket & AMOUNT_MASK : 0;
+            long next = tag | Math.min(current + amount, AMOUNT_MASK);
+            if (counters.compareAndSet(index, bucket, next)) {
+                return true;
+            }
+        }
+    }
+
+    private int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+}
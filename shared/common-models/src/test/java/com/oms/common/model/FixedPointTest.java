@@ -0,0 +1,116 @@
+package com.oms.common.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class FixedPointTest {
+
+    @Test
+    void multiplyIsExactWithoutRounding() {
+        assertEquals(3_750_000L, FixedPoint.multiply(2_500_000L, 1_500_000L)); // 2.5 x 1.5
+        assertEquals(-3_750_000L, FixedPoint.multiply(-2_500_000L, 1_500_000L));
+        assertEquals(0L, FixedPoint.multiply(0L, Long.MAX_VALUE));
+    }
+
+    @Test
+    void multiplyRoundsExactlyHalfAwayFromZero() {
+        // 0.5 x 0.000001 = 0.0000005
+        assertEquals(1L, FixedPoint.multiply(500_000L, 1L));
+        assertEquals(-1L, FixedPoint.multiply(-500_000L, 1L));
+        assertEquals(-1L, FixedPoint.multiply(500_000L, -1L));
+        // 1.5 x 0.000001 = 0.0000015
+        assertEquals(2L, FixedPoint.multiply(1_500_000L, 1L));
+        assertEquals(-2L, FixedPoint.multiply(-1_500_000L, 1L));
+    }
+
+    @Test
+    void multiplyRoundsBelowHalfTowardZero() {
+        assertEquals(0L, FixedPoint.multiply(499_999L, 1L));
+        assertEquals(0L, FixedPoint.multiply(-499_999L, 1L));
+        assertEquals(0L, FixedPoint.multiply(1L, 1L));
+    }
+
+    @Test
+    void multiplySignFollowsOperands() {
+        // 1.234567 x 7.654321 = 9.449771...
+        assertEquals(9_449_772L, FixedPoint.multiply(-1_234_567L, -7_654_321L));
+        assertEquals(-9_449_772L, FixedPoint.multiply(-1_234_567L, 7_654_321L));
+        assertEquals(-9_449_772L, FixedPoint.multiply(1_234_567L, -7_654_321L));
+    }
+
+    @Test
+    void multiplyReachesTheLongRange() {
+        assertEquals(Long.MAX_VALUE, FixedPoint.multiply(Long.MAX_VALUE, FixedPoint.ONE));
+        assertEquals(-Long.MAX_VALUE, FixedPoint.multiply(Long.MAX_VALUE, -FixedPoint.ONE));
+        assertEquals(-Long.MAX_VALUE, FixedPoint.multiply(-Long.MAX_VALUE, FixedPoint.ONE));
+        // Just below half past Long.MAX_VALUE: rounds down to it
+        assertEquals(Long.MAX_VALUE, FixedPoint.multiply(1_000_002L, 9_223_353_590_147_595_512L));
+    }
+
+    @Test
+    void multiplyThrowsBeyondTheLongRange() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(Long.MAX_VALUE, FixedPoint.ONE + 1));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(-Long.MAX_VALUE, FixedPoint.ONE + 1));
+        // The 128-bit product's high word is past the divisor
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(Long.MAX_VALUE, Long.MAX_VALUE));
+        // Exact quotient is Long.MAX_VALUE, rounding the remainder up overflows it
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(1_000_001L, 9_223_362_813_491_962_316L));
+    }
+
+    @Test
+    void multiplyRejectsNull() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(FixedPoint.NULL, FixedPoint.ONE));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(FixedPoint.ONE, FixedPoint.NULL));
+    }
+
+    @Test
+    void multiplyMatchesBigDecimal() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long a = operand(random);
+            long b = operand(random);
+            BigInteger exact = BigDecimal.valueOf(a, FixedPoint.SCALE)
+                    .multiply(BigDecimal.valueOf(b, FixedPoint.SCALE))
+                    .setScale(FixedPoint.SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue();
+            if (exact.abs().bitLength() < 64) { // Long.MIN_VALUE is NULL, not a result
+                assertEquals(exact.longValueExact(), FixedPoint.multiply(a, b), a + " x " + b);
+            } else {
+                assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(a, b), a + " x " + b);
+            }
+        }
+    }
+
+    /** Mix of full-range, price-sized and tiny values, either sign */
+    private static long operand(SplittableRandom random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> random.nextLong(-Long.MAX_VALUE, Long.MAX_VALUE);
+            case 1 -> random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            default -> random.nextLong(-10_000_000L, 10_000_000L);
+        };
+    }
+
+    @Test
+    void bigDecimalRoundTrip() {
+        assertEquals(new BigDecimal("123.456789"), FixedPoint.toBigDecimal(FixedPoint.fromBigDecimal(
+                new BigDecimal("123.456789"))));
+        assertEquals(1L, FixedPoint.fromBigDecimal(new BigDecimal("0.0000005")));
+        assertEquals(-1L, FixedPoint.fromBigDecimal(new BigDecimal("-0.0000005")));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.fromBigDecimalExact(new BigDecimal("0.0000005")));
+        assertEquals(FixedPoint.NULL, FixedPoint.fromBigDecimal(null));
+    }
+
+    @Test
+    void toStringDropsTrailingZeros() {
+        assertEquals("100.5", FixedPoint.toString(100_500_000L));
+        assertEquals("-0.000001", FixedPoint.toString(-1L));
+        assertEquals("42", FixedPoint.toString(FixedPoint.of(42)));
+    }
+}
@@ -0,0 +1,252 @@
+package com.oms.common.risk;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.FixedPointJson;
+import com.oms.common.model.OrderDTO;
+import com.oms.common.model.OrderDTO.OrderSide;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Risk state of one account: cash, net positions and open-order exposure.
+ * Owned by a single {@link RiskLedger} shard thread; never shared across threads.
+ *
+ * Amounts are {@link FixedPoint} longs, so checks and updates do not allocate; order
+ * quantities and fills are converted from BigDecimal on the way in.
+ *
+ * An open order holds its exposure until it is filled, released (rejected downstream)
+ * or expired by {@link #expire} after the ledger's open-order TTL, which also covers
+ * orders that are dead-lettered, canceled or never filled. Fills still waiting for
+ * their order expire the same way.
+ */
+@Data
+@NoArgsConstructor
+public class AccountRisk {
+
+    private String accountId;
+    @FixedPointJson
+    private long cash;
+    /** Cash held by open BUY orders (remaining quantity x price) */
+    @FixedPointJson
+    private long reserved;
+    private Map<String, SymbolRisk> symbols = new HashMap<>();
+    private Map<UUID, OpenOrder> openOrders = new HashMap<>();
+    /** Fills that arrived before their order was opened (the two feeds are not ordered) */
+    private Map<UUID, UnmatchedFill> unmatchedFills = new HashMap<>();
+    /** Reservations are refused beyond this many open orders; 0 = no limit. Set by the ledger. */
+    @JsonIgnore
+    private int maxOpenOrders;
+
+    /** Net position and open-order quantity of one symbol */
+    @Data
+    @NoArgsConstructor
+    public static class SymbolRisk {
+        @FixedPointJson
+        private long position;
+        @FixedPointJson
+        private long openBuys;
+        @FixedPointJson
+        private long openSells;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OpenOrder {
+        private String symbol;
+        private OrderSide side;
+        @FixedPointJson
+        private long remaining;
+        /** Reservation price; {@link FixedPoint#NULL} for orders without one (MARKET) */
+        @FixedPointJson
+        private long price;
+        /** Epoch millis the order was opened at, for {@link AccountRisk#expire} */
+        private long openedAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UnmatchedFill {
+        @FixedPointJson
+        private long quantity;
+        /** Epoch millis of the latest fill */
+        private long at;
+    }
+
+    public AccountRisk(String accountId, long cash) {
+        this.accountId = accountId;
+        this.cash = cash;
+    }
+
+    /** Net position in the symbol, 0 without one */
+    public long position(String symbol) {
+        SymbolRisk risk = symbols.get(symbol);
+        return risk == null ? FixedPoint.ZERO : risk.position;
+    }
+
+    /**
+     * A BUY must fit in cash not already held by open orders.
+     */
+    public int checkBuyingPower(OrderDTO order, long notional) {
+        if (order.getSide() != OrderSide.BUY || notional == FixedPoint.NULL) {
+            return RiskCodes.OK;
+        }
+        return notional > FixedPoint.subtract(cash, reserved) ? RiskCodes.INSUFFICIENT_BUYING_POWER : RiskCodes.OK;
+    }
+
+    /**
+     * Worst case after the order: position plus every open order on the same side.
+     */
+    public int checkPosition(OrderDTO order, long maxPositionSize) {
+        if (order.getSide() == null || order.getSymbol() == null || order.getQuantity() == null) {
+            return RiskCodes.OK;
+        }
+        long quantity = FixedPoint.fromBigDecimal(order.getQuantity());
+        SymbolRisk risk = symbols.get(order.getSymbol());
+        long position = risk == null ? FixedPoint.ZERO : risk.position;
+        long projected = order.getSide() == OrderSide.BUY
+                ? FixedPoint.add(FixedPoint.add(position, risk == null ? FixedPoint.ZERO : risk.openBuys), quantity)
+                : FixedPoint.subtract(FixedPoint.subtract(position, risk == null ? FixedPoint.ZERO : risk.openSells),
+                        quantity);
+        return FixedPoint.abs(projected) > maxPositionSize ? RiskCodes.POSITION_SIZE_EXCEEDED : RiskCodes.OK;
+    }
+
+    /**
+     * Checks and, when the order passes, opens it in one step. Idempotent on orderId.
+     */
+    public int reserve(OrderDTO order, long price, long notional, long maxPositionSize, boolean checkBuyingPower) {
+        if (openOrders.containsKey(order.getOrderId())) {
+            return RiskCodes.OK;
+        }
+        if (maxOpenOrders > 0 && openOrders.size() >= maxOpenOrders) {
+            return RiskCodes.TOO_MANY_OPEN_ORDERS;
+        }
+        int code = checkBuyingPower ? checkBuyingPower(order, notional) : RiskCodes.OK;
+        if (code == RiskCodes.OK) {
+            code = checkPosition(order, maxPositionSize);
+        }
+        if (code == RiskCodes.OK) {
+            open(order.getOrderId(), order.getSymbol(), order.getSide(),
+                    FixedPoint.fromBigDecimal(order.getQuantity()), price, System.currentTimeMillis());
+        }
+        return code;
+    }
+
+    /**
+     * @param price    reservation price, {@link FixedPoint#NULL} when the order has none
+     * @param openedAt epoch millis the order was validated at; its TTL runs from there
+     */
+    public void open(UUID orderId, String symbol, OrderSide side, long quantity, long price, long openedAt) {
+        if (orderId == null || symbol == null || side == null || quantity == FixedPoint.NULL
+                || openOrders.containsKey(orderId)) {
+            return;
+        }
+        UnmatchedFill filled = unmatchedFills.remove(orderId);
+        long remaining = filled == null ? quantity : FixedPoint.subtract(quantity, filled.quantity);
+        if (remaining <= 0) {
+            return;
+        }
+        openOrders.put(orderId, new OpenOrder(symbol, side, remaining, price, openedAt));
+        SymbolRisk risk = symbols.computeIfAbsent(symbol, s -> new SymbolRisk());
+        if (side == OrderSide.BUY) {
+            risk.openBuys = FixedPoint.add(risk.openBuys, remaining);
+            if (price != FixedPoint.NULL) {
+                reserved = FixedPoint.add(reserved, FixedPoint.multiply(remaining, price));
+            }
+        } else {
+            risk.openSells = FixedPoint.add(risk.openSells, remaining);
+        }
+    }
+
+    /**
+     * Moves the filled quantity from open exposure into the position and cash.
+     *
+     * @param at epoch millis of the fill, for {@link #expire} when it has no open order yet
+     */
+    public void fill(Fill fill, long at) {
+        if (fill.symbol() == null || fill.side() == null || fill.quantity() == null || fill.price() == null) {
+            return;
+        }
+        long quantity = FixedPoint.fromBigDecimal(fill.quantity());
+        long notional = FixedPoint.multiply(quantity, FixedPoint.fromBigDecimal(fill.price()));
+        SymbolRisk risk = symbols.computeIfAbsent(fill.symbol(), s -> new SymbolRisk());
+        if (fill.side() == OrderSide.BUY) {
+            risk.position = FixedPoint.add(risk.position, quantity);
+            cash = FixedPoint.subtract(cash, notional);
+        } else {
+            risk.position = FixedPoint.subtract(risk.position, quantity);
+            cash = FixedPoint.add(cash, notional);
+        }
+
+        if (fill.orderId() == null) {
+            return;
+        }
+        OpenOrder open = openOrders.get(fill.orderId());
+        if (open == null) {
+            UnmatchedFill unmatched = unmatchedFills.computeIfAbsent(fill.orderId(), id -> new UnmatchedFill());
+            unmatched.quantity = FixedPoint.add(unmatched.quantity, quantity);
+            unmatched.at = at;
+            return;
+        }
+        long released = Math.min(open.remaining, quantity);
+        releaseExposure(open, released);
+        if (open.remaining <= 0) {
+            openOrders.remove(fill.orderId());
+        }
+    }
+
+    /**
+     * Drops an open order and the exposure it still holds, e.g. when it is rejected after
+     * its reservation. Unknown orders are ignored.
+     */
+    public void release(UUID orderId) {
+        OpenOrder open = orderId == null ? null : openOrders.remove(orderId);
+        if (open != null) {
+            releaseExposure(open, open.remaining);
+        }
+    }
+
+    /**
+     * Releases the open orders opened before the cutoff and drops unmatched fills last
+     * updated before it.
+     *
+     * @return the number of open orders released
+     */
+    public int expire(long cutoff) {
+        int expired = 0;
+        Iterator<OpenOrder> orders = openOrders.values().iterator();
+        while (orders.hasNext()) {
+            OpenOrder open = orders.next();
+            if (open.openedAt < cutoff) {
+                orders.remove();
+                releaseExposure(open, open.remaining);
+                expired++;
+            }
+        }
+        unmatchedFills.values().removeIf(unmatched -> unmatched.at < cutoff);
+        return expired;
+    }
+
+    private void releaseExposure(OpenOrder open, long quantity) {
+        open.remaining -= quantity;
+        SymbolRisk risk = symbols.computeIfAbsent(open.symbol, s -> new SymbolRisk());
+        if (open.side == OrderSide.BUY) {
+            risk.openBuys -= quantity;
+            if (open.price != FixedPoint.NULL) {
+                reserved = FixedPoint.subtract(reserved, FixedPoint.multiply(quantity, open.price));
+            }
+        } else {
+            risk.openSells -= quantity;
+        }
+    }
+}
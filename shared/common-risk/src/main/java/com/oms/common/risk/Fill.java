@@ -0,0 +1,13 @@
+package com.oms.common.risk;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.oms.common.model.OrderDTO.OrderSide;
+
+/**
+ * Execution report consumed from executions.fills (JSON).
+ */
+public record Fill(UUID orderId, String accountId, String symbol, OrderSide side,
+        BigDecimal quantity, BigDecimal price) {
+}
@@ -0,0 +1,22 @@
+package com.oms.common.risk;
+
+/**
+ * Reason codes returned by {@link AccountRisk} checks. The values are shared with the
+ * validator's reason codes and carried on the wire by risk-service.
+ */
+public final class RiskCodes {
+
+    public static final int OK = 0;
+    public static final int INSUFFICIENT_BUYING_POWER = 20;
+    public static final int POSITION_SIZE_EXCEEDED = 22;
+    /** The account already has the ledger's maximum number of open orders */
+    public static final int TOO_MANY_OPEN_ORDERS = 28;
+    /** Malformed risk-service request (same value as the validator's UNREADABLE) */
+    public static final int INVALID_REQUEST = 90;
+    /** risk-service failed to run the check (not a verdict); the caller should retry */
+    public static final int UNAVAILABLE = 91;
+
+    private RiskCodes() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+}
@@ -0,0 +1,280 @@
+package com.oms.common.risk;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import com.oms.common.model.FixedPoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * In-memory risk ledger: positions, open-order exposure and cash per account, sharded
+ * by accountId with a single writer thread per shard.
+ *
+ * Every read and write of an account runs on its shard's thread, so a check and the
+ * reservation that follows it are atomic without locks, and accounts on different
+ * shards never contend. The ledger is fed by {@link RiskLedgerFeed} (orders.validated,
+ * orders.rejected and executions.fills) and by in-process reservations of freshly
+ * checked orders; open orders that are never filled or rejected expire after a TTL.
+ *
+ * Each ledger only sees the reservations made through it: the atomic check-and-reserve
+ * holds per ledger, not across validator instances that each keep their own.
+ *
+ * Snapshots go to one file per shard together with the feed offsets they include, so
+ * a restart loads them and replays only the feed after those offsets. A snapshot set
+ * that does not match (different version, shard count or cut) is ignored and the ledger is
+ * rebuilt from the start of the feed.
+ *
+ * Not a Spring bean itself: the validator and risk-service create it from their own
+ * configuration and call {@link #start()} and {@link #close()}.
+ */
+@Slf4j
+public class RiskLedger implements AutoCloseable {
+
+    /**
+     * @param shards             single-writer shards; 0 = one per CPU
+     * @param defaultBuyingPower cash of an account the ledger has not seen funded
+     * @param openOrderTtlMs     open orders release their exposure this long after they were opened
+     *                           unless filled or released first; 0 = never
+     * @param maxOpenOrders      open orders per account beyond which reservations are refused; 0 = no limit
+     * @param metricPrefix       prefix of the ledger's meters, e.g. oms.validator.risk.ledger
+     */
+    public record Settings(int shards, long defaultBuyingPower, long callTimeoutMs, String snapshotDir,
+            long openOrderTtlMs, int maxOpenOrders, String metricPrefix) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Shard[] shards;
+    private Map<String, Long> restoredOffsets = Map.of();
+    private Timer callTimer;
+    private Counter expiredOrders;
+
+    /** Layout of {@link AccountRisk} in the snapshot files; older snapshots are ignored */
+    static final int SNAPSHOT_VERSION = 3;
+
+    /** Snapshot file content: the shard's accounts and the feed offsets they include */
+    public record ShardSnapshot(int version, int shardCount, Map<String, Long> offsets, List<AccountRisk> accounts) {
+    }
+
+    private static final class Shard {
+        final int index;
+        final ExecutorService writer;
+        final Map<String, AccountRisk> accounts = new HashMap<>();
+
+        Shard(int index) {
+            this.index = index;
+            this.writer = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("risk-ledger-" + index).daemon().factory());
+        }
+    }
+
+    public RiskLedger(Settings settings, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates the shards and restores the latest snapshot, if any.
+     */
+    public void start() {
+        int count = settings.shards() > 0 ? settings.shards() : Runtime.getRuntime().availableProcessors();
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i);
+        }
+        restore();
+
+        callTimer = Timer.builder(settings.metricPrefix() + ".call")
+                .description("Risk check round trip through the account's shard")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder(settings.metricPrefix() + ".accounts", this, ledger -> ledger.accountCount())
+                .register(meterRegistry);
+        expiredOrders = Counter.builder(settings.metricPrefix() + ".expired_orders")
+                .description("Open orders whose exposure was released by the open-order TTL")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        if (shards != null) {
+            for (Shard shard : shards) {
+                shard.writer.close();
+            }
+        }
+    }
+
+    /**
+     * Runs a read or check on the account's shard thread and waits for the result.
+     */
+    public int call(String accountId, ToIntFunction<AccountRisk> check) {
+        Shard shard = shardFor(accountId);
+        long start = System.nanoTime();
+        try {
+            return shard.writer.submit(() -> check.applyAsInt(account(shard, accountId)))
+                    .get(settings.callTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for risk shard " + shard.index, e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Risk check failed on shard " + shard.index, e);
+        } finally {
+            callTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs a read on the account's shard thread without waiting; for callers that
+     * pipeline many checks (risk-service streams).
+     */
+    public <T> CompletableFuture<T> submit(String accountId, Function<AccountRisk, T> read) {
+        Shard shard = shardFor(accountId);
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> read.apply(account(shard, accountId)), shard.writer)
+                .whenComplete((result, error) -> callTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Queues an update on the account's shard; updates of one account apply in call order.
+     */
+    public void apply(String accountId, Consumer<AccountRisk> update) {
+        Shard shard = shardFor(accountId);
+        shard.writer.execute(() -> update.accept(account(shard, accountId)));
+    }
+
+    /**
+     * Releases, on every shard, the open orders older than the open-order TTL.
+     */
+    public void expireOpenOrders() {
+        if (settings.openOrderTtlMs() <= 0) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - settings.openOrderTtlMs();
+        for (Shard shard : shards) {
+            shard.writer.execute(() -> {
+                int expired = 0;
+                for (AccountRisk account : shard.accounts.values()) {
+                    expired += account.expire(cutoff);
+                }
+                if (expired > 0) {
+                    expiredOrders.increment(expired);
+                    log.info("Released {} open orders past their TTL on risk shard {}", expired, shard.index);
+                }
+            });
+        }
+    }
+
+    /**
+     * Feed offsets (topic-partition -&gt; next offset) covered by the restored snapshot.
+     */
+    public Map<String, Long> restoredOffsets() {
+        return restoredOffsets;
+    }
+
+    /**
+     * Writes every shard's state as of now. Must be called by the feed thread between
+     * dispatches, so that the given offsets are exactly what every shard has applied.
+     */
+    public void snapshot(Map<String, Long> offsets) {
+        Path dir = Path.of(settings.snapshotDir());
+        Map<String, Long> cut = Map.copyOf(offsets);
+        for (Shard shard : shards) {
+            shard.writer.execute(() -> {
+                try {
+                    Files.createDirectories(dir);
+                    ShardSnapshot snapshot = new ShardSnapshot(SNAPSHOT_VERSION, shards.length, cut,
+                            new ArrayList<>(shard.accounts.values()));
+                    Path file = snapshotFile(dir, shard.index);
+                    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                    Files.write(temp, objectMapper.writeValueAsBytes(snapshot));
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (Exception e) {
+                    log.error("Failed to snapshot risk shard {}: {}", shard.index, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void restore() {
+        Path dir = Path.of(settings.snapshotDir());
+        List<ShardSnapshot> snapshots = new ArrayList<>(shards.length);
+        try {
+            for (Shard shard : shards) {
+                Path file = snapshotFile(dir, shard.index);
+                if (!Files.exists(file)) {
+                    return;
+                }
+                snapshots.add(objectMapper.readValue(Files.readAllBytes(file), ShardSnapshot.class));
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable risk ledger snapshot in {}: {}", dir, e.getMessage());
+            return;
+        }
+
+        Map<String, Long> cut = snapshots.get(0).offsets();
+        for (ShardSnapshot snapshot : snapshots) {
+            if (snapshot.version() != SNAPSHOT_VERSION || snapshot.shardCount() != shards.length
+                    || !snapshot.offsets().equals(cut)) {
+                log.warn("Risk ledger snapshot in {} does not match version {} and {} shards at one cut, "
+                        + "rebuilding from the feed", dir, SNAPSHOT_VERSION, shards.length);
+                return;
+            }
+        }
+        int accounts = 0;
+        for (int i = 0; i < shards.length; i++) {
+            for (AccountRisk account : snapshots.get(i).accounts()) {
+                account.setMaxOpenOrders(settings.maxOpenOrders());
+                shards[i].accounts.put(account.getAccountId(), account);
+                accounts++;
+            }
+        }
+        restoredOffsets = cut;
+        log.info("Restored {} accounts into {} risk shards from {}", accounts, shards.length, dir);
+    }
+
+    private Shard shardFor(String accountId) {
+        return shards[Math.floorMod(accountId.hashCode(), shards.length)];
+    }
+
+    private AccountRisk account(Shard shard, String accountId) {
+        return shard.accounts.computeIfAbsent(accountId, id -> {
+            AccountRisk account = new AccountRisk(id, FixedPoint.of(settings.defaultBuyingPower()));
+            account.setMaxOpenOrders(settings.maxOpenOrders());
+            return account;
+        });
+    }
+
+    private int accountCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            // Approximate: read outside the shard thread, for the gauge only
+            count += shard.accounts.size();
+        }
+        return count;
+    }
+
+    private static Path snapshotFile(Path dir, int shard) {
+        return dir.resolve("risk-ledger-" + shard + ".json");
+    }
+}
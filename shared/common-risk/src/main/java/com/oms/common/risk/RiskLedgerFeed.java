@@ -0,0 +1,190 @@
+package com.oms.common.risk;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import com.oms.common.kafka.OrderDeserializer;
+import com.oms.common.kafka.OrderWireFormat;
+import com.oms.common.kafka.PartitionAssignment;
+import com.oms.common.model.FixedPoint;
+import com.oms.common.model.OrderDTO;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Feeds the {@link RiskLedger} from orders.validated (opens exposure), orders.rejected
+ * (releases it) and executions.fills (moves it into positions and cash), and expires
+ * open orders past the ledger's TTL before each snapshot.
+ *
+ * Every instance reads every partition of these topics (assigned, no consumer group),
+ * so each validator holds the whole ledger. Offsets are never committed: the feed
+ * resumes from the ledger's restored snapshot, or from the beginning without one, and
+ * triggers new snapshots between polls so that their offsets are an exact cut. After a
+ * failure it resumes where it stopped, and topics and partitions created later are
+ * picked up by a periodic refresh.
+ *
+ * Validated orders open exposure at the price given by the owner's pricer (limit or
+ * stop price, or a quote for market orders, as a {@link FixedPoint} long), which must
+ * match what it reserves with.
+ * They may be JSON or binary ({@link OrderWireFormat}); rejections and fills are JSON.
+ */
+@Slf4j
+public class RiskLedgerFeed {
+
+    /**
+     * @param groupId only used as the consumer's client identity; offsets are never committed
+     */
+    public record Settings(String validatedTopic, String rejectedTopic, String fillsTopic, long snapshotIntervalMs,
+            String groupId) {
+    }
+
+    /** orders.rejected payload, as the validator publishes it */
+    private record RejectedOrder(OrderDTO order, String rejectionReason) {
+    }
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final RiskLedger riskLedger;
+    private final ToLongFunction<OrderDTO> pricer;
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+    private final OrderDeserializer orderDeserializer;
+
+    /** Next offset to apply per partition, kept across restarts of the feed */
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread feedThread;
+
+    public RiskLedgerFeed(ConsumerFactory<String, byte[]> consumerFactory, RiskLedger riskLedger,
+            ToLongFunction<OrderDTO> pricer, Settings settings, ObjectMapper objectMapper) {
+        this.consumerFactory = consumerFactory;
+        this.riskLedger = riskLedger;
+        this.pricer = pricer;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.orderDeserializer = new OrderDeserializer(objectMapper);
+    }
+
+    public void start() {
+        running = true;
+        feedThread = new Thread(this::run, "risk-ledger-feed");
+        feedThread.setDaemon(true);
+        feedThread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        if (feedThread != null) {
+            feedThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void run() {
+        long backoffMs = 100;
+        while (running) {
+            try {
+                consume();
+                backoffMs = 100;
+            } catch (Exception e) {
+                log.error("Risk ledger feed failed, restarting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void consume() {
+        long snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.snapshotIntervalMs());
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(settings.groupId(), null, null)) {
+            PartitionAssignment assignment = new PartitionAssignment(consumer,
+                    List.of(settings.validatedTopic(), settings.rejectedTopic(), settings.fillsTopic()));
+            Map<String, Long> restored = riskLedger.restoredOffsets();
+            seek(consumer, assignment.assign(), restored);
+            log.info("Risk ledger feed reading {} partitions", assignment.partitions().size());
+
+            long lastSnapshot = System.nanoTime();
+            while (running) {
+                seek(consumer, assignment.refresh(), restored);
+
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                for (TopicPartition tp : records.partitions()) {
+                    for (ConsumerRecord<String, byte[]> record : records.records(tp)) {
+                        dispatch(record);
+                        positions.put(tp, record.offset() + 1);
+                    }
+                }
+
+                if (System.nanoTime() - lastSnapshot >= snapshotIntervalNanos) {
+                    Map<String, Long> offsets = new HashMap<>();
+                    for (TopicPartition tp : assignment.partitions()) {
+                        offsets.put(tp.toString(), consumer.position(tp));
+                    }
+                    riskLedger.expireOpenOrders();
+                    riskLedger.snapshot(offsets);
+                    lastSnapshot = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    /**
+     * Positions newly assigned partitions where an earlier run of the feed left off, since
+     * the ledger already holds what it applied; else at the restored snapshot's offset, or
+     * at the beginning for partitions it does not cover.
+     */
+    private void seek(Consumer<String, byte[]> consumer, List<TopicPartition> partitions,
+            Map<String, Long> restored) {
+        for (TopicPartition tp : partitions) {
+            Long offset = positions.getOrDefault(tp, restored.get(tp.toString()));
+            if (offset != null) {
+                consumer.seek(tp, offset);
+            } else {
+                consumer.seekToBeginning(List.of(tp));
+            }
+        }
+    }
+
+    private void dispatch(ConsumerRecord<String, byte[]> record) {
+        try {
+            if (record.topic().equals(settings.validatedTopic())) {
+                OrderDTO order = orderDeserializer.deserialize(record.topic(), record.headers(), record.value());
+                if (order.getAccountId() != null) {
+                    long quantity = FixedPoint.fromBigDecimal(order.getQuantity());
+                    long price = pricer.applyAsLong(order);
+                    riskLedger.apply(order.getAccountId(), account -> account.open(order.getOrderId(),
+                            order.getSymbol(), order.getSide(), quantity, price, record.timestamp()));
+                }
+            } else if (record.topic().equals(settings.rejectedTopic())) {
+                OrderDTO order = objectMapper.readValue(record.value(), RejectedOrder.class).order();
+                if (order != null && order.getAccountId() != null) {
+                    riskLedger.apply(order.getAccountId(), account -> account.release(order.getOrderId()));
+                }
+            } else {
+                Fill fill = objectMapper.readValue(record.value(), Fill.class);
+                if (fill.accountId() != null) {
+                    riskLedger.apply(fill.accountId(), account -> account.fill(fill, record.timestamp()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Skipping unreadable risk feed record {}-{}@{}: {}", record.topic(), record.partition(),
+                    record.offset(), e.getMessage());
+        }
+    }
+}